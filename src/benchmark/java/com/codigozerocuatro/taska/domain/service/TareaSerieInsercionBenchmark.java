@@ -0,0 +1,128 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.TaskaApplication;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaEliminadaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de crear una serie diaria de 365 ocurrencias con lotes de INSERT de 1 y de 50 filas,
+ * sobre el contexto completo y un PostgreSQL embebido con las migraciones de Flyway. Al terminar
+ * cada tamaño de lote imprime los viajes a la base de datos por serie. Los viajes van por
+ * loopback; contra una base de datos remota cada uno suma además la latencia de red.
+ * Se ejecuta con {@code mvn -Pbenchmark test -Djmh.include=TareaSerieInsercionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 10, time = 2)
+public class TareaSerieInsercionBenchmark {
+
+    private static final int OCURRENCIAS = 365;
+
+    @Param({"1", "50"})
+    public int tamanoLote;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private TareaService tareaService;
+    private TareaJpaRepository tareaRepository;
+    private TareaSerieJpaRepository serieRepository;
+    private TareaEliminadaJpaRepository eliminadaRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private CrearTareaRequest request;
+
+    private long series;
+    private long viajes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(TaskaApplication.class, JdbcRoundTripCounter.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.flyway.locations=classpath:db/migration,classpath:db/vendor/postgresql");
+        tareaService = context.getBean(TareaService.class);
+        tareaRepository = context.getBean(TareaJpaRepository.class);
+        serieRepository = context.getBean(TareaSerieJpaRepository.class);
+        eliminadaRepository = context.getBean(TareaEliminadaJpaRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        PuestoEntity puesto = context.getBean(PuestoJpaRepository.class).findByPuesto(PuestoEnum.COCINERO).orElseThrow();
+        TurnoEntity turno = context.getBean(TurnoJpaRepository.class).findAll().stream()
+                .filter(existente -> existente.getTurno() == TurnoEnum.MANANA)
+                .findFirst()
+                .orElseThrow();
+        request = new CrearTareaRequest("Serie de un año", puesto.getId(), turno.getId(),
+                TipoRecurrencia.DIARIA.name(), null, null, null, OCURRENCIAS, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%nLotes de %d: %d viajes por serie de %d ocurrencias%n",
+                tamanoLote, viajes / series, OCURRENCIAS);
+        context.close();
+        postgres.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void limpiar() {
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAllInBatch();
+        eliminadaRepository.deleteAllInBatch();
+    }
+
+    @Benchmark
+    public long crearSerie() {
+        JdbcRoundTripCounter.reset();
+        Long serieId = transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(tamanoLote);
+            Long id = tareaService.crear(request).getSerieId();
+            entityManager.flush();
+            return id;
+        });
+        viajes += JdbcRoundTripCounter.roundTrips();
+        series++;
+        return serieId;
+    }
+}
@@ -0,0 +1,92 @@
+package com.codigozerocuatro.taska.infra.config.security;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.User;
+import com.codigozerocuatro.taska.domain.service.VersionesSeguridad;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.config.cache.BusInvalidaciones;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import com.codigozerocuatro.taska.infra.security.JwtService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Coste por petición de {@link JwtAuthenticationFilter} con un token de acceso válido, sin base de
+ * datos: el usuario sale de los claims y la versión de seguridad se carga una vez de un repositorio
+ * simulado. cacheSize=0 verifica la firma en cada petición; con caché solo se verifica la primera
+ * vez que llega el token.
+ * Antes de verificar una sola vez, el filtro parseaba el token tres veces por petición.
+ * Se ejecuta con {@code mvn -Pbenchmark test -Djmh.include=JwtAuthenticationFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "test-secret-for-jwt-in-tests-this-should-be-at-least-32-characters-long";
+    private static final FilterChain FIN = (request, response) -> { };
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        UserEntity user = new UserEntity();
+        user.setUsername("cocinero");
+        user.setRol(RolEnum.USER);
+        user.setPuesto(PuestoEnum.COCINERO);
+        User principal = new User(user);
+        UserJpaRepository userRepository = mock(UserJpaRepository.class);
+        when(userRepository.findVersionSeguridadByUsername("cocinero")).thenReturn(Optional.of(0L));
+
+        AppProperties appProperties = new AppProperties(new AppProperties.Jwt(SECRET, 3_600_000, 604_800_000,
+                cacheSize, Duration.ofMinutes(1)), null, null, null, null, null, null, null);
+        JwtService jwtService = new JwtService(appProperties);
+        filter = new JwtAuthenticationFilter(jwtService, new VersionesSeguridad(userRepository, mock(BusInvalidaciones.class), appProperties));
+        authorization = "Bearer " + jwtService.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public void filtrarPeticion(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tareas/week");
+        request.addHeader("Authorization", authorization);
+
+        filter.doFilter(request, new MockHttpServletResponse(), FIN);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        blackhole.consume(authentication);
+    }
+}
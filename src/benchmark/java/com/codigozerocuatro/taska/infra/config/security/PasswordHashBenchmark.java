@@ -0,0 +1,49 @@
+package com.codigozerocuatro.taska.infra.config.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Milisegundos de CPU de una comprobación de contraseña con cada coste de BCrypt. El pool de hashes
+ * admite como mucho app.password.hilos * 1000 / ms logins por segundo: con 250 ms por hash y 2 hilos,
+ * unos 8. Para elegir app.password.coste se ejecuta en la máquina de producción y se toma el mayor
+ * coste cuyo tiempo sea aceptable para un login, con
+ * {@code mvn -Pbenchmark test -Djmh.include=PasswordHashBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class PasswordHashBenchmark {
+
+    @Param({"10", "11", "12"})
+    public int coste;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(coste);
+        hash = encoder.encode("contraseña-de-prueba");
+    }
+
+    @Benchmark
+    public boolean comprobar() {
+        return encoder.matches("contraseña-de-prueba", hash);
+    }
+}
@@ -0,0 +1,13 @@
+package com.codigozerocuatro.taska.domain.exception;
+
+import com.codigozerocuatro.taska.domain.model.ErrorCode;
+
+/**
+ * El servidor no admite más trabajo de este tipo por ahora; el cliente puede reintentar
+ */
+public class AppServiceUnavailableException extends RuntimeException {
+
+    public AppServiceUnavailableException() {
+        super(ErrorCode.SERVICE_UNAVAILABLE);
+    }
+}
@@ -4,7 +4,9 @@ public final class CacheKey {
 
     public static final String TURNOS = "TURNOS";
     public static final String PUESTOS = "PUESTOS";
+    public static final String PUESTO_ID = "PUESTO_ID";
     public static final String USER = "USER";
+    public static final String TAREAS_BUSQUEDA = "TAREAS_BUSQUEDA";
 
     private CacheKey(){
         throw new IllegalStateException("Utility class");
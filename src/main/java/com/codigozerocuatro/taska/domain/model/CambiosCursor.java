@@ -0,0 +1,56 @@
+package com.codigozerocuatro.taska.domain.model;
+
+import com.codigozerocuatro.taska.domain.exception.AppValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Posición en la secuencia de cambios de tareas: transacción del cambio y, dentro de ella, id de
+ * la tarea. Se envía al cliente codificado como un token opaco.
+ *
+ * @param cambio transacción que insertó, modificó o eliminó la tarea
+ * @param id id de la tarea
+ */
+public record CambiosCursor(long cambio, long id) implements Comparable<CambiosCursor> {
+
+    /**
+     * Antes de cualquier cambio: un cliente sin cursor recibe todas las tareas
+     */
+    public static final CambiosCursor INICIO = new CambiosCursor(0, 0);
+
+    private static final Comparator<CambiosCursor> ORDEN = Comparator
+            .comparingLong(CambiosCursor::cambio)
+            .thenComparingLong(CambiosCursor::id);
+
+    private static final String SEPARADOR = ":";
+
+    /**
+     * Decodifica un token generado por {@link #codificar()}
+     *
+     * @return el cursor, o {@link #INICIO} si el token está vacío
+     */
+    public static CambiosCursor decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return INICIO;
+        }
+
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARADOR);
+            return new CambiosCursor(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+        } catch (RuntimeException e) {
+            throw new AppValidationException("cursor", ErrorCode.CURSOR_INVALID);
+        }
+    }
+
+    public String codificar() {
+        String valor = cambio + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(CambiosCursor otro) {
+        return ORDEN.compare(this, otro);
+    }
+}
@@ -0,0 +1,21 @@
+package com.codigozerocuatro.taska.domain.model;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+
+import java.util.List;
+
+/**
+ * Cambios de tareas posteriores a un cursor. Una tarea aparece como mucho en una de las dos listas.
+ *
+ * @param tareas tareas insertadas o modificadas, con su estado actual
+ * @param eliminadas ids de las tareas eliminadas
+ * @param cursor cursor opaco para pedir los cambios siguientes; se devuelve aunque no haya cambios
+ * @param hayMas si hay más cambios ya disponibles, que se deben pedir enseguida con el cursor
+ */
+public record CambiosTareas(
+        List<TareaEntity> tareas,
+        List<Long> eliminadas,
+        String cursor,
+        boolean hayMas
+) {
+}
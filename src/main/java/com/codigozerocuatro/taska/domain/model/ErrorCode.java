@@ -13,6 +13,10 @@ public final class ErrorCode {
     public static final String RESOURCE_NOT_FOUND = "error.resource.not_found";
     public static final String METHOD_NOT_ALLOWED = "error.http.method_not_allowed";
     public static final String INTERNAL_ERROR = "error.internal";
+    public static final String CURSOR_INVALID = "error.cursor.invalid";
+    public static final String LIMITE_INVALID_RANGE = "error.limite.invalid.range";
+    public static final String RANGO_FECHAS_REQUIRED = "error.rangoFechas.required";
+    public static final String SERVICE_UNAVAILABLE = "error.service.unavailable";
 
     // Auth
     public static final String BAD_CREDENTIALS = "error.auth.bad_credentials";
@@ -42,5 +46,9 @@ public final class ErrorCode {
     public static final String DIA_MES_INVALID_RANGE = "error.diames.invalid.range";
     public static final String DIA_MES_REQUIRED = "error.diames.required";
     public static final String NUMERO_REPETICIONES_INVALID_RANGE = "error.numeroRepeticiones.invalid.range";
+    public static final String TAREAS_REQUIRED = "error.tareas.required";
+    public static final String TAREAS_MAX_SIZE = "error.tareas.max_size";
+    public static final String TAREA_ID_REQUIRED = "error.tarea.id.required";
+    public static final String COMPLETADA_REQUIRED = "error.completada.required";
 }
 
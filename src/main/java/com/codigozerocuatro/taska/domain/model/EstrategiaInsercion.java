@@ -0,0 +1,6 @@
+package com.codigozerocuatro.taska.domain.model;
+
+public enum EstrategiaInsercion {
+    JPA,            // Se compone cada ocurrencia en la JVM y se inserta en lotes JDBC (portable)
+    GENERATE_SERIES // Un único INSERT ... SELECT generate_series por serie (solo PostgreSQL)
+}
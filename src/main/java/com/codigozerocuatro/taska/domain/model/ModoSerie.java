@@ -0,0 +1,7 @@
+package com.codigozerocuatro.taska.domain.model;
+
+public enum ModoSerie {
+    MATERIALIZADA, // Se persiste una fila por cada ocurrencia de la serie
+    VIRTUAL,       // Solo se persiste la regla; las ocurrencias se expanden al leer
+    VENTANA        // Se persisten las ocurrencias hasta el horizonte configurado y se amplía cada noche
+}
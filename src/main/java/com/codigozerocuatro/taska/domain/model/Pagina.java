@@ -0,0 +1,15 @@
+package com.codigozerocuatro.taska.domain.model;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una búsqueda por cursor
+ *
+ * @param contenido elementos de la página
+ * @param siguiente cursor opaco para pedir la página siguiente, nulo si no hay más
+ */
+public record Pagina<T>(
+        List<T> contenido,
+        String siguiente
+) {
+}
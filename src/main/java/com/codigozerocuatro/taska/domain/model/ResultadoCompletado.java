@@ -0,0 +1,25 @@
+package com.codigozerocuatro.taska.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Resultado de marcar o desmarcar una tarea dentro de un cambio en bloque
+ *
+ * @param id id de la tarea
+ * @param estado qué se ha hecho con la tarea
+ * @param completada estado final, nulo si la tarea no existe
+ * @param fechaCompletada fecha de completado final, nula si no está completada
+ */
+public record ResultadoCompletado(
+        Long id,
+        Estado estado,
+        Boolean completada,
+        Instant fechaCompletada
+) {
+
+    public enum Estado {
+        ACTUALIZADA,
+        SIN_CAMBIOS,
+        NO_ENCONTRADA
+    }
+}
@@ -0,0 +1,46 @@
+package com.codigozerocuatro.taska.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Criterios efectivos de una búsqueda de tareas, ya validados. Dos filtros que producen la
+ * misma búsqueda tienen la misma clave.
+ *
+ * @param puestoId puesto efectivo según el usuario, nulo para todos
+ * @param turnoId turno, nulo para todos
+ * @param tipoRecurrencia tipo de recurrencia, nulo para todos
+ * @param diaSemana día de la semana, nulo para todos
+ * @param completada estado, nulo para ambos
+ * @param desde primera fecha incluida, nula si no se acota
+ * @param hasta última fecha incluida, nula si no se acota
+ * @param cursor posición a partir de la que se lee, nulo para la primera página
+ * @param tamano tamaño de página, nulo para todas las tareas
+ */
+public record TareaBusquedaClave(
+        Long puestoId,
+        Long turnoId,
+        TipoRecurrencia tipoRecurrencia,
+        DiaSemana diaSemana,
+        Boolean completada,
+        LocalDate desde,
+        LocalDate hasta,
+        TareaCursor cursor,
+        Integer tamano
+) {
+
+    /**
+     * Indica si el resultado de esta búsqueda puede contener tareas del puesto entre las fechas indicadas
+     *
+     * @param puesto puesto de las tareas, nulo si puede ser cualquiera
+     * @param fechaDesde primera fecha
+     * @param fechaHasta última fecha, nula si no tiene fin
+     */
+    public boolean puedeIncluir(Long puesto, LocalDate fechaDesde, LocalDate fechaHasta) {
+        if (puestoId != null && puesto != null && !puestoId.equals(puesto)) {
+            return false;
+        }
+        boolean anterior = hasta != null && hasta.isBefore(fechaDesde);
+        boolean posterior = desde != null && fechaHasta != null && desde.isAfter(fechaHasta);
+        return !anterior && !posterior;
+    }
+}
@@ -0,0 +1,36 @@
+package com.codigozerocuatro.taska.domain.model;
+
+import java.time.LocalDate;
+
+/**
+ * Cambio confirmado en las tareas de un puesto. Es el evento que reciben los clientes
+ * suscritos: indica qué ha cambiado, no el contenido de las tareas.
+ *
+ * @param tipo operación realizada
+ * @param tareaId tarea modificada, nulo si el cambio afecta a varias tareas
+ * @param puestoId puesto de las tareas modificadas, nulo si puede ser cualquiera
+ * @param desde primera fecha modificada
+ * @param hasta última fecha modificada, nula si no tiene fin
+ * @param completada estado final de la tarea si el cambio la marca o desmarca
+ */
+public record TareaCambio(
+        Tipo tipo,
+        Long tareaId,
+        Long puestoId,
+        LocalDate desde,
+        LocalDate hasta,
+        Boolean completada
+) {
+
+    public enum Tipo {
+        CREADA,
+        COMPLETADA,
+        ELIMINADA,
+        // Una ocurrencia virtual pasa a tener fila e id
+        MATERIALIZADA
+    }
+
+    public static TareaCambio de(Tipo tipo, Long puestoId, LocalDate desde, LocalDate hasta) {
+        return new TareaCambio(tipo, null, puestoId, desde, hasta, null);
+    }
+}
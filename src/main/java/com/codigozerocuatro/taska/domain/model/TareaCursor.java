@@ -0,0 +1,79 @@
+package com.codigozerocuatro.taska.domain.model;
+
+import com.codigozerocuatro.taska.domain.exception.AppValidationException;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Posición de una tarea en el orden de los listados: fecha, después las tareas persistidas por id
+ * y por último las ocurrencias virtuales por serieId. Se envía al cliente codificado como un token opaco.
+ *
+ * @param fecha fecha de la tarea
+ * @param id id de la tarea persistida, nulo si es una ocurrencia virtual
+ * @param serieId serie de la ocurrencia virtual, nulo si la tarea está persistida
+ */
+public record TareaCursor(LocalDate fecha, Long id, Long serieId) {
+
+    public static final Comparator<TareaEntity> ORDEN = Comparator
+            .comparing(TareaEntity::getFecha)
+            .thenComparing(tarea -> tarea.getId() == null)
+            .thenComparing(tarea -> tarea.getId() != null ? tarea.getId() : tarea.getSerieId());
+
+    private static final String SEPARADOR = ":";
+
+    public static TareaCursor de(TareaEntity tarea) {
+        return tarea.getId() != null
+                ? new TareaCursor(tarea.getFecha(), tarea.getId(), null)
+                : new TareaCursor(tarea.getFecha(), null, tarea.getSerieId());
+    }
+
+    /**
+     * Decodifica un token generado por {@link #codificar()}
+     *
+     * @return el cursor, o nulo si el token está vacío
+     */
+    public static TareaCursor decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARADOR);
+            LocalDate fecha = LocalDate.ofEpochDay(Long.parseLong(partes[0]));
+            long clave = Long.parseLong(partes[2]);
+            return switch (partes[1]) {
+                case "T" -> new TareaCursor(fecha, clave, null);
+                case "S" -> new TareaCursor(fecha, null, clave);
+                default -> throw new IllegalArgumentException(partes[1]);
+            };
+        } catch (RuntimeException e) {
+            throw new AppValidationException("cursor", ErrorCode.CURSOR_INVALID);
+        }
+    }
+
+    public String codificar() {
+        String valor = fecha.toEpochDay() + SEPARADOR + (esVirtual() ? "S" + SEPARADOR + serieId : "T" + SEPARADOR + id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean esVirtual() {
+        return id == null;
+    }
+
+    /**
+     * Indica si la tarea va después de esta posición
+     */
+    public boolean precede(TareaEntity tarea) {
+        if (!tarea.getFecha().isEqual(fecha)) {
+            return tarea.getFecha().isAfter(fecha);
+        }
+        if (tarea.getId() != null) {
+            return !esVirtual() && tarea.getId() > id;
+        }
+        return !esVirtual() || tarea.getSerieId() > serieId;
+    }
+}
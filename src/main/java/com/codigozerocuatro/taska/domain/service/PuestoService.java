@@ -1,6 +1,7 @@
 package com.codigozerocuatro.taska.domain.service;
 
 import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.infra.dto.PuestoResponse;
 import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
 
 import java.util.List;
@@ -11,5 +12,10 @@ public interface PuestoService {
 
     PuestoEntity obtenerPuestoPorNombre(PuestoEnum puestoEnum);
 
-    List<PuestoEntity> findAll();
+    /**
+     * Id del puesto, cacheado: los puestos son datos de referencia que solo cargan las migraciones
+     */
+    Long obtenerIdPorNombre(PuestoEnum puestoEnum);
+
+    List<PuestoResponse> findAll();
 }
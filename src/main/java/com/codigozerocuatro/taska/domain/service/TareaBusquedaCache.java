@@ -0,0 +1,94 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.CacheKey;
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.domain.model.TareaBusquedaClave;
+import com.codigozerocuatro.taska.infra.dto.TareaResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Resultados de la búsqueda de tareas por clave normalizada. Guarda la respuesta ya compuesta,
+ * inmutable y sin entidades, así que se puede compartir entre hilos. Cada escritura invalida solo
+ * las búsquedas cuyo puesto y rango de fechas pueden incluir las tareas modificadas; el TTL de la
+ * caché es solo una red de seguridad.
+ */
+@Component
+public class TareaBusquedaCache {
+
+    private final Cache<Object, Object> cache;
+    private final Counter invalidaciones;
+
+    /**
+     * Aumenta con cada invalidación, para descartar resultados leídos antes de ella
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    public TareaBusquedaCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        CaffeineCache caffeineCache = (CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheKey.TAREAS_BUSQUEDA));
+        this.cache = caffeineCache.getNativeCache();
+        this.invalidaciones = Counter.builder("cache.invalidations")
+                .description("Entradas eliminadas por escrituras de tareas")
+                .tag("cache", CacheKey.TAREAS_BUSQUEDA)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve la página cacheada o la obtiene con la búsqueda. Dentro de una transacción de
+     * escritura la búsqueda puede ver escrituras sin confirmar, así que se ejecuta sin pasar por
+     * la caché; una de solo lectura solo ve datos confirmados.
+     */
+    @SuppressWarnings("unchecked")
+    public Pagina<TareaResponse> obtener(TareaBusquedaClave clave, Supplier<Pagina<TareaResponse>> busqueda) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return busqueda.get();
+        }
+
+        Pagina<TareaResponse> pagina = (Pagina<TareaResponse>) cache.getIfPresent(clave);
+        if (pagina != null) {
+            return pagina;
+        }
+
+        long versionLeida = version.get();
+        pagina = busqueda.get();
+        // Una invalidación durante la búsqueda puede afectar a lo que se ha leído
+        if (version.get() != versionLeida) {
+            return pagina;
+        }
+        cache.put(clave, pagina);
+        if (version.get() != versionLeida) {
+            cache.invalidate(clave);
+        }
+        return pagina;
+    }
+
+    /**
+     * Invalida las búsquedas que pueden incluir tareas del puesto entre las fechas indicadas.
+     * Se llama desde {@link TareaCambios} una vez confirmado el cambio.
+     *
+     * @param puestoId puesto de las tareas modificadas, nulo si puede ser cualquiera
+     * @param desde primera fecha modificada
+     * @param hasta última fecha modificada, nula si no tiene fin
+     */
+    public void invalidar(Long puestoId, LocalDate desde, LocalDate hasta) {
+        version.incrementAndGet();
+        cache.asMap().keySet().removeIf(clave -> {
+            boolean afectada = ((TareaBusquedaClave) clave).puedeIncluir(puestoId, desde, hasta);
+            if (afectada) {
+                invalidaciones.increment();
+            }
+            return afectada;
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
+import com.codigozerocuatro.taska.infra.config.cache.BusInvalidaciones;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Punto por el que las escrituras de tareas y series indican qué puesto y fechas han
+ * modificado, para invalidar la caché de búsquedas, avanzar las versiones de los ETag y
+ * avisar a los clientes suscritos. Los cambios se reenvían a las demás instancias, que los
+ * aplican igual que los suyos.
+ */
+@Component
+@RequiredArgsConstructor
+public class TareaCambios {
+
+    public static final String TEMA = "TAREAS";
+
+    private final TareaBusquedaCache busquedaCache;
+    private final TareaVersiones versiones;
+    private final TareaSuscripciones suscripciones;
+    private final BusInvalidaciones bus;
+
+    /**
+     * System.nanoTime() del último cambio aplicado, nulo si todavía no hay ninguno
+     */
+    private volatile Long ultimoCambio;
+
+    @PostConstruct
+    void suscribir() {
+        bus.suscribir(TEMA, TareaCambio.class, this::aplicar, this::invalidarTodo);
+    }
+
+    /**
+     * Registra un cambio en las tareas de un puesto. Dentro de una transacción se aplica al
+     * confirmarla, cuando las lecturas ya ven el cambio; si se deshace, no se avisa a nadie.
+     */
+    public void registrar(TareaCambio cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicarYPublicar(cambio);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicarYPublicar(cambio);
+            }
+        });
+    }
+
+    /**
+     * Indica si se ha aplicado algún cambio dentro del intervalo indicado
+     */
+    public boolean hayCambiosRecientes(Duration intervalo) {
+        Long ultimo = ultimoCambio;
+        return ultimo != null && System.nanoTime() - ultimo < intervalo.toNanos();
+    }
+
+    private void aplicarYPublicar(TareaCambio cambio) {
+        aplicar(cambio);
+        bus.publicar(TEMA, cambio);
+    }
+
+    private void aplicar(TareaCambio cambio) {
+        ultimoCambio = System.nanoTime();
+        // Primero la caché: una versión nueva nunca debe servirse con un resultado antiguo
+        busquedaCache.invalidar(cambio.puestoId(), cambio.desde(), cambio.hasta());
+        versiones.incrementar(cambio.puestoId(), cambio.desde(), cambio.hasta());
+        // Al final, para que un cliente que relea al recibir el evento vea ya el cambio
+        suscripciones.publicar(cambio);
+    }
+
+    /**
+     * Se han podido perder cambios de otras instancias: cualquier búsqueda cacheada y cualquier
+     * versión puede estar desfasada
+     */
+    private void invalidarTodo() {
+        ultimoCambio = System.nanoTime();
+        busquedaCache.invalidar(null, LocalDate.MIN, null);
+        versiones.incrementar(null, LocalDate.MIN, null);
+    }
+}
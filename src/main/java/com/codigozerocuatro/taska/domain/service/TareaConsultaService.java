@@ -0,0 +1,49 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.infra.dto.CambiosTareasResponse;
+import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.TareaResponse;
+import com.codigozerocuatro.taska.infra.dto.TareaSerieResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lecturas de tareas para la API. Cada método lee con {@link TareaService} y compone la respuesta
+ * dentro de la misma transacción de solo lectura: al terminar no queda nada por cargar y la
+ * conexión se devuelve al pool antes de serializar.
+ */
+public interface TareaConsultaService {
+
+    /**
+     * @see TareaService#todas(String, Integer)
+     */
+    Pagina<TareaResponse> todas(String cursor, Integer limite);
+
+    /**
+     * @see TareaService#buscar(FiltroTareaRequest, String, Integer)
+     */
+    Pagina<TareaResponse> buscar(FiltroTareaRequest filtro, String cursor, Integer limite);
+
+    /**
+     * @see TareaService#obtenerTareasPorSemana(LocalDate)
+     */
+    List<TareaResponse> semana(LocalDate fecha);
+
+    /**
+     * @see TareaService#obtenerSeries()
+     */
+    List<TareaSerieResponse> series();
+
+    /**
+     * @see TareaService#cambios(Long, String, Integer)
+     */
+    CambiosTareasResponse cambios(Long puestoId, String cursor, Integer limite);
+
+    /**
+     * @see TareaService#exportar(Consumer)
+     */
+    long exportar(Consumer<TareaResponse> consumidor);
+}
@@ -5,6 +5,7 @@ import com.codigozerocuatro.taska.domain.model.TareaValida;
 import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
 import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
 import org.springframework.stereotype.Component;
 
@@ -12,106 +13,120 @@ import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Component
 public class TareaRecurrenciaGenerator {
 
+    public static final int REPETICIONES_MAX = 365;
+
     /**
-     * Crea la tarea padre (primera tarea de la serie recurrente).
+     * Crea la tarea padre (primera tarea de la serie recurrente) junto con su serie.
+     * Las tareas de una vez tienen una serie con una única ocurrencia.
      * 
      * @param tareaValidada Datos validados de la tarea
      * @param puesto Entidad del puesto
      * @param turno Entidad del turno
-     * @return Tarea padre (sin persistir)
+     * @return Tarea padre con su serie asignada (ambas sin persistir)
      */
     public TareaEntity componerTareaPadre(TareaValida tareaValidada, PuestoEntity puesto, TurnoEntity turno) {
-        LocalDate fechaInicio = obtenerFechaInicio(tareaValidada);
-        return crearTareaBase(tareaValidada, puesto, turno, fechaInicio);
+        TareaSerieEntity serie = componerSerie(tareaValidada, puesto, turno);
+        return componerOcurrencia(serie, serie.getFechaInicio());
     }
 
     /**
-     * Genera las tareas hijas basándose en una tarea padre ya persistida.
-     * 
-     * @param tareaPadre Tarea padre ya persistida con ID
+     * Compone la regla de la serie. La serie empieza marcada como materializada
+     * solo hasta su primera ocurrencia (la tarea padre).
+     *
      * @param tareaValidada Datos validados de la tarea original
-     * @return Lista de tareas hijas (sin persistir)
+     * @param puesto Entidad del puesto
+     * @param turno Entidad del turno
+     * @return Serie sin persistir
      */
-    public List<TareaEntity> generarTareasHijas(TareaEntity tareaPadre, TareaValida tareaValidada) {
-        // Si es UNA_VEZ, no generar tareas hijas
-        if (tareaValidada.tipoRecurrencia() == TipoRecurrencia.UNA_VEZ) {
-            return List.of();
-        }
-
-        LocalDate fechaInicio = tareaPadre.getFecha();
-        List<TareaEntity> tareasHijas = new ArrayList<>();
-
-        // Decidir si usar fechaMaxima o numeroRepeticiones
-        if (tareaValidada.fechaMaxima() != null) {
-            // Generar tareas hasta fechaMaxima
-            generarTareasHastaFecha(tareasHijas, tareaPadre, tareaValidada, fechaInicio);
-        } else {
-            // Generar según numeroRepeticiones (solo si hay más de una repetición)
-            if (tareaValidada.numeroRepeticiones() > 1) {
-                generarTareasPorRepeticiones(tareasHijas, tareaPadre, tareaValidada, fechaInicio);
-            }
-        }
+    public TareaSerieEntity componerSerie(TareaValida tareaValidada, PuestoEntity puesto, TurnoEntity turno) {
+        return componerSerie(tareaValidada, puesto, turno, obtenerFechaInicio(tareaValidada));
+    }
 
-        return tareasHijas;
+    TareaSerieEntity componerSerie(TareaValida tareaValidada, PuestoEntity puesto, TurnoEntity turno, LocalDate fechaInicio) {
+        TareaSerieEntity serie = new TareaSerieEntity();
+        serie.setDescripcion(tareaValidada.descripcion());
+        serie.setTipoRecurrencia(tareaValidada.tipoRecurrencia());
+        serie.setDiaSemana(tareaValidada.diaSemana());
+        serie.setDiaMes(tareaValidada.diaMes());
+        serie.setPuesto(puesto);
+        serie.setTurno(turno);
+        serie.setFechaInicio(fechaInicio);
+        serie.setFechaFin(tareaValidada.tipoRecurrencia() == TipoRecurrencia.UNA_VEZ
+                ? fechaInicio
+                : calcularFechaFin(fechaInicio, tareaValidada));
+        serie.setMaterializadaHasta(fechaInicio);
+        return serie;
     }
 
-    private void generarTareasHastaFecha(List<TareaEntity> tareasHijas, TareaEntity tareaPadre, 
-                                         TareaValida tareaValidada, LocalDate fechaInicio) {
-        LocalDate fechaMaxima = tareaValidada.fechaMaxima();
-        int repeticion = 1;
-        
-        while (true) {
-            LocalDate fechaTarea = calcularFechaPorRepeticion(fechaInicio, tareaValidada.tipoRecurrencia(), repeticion);
-            
-            // Si la fecha calculada supera la fecha máxima, detener
-            if (fechaTarea.isAfter(fechaMaxima)) {
-                break;
-            }
-            
-            TareaEntity tareaHija = crearTareaBase(tareaValidada, tareaPadre.getPuesto(), tareaPadre.getTurno(), fechaTarea);
-            tareaHija.setIdTareaPadre(tareaPadre.getId());
-            tareasHijas.add(tareaHija);
-            
-            repeticion++;
-            
-            // Límite de seguridad para evitar bucles infinitos
-            if (repeticion > 365) {
-                break;
-            }
-        }
+    /**
+     * Calcula las fechas de las ocurrencias de una serie dentro de un rango. La ocurrencia
+     * n-ésima cae n días, semanas, quincenas o meses después de la fecha de inicio.
+     *
+     * @param serie Regla de la serie
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (inclusive)
+     * @return Fechas de las ocurrencias ordenadas de menor a mayor
+     */
+    public List<LocalDate> calcularFechas(TareaSerieEntity serie, LocalDate desde, LocalDate hasta) {
+        return streamFechas(serie, desde, hasta).toList();
     }
 
-    private void generarTareasPorRepeticiones(List<TareaEntity> tareasHijas, TareaEntity tareaPadre, 
-                                             TareaValida tareaValidada, LocalDate fechaInicio) {
-        // Generar desde la segunda repetición (índice 1) en adelante
-        for (int i = 1; i < tareaValidada.numeroRepeticiones(); i++) {
-            LocalDate fechaTarea = calcularFechaPorRepeticion(fechaInicio, tareaValidada.tipoRecurrencia(), i);
-            
-            TareaEntity tareaHija = crearTareaBase(tareaValidada, tareaPadre.getPuesto(), tareaPadre.getTurno(), fechaTarea);
-            tareaHija.setIdTareaPadre(tareaPadre.getId());
-            
-            tareasHijas.add(tareaHija);
-        }
+    /**
+     * Igual que {@link #calcularFechas}, pero calcula cada fecha al consumirla: quien solo
+     * necesita las primeras no recorre la serie entera.
+     */
+    public Stream<LocalDate> streamFechas(TareaSerieEntity serie, LocalDate desde, LocalDate hasta) {
+        LocalDate limite = hasta.isBefore(serie.getFechaFin()) ? hasta : serie.getFechaFin();
+
+        return IntStream.rangeClosed(0, REPETICIONES_MAX)
+                .mapToObj(repeticion -> calcularFechaPorRepeticion(serie.getFechaInicio(), serie.getTipoRecurrencia(), repeticion))
+                .takeWhile(fecha -> !fecha.isAfter(limite))
+                .dropWhile(fecha -> fecha.isBefore(desde));
     }
 
-    private TareaEntity crearTareaBase(TareaValida tareaValidada, PuestoEntity puesto, TurnoEntity turno, LocalDate fecha) {
+    /**
+     * Compone una ocurrencia de la serie en la fecha indicada.
+     *
+     * @param serie Regla de la serie
+     * @param fecha Fecha de la ocurrencia
+     * @return Ocurrencia sin persistir
+     */
+    public TareaEntity componerOcurrencia(TareaSerieEntity serie, LocalDate fecha) {
         TareaEntity tarea = new TareaEntity();
-        tarea.setDescripcion(tareaValidada.descripcion());
-        tarea.setTipoRecurrencia(tareaValidada.tipoRecurrencia());
-        tarea.setDiaSemana(tareaValidada.diaSemana());
-        tarea.setDiaMes(tareaValidada.diaMes());
         tarea.setFecha(fecha);
-        tarea.setPuesto(puesto);
-        tarea.setTurno(turno);
+        tarea.setPuesto(serie.getPuesto());
+        tarea.setTurno(serie.getTurno());
+        tarea.setSerie(serie);
         return tarea;
     }
 
+    LocalDate calcularFechaFin(LocalDate fechaInicio, TareaValida tareaValidada) {
+        if (tareaValidada.fechaMaxima() != null) {
+            LocalDate fechaFin = fechaInicio;
+            for (int repeticion = 1; repeticion <= REPETICIONES_MAX; repeticion++) {
+                LocalDate fechaTarea = calcularFechaPorRepeticion(fechaInicio, tareaValidada.tipoRecurrencia(), repeticion);
+                if (fechaTarea.isAfter(tareaValidada.fechaMaxima())) {
+                    break;
+                }
+                fechaFin = fechaTarea;
+            }
+            return fechaFin;
+        }
+
+        if (tareaValidada.numeroRepeticiones() > 1) {
+            return calcularFechaPorRepeticion(fechaInicio, tareaValidada.tipoRecurrencia(), tareaValidada.numeroRepeticiones() - 1);
+        }
+
+        return fechaInicio;
+    }
+
     private LocalDate obtenerFechaInicio(TareaValida tareaValidada) {
         // Para UNA_VEZ, usar la fecha especificada
         if (tareaValidada.tipoRecurrencia() == TipoRecurrencia.UNA_VEZ) {
@@ -0,0 +1,151 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.TareaCursor;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaConteo;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieFecha;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.specification.TareaSerieSpecification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Expande al leer las ocurrencias de las series que no tienen fila en tarea.
+ * Las ocurrencias virtuales no tienen id; se identifican por serieId y fecha.
+ */
+@Component
+@RequiredArgsConstructor
+public class TareaSerieExpander {
+
+    private final TareaSerieJpaRepository serieRepository;
+    private final TareaJpaRepository tareaRepository;
+    private final TareaRecurrenciaGenerator recurrenciaGenerator;
+
+    /**
+     * Ocurrencias virtuales de las series que cumplen el filtro dentro del rango.
+     *
+     * @param filtro filtro sobre las series, puede ser nulo
+     * @param desde inicio del rango (inclusive), nulo para no acotar
+     * @param hasta fin del rango (inclusive), nulo para no acotar
+     * @return ocurrencias sin persistir ordenadas por fecha
+     */
+    public List<TareaEntity> ocurrenciasVirtuales(Specification<TareaSerieEntity> filtro, LocalDate desde, LocalDate hasta) {
+        return expandir(buscarSeries(filtro, desde, hasta), desde, hasta, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Primeras ocurrencias virtuales de cada serie posteriores al cursor. Para llenar una página
+     * basta con tantas por serie como tareas tiene la página: las demás no se calculan.
+     *
+     * @param filtro filtro sobre las series, puede ser nulo
+     * @param desde inicio del rango (inclusive), nulo para no acotar
+     * @param hasta fin del rango (inclusive), nulo para no acotar
+     * @param cursor posición a partir de la que se devuelven, nulo para empezar por el principio
+     * @param maximoPorSerie número máximo de ocurrencias de cada serie
+     * @return ocurrencias sin persistir ordenadas por fecha
+     */
+    public List<TareaEntity> ocurrenciasVirtuales(Specification<TareaSerieEntity> filtro, LocalDate desde, LocalDate hasta,
+                                                  TareaCursor cursor, int maximoPorSerie) {
+        return expandir(buscarSeries(filtro, desde, hasta), desde, hasta, cursor, maximoPorSerie);
+    }
+
+    /**
+     * Número de ocurrencias virtuales de las series que cumplen el filtro dentro del rango, por
+     * fecha, puesto y turno. Solo calcula fechas: no compone las ocurrencias.
+     *
+     * @param filtro filtro sobre las series, puede ser nulo
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (inclusive)
+     * @return conteos de ocurrencias pendientes, uno por grupo, sin orden
+     */
+    public List<TareaConteo> contarOcurrenciasVirtuales(Specification<TareaSerieEntity> filtro, LocalDate desde, LocalDate hasta) {
+        List<TareaConteo> conteos = new ArrayList<>();
+        recorrer(buscarSeries(filtro, desde, hasta), desde, hasta, (serie, fechas) -> fechas.forEach(fecha ->
+                conteos.add(new TareaConteo(fecha,
+                        serie.getPuesto() != null ? serie.getPuesto().getId() : null,
+                        serie.getTurno() != null ? serie.getTurno().getId() : null,
+                        false, 1))));
+        return TareaConteo.combinar(conteos);
+    }
+
+    /**
+     * Ocurrencias virtuales de una serie concreta
+     */
+    public List<TareaEntity> ocurrenciasVirtuales(Long serieId) {
+        return serieRepository.findById(serieId)
+                .filter(TareaSerieEntity::tieneOcurrenciasVirtuales)
+                .map(serie -> expandir(List.of(serie), null, null, null, Long.MAX_VALUE))
+                .orElse(List.of());
+    }
+
+    /**
+     * Indica si la fecha es una ocurrencia vigente de la serie
+     */
+    public boolean esOcurrencia(TareaSerieEntity serie, LocalDate fecha) {
+        return !serie.getExcepciones().contains(fecha)
+                && recurrenciaGenerator.calcularFechas(serie, fecha, fecha).contains(fecha);
+    }
+
+    private List<TareaSerieEntity> buscarSeries(Specification<TareaSerieEntity> filtro, LocalDate desde, LocalDate hasta) {
+        Specification<TareaSerieEntity> spec = TareaSerieSpecification.conOcurrenciasVirtualesEntre(desde, hasta);
+        return serieRepository.findAll(filtro == null ? spec : filtro.and(spec));
+    }
+
+    private List<TareaEntity> expandir(List<TareaSerieEntity> series, LocalDate desde, LocalDate hasta,
+                                       TareaCursor cursor, long maximoPorSerie) {
+        List<TareaEntity> ocurrencias = new ArrayList<>();
+        recorrer(series, desde, hasta, (serie, fechas) -> fechas
+                .map(fecha -> recurrenciaGenerator.componerOcurrencia(serie, fecha))
+                .filter(ocurrencia -> cursor == null || cursor.precede(ocurrencia))
+                .limit(maximoPorSerie)
+                .forEach(ocurrencias::add));
+        ocurrencias.sort(Comparator.comparing(TareaEntity::getFecha));
+        return ocurrencias;
+    }
+
+    /**
+     * Entrega las fechas virtuales de cada serie dentro del rango. Las fechas se calculan a medida
+     * que se consumen.
+     */
+    private void recorrer(List<TareaSerieEntity> series, LocalDate desde, LocalDate hasta,
+                          BiConsumer<TareaSerieEntity, Stream<LocalDate>> fechasSerie) {
+        if (series.isEmpty()) {
+            return;
+        }
+
+        LocalDate inicioRango = desde != null ? desde : series.stream()
+                .map(TareaSerieEntity::getFechaInicio).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate finRango = hasta != null ? hasta : series.stream()
+                .map(TareaSerieEntity::getFechaFin).max(Comparator.naturalOrder()).orElseThrow();
+
+        // Ocurrencias que ya tienen fila propia (completadas o editadas) no se expanden
+        Map<Long, Set<LocalDate>> persistidas = tareaRepository.findFechasPersistidas(
+                        series.stream().map(TareaSerieEntity::getId).toList(), inicioRango, finRango)
+                .stream()
+                .collect(Collectors.groupingBy(TareaSerieFecha::serieId,
+                        Collectors.mapping(TareaSerieFecha::fecha, Collectors.toSet())));
+
+        for (TareaSerieEntity serie : series) {
+            LocalDate primeraVirtual = serie.getMaterializadaHasta().plusDays(1);
+            LocalDate inicio = inicioRango.isAfter(primeraVirtual) ? inicioRango : primeraVirtual;
+            Set<LocalDate> omitidas = persistidas.getOrDefault(serie.getId(), Set.of());
+
+            fechasSerie.accept(serie, recurrenciaGenerator.streamFechas(serie, inicio, finRango)
+                    .filter(fecha -> !omitidas.contains(fecha) && !serie.getExcepciones().contains(fecha)));
+        }
+    }
+
+}
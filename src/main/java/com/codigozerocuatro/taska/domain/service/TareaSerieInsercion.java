@@ -0,0 +1,22 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+
+import java.time.LocalDate;
+
+/**
+ * Estrategia para persistir las ocurrencias de una serie. Se elige con app.series.insercion.
+ */
+public interface TareaSerieInsercion {
+
+    /**
+     * Inserta las ocurrencias de la serie dentro del rango, omitiendo las fechas excluidas
+     * y las que ya tienen fila. Debe ejecutarse dentro de una transacción.
+     *
+     * @param serie serie ya persistida
+     * @param desde inicio del rango (inclusive)
+     * @param hasta fin del rango (inclusive)
+     * @return número de tareas insertadas
+     */
+    int insertarOcurrencias(TareaSerieEntity serie, LocalDate desde, LocalDate hasta);
+}
@@ -0,0 +1,115 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.ModoSerie;
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Mantiene persistidas las ocurrencias de las series hasta un horizonte móvil (modo VENTANA).
+ * El avance de cada serie queda en materializadaHasta, por lo que una ejecución interrumpida
+ * continúa donde se quedó. Con varias instancias, cada lote bloquea sus series y las demás se
+ * saltan las bloqueadas; la restricción uk_tarea_serie_fecha impide duplicar ocurrencias.
+ */
+@Slf4j
+@Component
+public class TareaSerieMaterializer {
+
+    private final TareaSerieJpaRepository serieRepository;
+    private final TareaSerieInsercion serieInsercion;
+    private final TareaCambios cambios;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public TareaSerieMaterializer(TareaSerieJpaRepository serieRepository,
+                                  TareaSerieInsercion serieInsercion,
+                                  TareaCambios cambios,
+                                  AppProperties appProperties,
+                                  PlatformTransactionManager transactionManager) {
+        this.serieRepository = serieRepository;
+        this.serieInsercion = serieInsercion;
+        this.cambios = cambios;
+        this.appProperties = appProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fecha hasta la que deben estar persistidas las ocurrencias hoy
+     */
+    public LocalDate horizonte() {
+        return LocalDate.now().plus(appProperties.series().ventana());
+    }
+
+    /**
+     * Amplía cada noche la parte materializada de las series abiertas
+     */
+    @Scheduled(cron = "${app.series.cron:0 0 3 * * *}")
+    public void materializarVentana() {
+        if (appProperties.series().mode() != ModoSerie.VENTANA) {
+            return;
+        }
+        materializarHasta(horizonte());
+    }
+
+    /**
+     * Materializa por lotes todas las series pendientes hasta el horizonte. Cada lote se
+     * confirma en su propia transacción.
+     *
+     * @param horizonte fecha hasta la que se persisten las ocurrencias (inclusive)
+     * @return número de tareas creadas
+     */
+    public int materializarHasta(LocalDate horizonte) {
+        PageRequest lote = PageRequest.of(0, appProperties.series().lote());
+        int totalTareas = 0;
+        int totalSeries = 0;
+
+        while (true) {
+            // Las series procesadas dejan de estar pendientes, así que siempre se pide la primera página
+            List<Integer> creadas = transactionTemplate.execute(status ->
+                    serieRepository.findPendientesDeMaterializar(horizonte, lote).stream()
+                            .map(serie -> extender(serie, horizonte))
+                            .toList());
+
+            if (creadas == null || creadas.isEmpty()) {
+                break;
+            }
+            totalSeries += creadas.size();
+            totalTareas += creadas.stream().mapToInt(Integer::intValue).sum();
+        }
+
+        log.info("Series materializadas hasta {}: {} series, {} tareas creadas", horizonte, totalSeries, totalTareas);
+        return totalTareas;
+    }
+
+    /**
+     * Persiste las ocurrencias de la serie posteriores a materializadaHasta y anteriores
+     * o iguales al horizonte. Debe ejecutarse dentro de una transacción.
+     *
+     * @return número de tareas creadas
+     */
+    public int extender(TareaSerieEntity serie, LocalDate horizonte) {
+        LocalDate hasta = horizonte.isBefore(serie.getFechaFin()) ? horizonte : serie.getFechaFin();
+        if (!hasta.isAfter(serie.getMaterializadaHasta())) {
+            return 0;
+        }
+
+        LocalDate desde = serie.getMaterializadaHasta().plusDays(1);
+        int creadas = serieInsercion.insertarOcurrencias(serie, desde, hasta);
+        // Las ocurrencias dejan de ser virtuales: reciben id y cambian de posición en las páginas
+        cambios.registrar(TareaCambio.de(TareaCambio.Tipo.MATERIALIZADA, serie.getPuesto().getId(), desde, hasta));
+
+        serie.setMaterializadaHasta(hasta);
+        serieRepository.save(serie);
+        return creadas;
+    }
+}
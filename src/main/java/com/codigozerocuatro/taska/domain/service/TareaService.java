@@ -1,44 +1,171 @@
 package com.codigozerocuatro.taska.domain.service;
 
+import com.codigozerocuatro.taska.domain.model.CambiosTareas;
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.domain.model.TareaBusquedaClave;
+import com.codigozerocuatro.taska.domain.model.ResultadoCompletado;
+import com.codigozerocuatro.taska.infra.dto.CompletarTareasRequest;
 import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
 import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaConteo;
 import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TareaService {
 
     TareaEntity crear(CrearTareaRequest request);
 
+    /**
+     * Obtiene todas las tareas persistidas. No incluye ocurrencias virtuales.
+     */
     List<TareaEntity> todas();
 
+    /**
+     * Obtiene una página de tareas persistidas en orden (fecha, id)
+     * @param cursor token devuelto en la página anterior, nulo para empezar
+     * @param limite tamaño de página, nulo para usar el configurado
+     */
+    Pagina<TareaEntity> todas(String cursor, Integer limite);
+
+    /**
+     * Busca tareas según el filtro. Incluye las ocurrencias virtuales de las series
+     * que caen dentro del filtro (sin id, identificadas por serieId y fecha).
+     */
     List<TareaEntity> buscar(FiltroTareaRequest filtro);
 
+    /**
+     * Busca una página de tareas según el filtro, incluidas las ocurrencias virtuales.
+     * Orden: fecha, tareas persistidas por id y después ocurrencias virtuales por serie.
+     * @param cursor token devuelto en la página anterior, nulo para empezar
+     * @param limite tamaño de página, nulo para usar el configurado
+     */
+    Pagina<TareaEntity> buscar(FiltroTareaRequest filtro, String cursor, Integer limite);
+
+    /**
+     * Valida el filtro y lo reduce a los criterios que aplica la búsqueda: el puesto que puede ver
+     * el usuario y un único rango de fechas. Dos filtros equivalentes dan la misma clave.
+     * @see #buscar(FiltroTareaRequest, String, Integer)
+     */
+    TareaBusquedaClave claveBusqueda(FiltroTareaRequest filtro, String cursor, Integer limite);
+
+    /**
+     * Busca la página de una clave obtenida con {@link #claveBusqueda}
+     */
+    Pagina<TareaEntity> buscar(TareaBusquedaClave clave);
+
+    /**
+     * Número de tareas por fecha, puesto, turno y estado, con los mismos filtros que la búsqueda
+     * e incluidas las ocurrencias virtuales. Se calcula en la base de datos, sin cargar las tareas.
+     * El filtro debe indicar una fecha o un rango completo.
+     * @return conteos ordenados por fecha, puesto, turno y estado; sin grupos vacíos
+     */
+    List<TareaConteo> resumen(FiltroTareaRequest filtro);
+
+    /**
+     * Versión de la página de búsqueda, para usar como ETag. Cambia con cualquier escritura que
+     * pueda afectar a la página y se obtiene sin consultar las tareas.
+     */
+    String versionBusqueda(FiltroTareaRequest filtro, String cursor, Integer limite);
+
+    /**
+     * Recorre todas las tareas persistidas en orden (fecha, id) sin tenerlas todas en memoria.
+     * No incluye ocurrencias virtuales. Las tareas ya entregadas se desacoplan del contexto de
+     * persistencia por lotes, por lo que el consumidor no debe guardarlas.
+     * @param consumidor recibe cada tarea con puesto, turno y serie cargados
+     * @return número de tareas recorridas
+     */
+    long exportar(Consumer<TareaEntity> consumidor);
+
+    /**
+     * Cambios de tareas posteriores al cursor, para que un cliente que ha estado desconectado
+     * se ponga al día sin volver a descargar todas sus tareas. En orden de cambio; si la página
+     * se llena, el resultado indica que hay más. Un usuario que no es administrador ni encargado
+     * solo recibe los cambios de su propio puesto.
+     * @param puestoId puesto de las tareas, nulo para todos
+     * @param cursor cursor devuelto en la llamada anterior, nulo para recibir todas las tareas
+     * @param limite número máximo de cambios, nulo para usar el tamaño de página configurado
+     */
+    CambiosTareas cambios(Long puestoId, String cursor, Integer limite);
+
+    /**
+     * Suscribe al receptor a los cambios confirmados de tareas. Un usuario que no es
+     * administrador ni encargado solo recibe los cambios de su propio puesto.
+     * @param puestoId puesto de las tareas, nulo para todos
+     * @param fecha fecha de las tareas, nula para cualquier fecha
+     */
+    TareaSuscripciones.Suscripcion suscribir(Long puestoId, LocalDate fecha, TareaSuscripciones.Receptor receptor);
+
+    /**
+     * Da de baja una suscripción. Se puede llamar más de una vez.
+     */
+    void cancelarSuscripcion(TareaSuscripciones.Suscripcion suscripcion);
+
     TareaEntity completar(Long id);
 
+    /**
+     * Marca o desmarca varias tareas en una sola transacción. Las tareas que ya están en el
+     * estado pedido no se modifican y las que se completan comparten la fecha de completado.
+     * Si un id se repite, vale el último estado pedido.
+     * @return un resultado por id, en el orden de la petición
+     */
+    List<ResultadoCompletado> completarTodas(CompletarTareasRequest request);
+
     List<TareaEntity> crearTodas(List<CrearTareaRequest> requests);
 
     /**
-     * Obtiene todas las tareas de una serie recurrente (padre e hijas)
+     * Obtiene todas las tareas de una serie recurrente (padre e hijas), incluidas
+     * las ocurrencias virtuales
      */
-    List<TareaEntity> obtenerSerieRecurrente(Long idTareaPadre);
+    List<TareaEntity> obtenerSerieRecurrente(Long id);
 
     /**
      * Obtiene todas las tareas de una semana específica ordenadas por fecha
      * @param fecha cualquier fecha dentro de la semana deseada
-     * @return lista de tareas de esa semana ordenadas por fecha de menor a mayor
+     * @return lista de tareas de esa semana ordenadas por fecha de menor a mayor,
+     * incluidas las ocurrencias virtuales
      */
     List<TareaEntity> obtenerTareasPorSemana(LocalDate fecha);
 
     /**
-     * Elimina solo una tarea específica. Si la tarea es padre, actualiza las hijas
-     * y convierte la siguiente tarea por fecha en la nueva tarea padre.
+     * Versión de las tareas de la semana, para usar como ETag. Se obtiene sin consultar las tareas.
+     * @param fecha cualquier fecha dentro de la semana deseada
+     */
+    String versionSemana(LocalDate fecha);
+
+    /**
+     * Obtiene todas las series recurrentes, con la fecha hasta la que están materializadas
+     */
+    List<TareaSerieEntity> obtenerSeries();
+
+    /**
+     * Persiste una ocurrencia virtual de una serie para poder operar sobre ella por id.
+     * Si la ocurrencia ya tiene fila, la devuelve sin cambios.
+     */
+    TareaEntity materializarOcurrencia(Long serieId, LocalDate fecha);
+
+    /**
+     * Marca o desmarca como completada una ocurrencia de una serie, persistiéndola si es virtual
+     */
+    TareaEntity completarOcurrencia(Long serieId, LocalDate fecha);
+
+    /**
+     * Elimina solo una tarea específica. El resto de tareas de su serie no se modifican.
      */
     void eliminarSoloTarea(Long id);
 
     /**
      * Elimina una tarea específica y todas las tareas posteriores en la serie recurrente
+     * @return número de tareas persistidas eliminadas
+     */
+    int eliminarTareaYPosteriores(Long id);
+
+    /**
+     * Elimina una serie recurrente con todas sus ocurrencias
+     * @return número de tareas persistidas eliminadas
      */
-    void eliminarTareaYPosteriores(Long id);
+    int eliminarSerie(Long serieId);
 }
@@ -0,0 +1,244 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clientes suscritos a los cambios de tareas de un puesto y fecha. Las suscripciones se
+ * indexan por puesto y por fecha, así que publicar un cambio solo recorre las que coinciden.
+ * <p>
+ * Los envíos se hacen en hilos virtuales, fuera del hilo que confirma la escritura, y en orden
+ * dentro de cada suscripción. Un cliente que no consume sus eventos se da de baja.
+ */
+@Slf4j
+@Component
+public class TareaSuscripciones {
+
+    /**
+     * Eventos pendientes de enviar a partir de los cuales se descarta la suscripción
+     */
+    static final int MAX_PENDIENTES = 1000;
+
+    /**
+     * Destino de los eventos de una suscripción, por ejemplo una conexión SSE
+     */
+    public interface Receptor {
+
+        void recibir(TareaCambio cambio) throws IOException;
+
+        /**
+         * Mensaje sin contenido para mantener abierta la conexión y detectar clientes desconectados
+         */
+        void latido() throws IOException;
+
+        /**
+         * La suscripción se ha descartado por un error de envío o por acumular demasiados eventos
+         */
+        void cerrar();
+    }
+
+    private final Map<Long, Indice> porPuesto = new ConcurrentHashMap<>();
+    private final Indice todosLosPuestos = new Indice();
+    private final Set<Suscripcion> activas = ConcurrentHashMap.newKeySet();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TareaSuscripciones(MeterRegistry meterRegistry) {
+        Gauge.builder("tareas.suscripciones", activas, Set::size)
+                .description("Clientes suscritos a cambios de tareas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param puestoId puesto de las tareas, nulo para todos los puestos
+     * @param fecha fecha de las tareas, nula para cualquier fecha
+     */
+    public Suscripcion suscribir(Long puestoId, LocalDate fecha, Receptor receptor) {
+        Suscripcion suscripcion = new Suscripcion(puestoId, fecha, receptor);
+        activas.add(suscripcion);
+        indice(puestoId).agregar(suscripcion);
+        return suscripcion;
+    }
+
+    public void cancelar(Suscripcion suscripcion) {
+        if (suscripcion.cancelada.compareAndSet(false, true)) {
+            activas.remove(suscripcion);
+            indice(suscripcion.puestoId).quitar(suscripcion);
+        }
+    }
+
+    /**
+     * Encola el cambio para las suscripciones cuyo puesto y fecha coinciden. Un cambio sin
+     * puesto puede afectar a cualquiera, así que se consultan los índices de todos los puestos.
+     */
+    public void publicar(TareaCambio cambio) {
+        if (cambio.puestoId() == null) {
+            porPuesto.values().forEach(indice -> indice.publicar(cambio));
+        } else {
+            Indice indice = porPuesto.get(cambio.puestoId());
+            if (indice != null) {
+                indice.publicar(cambio);
+            }
+        }
+        todosLosPuestos.publicar(cambio);
+    }
+
+    public int activas() {
+        return activas.size();
+    }
+
+    @Scheduled(fixedRate = 25, timeUnit = TimeUnit.SECONDS)
+    public void latir() {
+        activas.forEach(suscripcion -> suscripcion.encolar(Receptor::latido));
+    }
+
+    @PreDestroy
+    void cerrar() {
+        activas.forEach(this::descartar);
+        envios.shutdownNow();
+    }
+
+    private Indice indice(Long puestoId) {
+        return puestoId == null ? todosLosPuestos : porPuesto.computeIfAbsent(puestoId, id -> new Indice());
+    }
+
+    private void descartar(Suscripcion suscripcion) {
+        cancelar(suscripcion);
+        try {
+            suscripcion.receptor.cerrar();
+        } catch (RuntimeException e) {
+            log.debug("Error al cerrar la suscripción", e);
+        }
+    }
+
+    /**
+     * Suscripciones de un puesto (o de todos) por fecha. Los conjuntos por fecha no se modifican:
+     * se reemplazan, para que añadir y quitar sean atómicos aunque compute se reintente.
+     */
+    private static final class Indice {
+
+        private final Set<Suscripcion> sinFecha = ConcurrentHashMap.newKeySet();
+        private final ConcurrentNavigableMap<LocalDate, Set<Suscripcion>> porFecha = new ConcurrentSkipListMap<>();
+
+        void agregar(Suscripcion suscripcion) {
+            if (suscripcion.fecha == null) {
+                sinFecha.add(suscripcion);
+                return;
+            }
+            porFecha.compute(suscripcion.fecha, (fecha, actuales) -> {
+                Set<Suscripcion> nuevas = actuales == null ? new HashSet<>() : new HashSet<>(actuales);
+                nuevas.add(suscripcion);
+                return Set.copyOf(nuevas);
+            });
+        }
+
+        void quitar(Suscripcion suscripcion) {
+            if (suscripcion.fecha == null) {
+                sinFecha.remove(suscripcion);
+                return;
+            }
+            porFecha.computeIfPresent(suscripcion.fecha, (fecha, actuales) -> {
+                Set<Suscripcion> nuevas = new HashSet<>(actuales);
+                nuevas.remove(suscripcion);
+                return nuevas.isEmpty() ? null : Set.copyOf(nuevas);
+            });
+        }
+
+        void publicar(TareaCambio cambio) {
+            sinFecha.forEach(suscripcion -> suscripcion.encolar(receptor -> receptor.recibir(cambio)));
+            fechas(cambio.desde(), cambio.hasta()).values()
+                    .forEach(suscripciones -> suscripciones
+                            .forEach(suscripcion -> suscripcion.encolar(receptor -> receptor.recibir(cambio))));
+        }
+
+        private NavigableMap<LocalDate, Set<Suscripcion>> fechas(LocalDate desde, LocalDate hasta) {
+            if (desde == null) {
+                return porFecha;
+            }
+            return hasta == null ? porFecha.tailMap(desde, true) : porFecha.subMap(desde, true, hasta, true);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Envio {
+        void enviar(Receptor receptor) throws IOException;
+    }
+
+    public final class Suscripcion {
+
+        private final Long puestoId;
+        private final LocalDate fecha;
+        private final Receptor receptor;
+        private final Queue<Envio> pendientes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger numeroPendientes = new AtomicInteger();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean cancelada = new AtomicBoolean();
+
+        private Suscripcion(Long puestoId, LocalDate fecha, Receptor receptor) {
+            this.puestoId = puestoId;
+            this.fecha = fecha;
+            this.receptor = receptor;
+        }
+
+        private void encolar(Envio envio) {
+            if (cancelada.get()) {
+                return;
+            }
+            if (numeroPendientes.incrementAndGet() > MAX_PENDIENTES) {
+                log.warn("Suscripción a tareas descartada: el cliente no consume sus eventos");
+                descartar(this);
+                return;
+            }
+            pendientes.add(envio);
+            programar();
+        }
+
+        /**
+         * Como mucho un envío en curso por suscripción, para conservar el orden de los eventos
+         */
+        private void programar() {
+            if (!pendientes.isEmpty() && enviando.compareAndSet(false, true)) {
+                envios.execute(this::vaciar);
+            }
+        }
+
+        private void vaciar() {
+            try {
+                Envio envio;
+                while (!cancelada.get() && (envio = pendientes.poll()) != null) {
+                    numeroPendientes.decrementAndGet();
+                    envio.enviar(receptor);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Suscripción a tareas descartada por un error de envío", e);
+                descartar(this);
+            } finally {
+                enviando.set(false);
+            }
+            if (!cancelada.get()) {
+                programar();
+            }
+        }
+    }
+}
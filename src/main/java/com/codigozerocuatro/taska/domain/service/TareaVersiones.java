@@ -0,0 +1,102 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de modificación de las tareas por puesto y semana, en memoria. Una vista que
+ * obtiene la misma versión que tenía el cliente no ha cambiado desde entonces. Las versiones
+ * llevan una época aleatoria para que no se repitan al reiniciar la aplicación.
+ * <p>
+ * Las versiones son propias de cada instancia: el bus de invalidaciones avanza los contadores
+ * de todas, pero cada una empezó a contar en un momento distinto. Un ETag emitido por otra
+ * instancia nunca coincide con la época local y se responde con 200, nunca con un 304 falso.
+ * Con varias instancias, los GET condicionales solo ahorran la respuesta si el balanceador
+ * mantiene a cada cliente en la misma instancia (sesiones persistentes).
+ */
+@Component
+public class TareaVersiones {
+
+    /**
+     * Los rangos más largos se versionan con el contador total del puesto
+     */
+    static final int MAX_SEMANAS = 106;
+
+    private final String epoca = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+
+    /**
+     * Cambios que pueden afectar a cualquier puesto y fecha
+     */
+    private final AtomicLong general = new AtomicLong();
+
+    private final Map<Ambito, AtomicLong> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Puesto y lunes de la semana; nulo en cualquiera de los dos significa todos
+     */
+    private record Ambito(Long puestoId, LocalDate lunes) {
+    }
+
+    /**
+     * Avanza la versión de las semanas del puesto entre las fechas indicadas
+     *
+     * @param puestoId puesto de las tareas modificadas, nulo si puede ser cualquiera
+     * @param desde primera fecha modificada
+     * @param hasta última fecha modificada, nula si no tiene fin
+     */
+    public void incrementar(Long puestoId, LocalDate desde, LocalDate hasta) {
+        if (puestoId == null || hasta == null || semanas(desde, hasta) > MAX_SEMANAS) {
+            general.incrementAndGet();
+            return;
+        }
+
+        for (LocalDate lunes = lunes(desde); !lunes.isAfter(hasta); lunes = lunes.plusWeeks(1)) {
+            contador(new Ambito(puestoId, lunes)).incrementAndGet();
+            contador(new Ambito(null, lunes)).incrementAndGet();
+        }
+        contador(new Ambito(puestoId, null)).incrementAndGet();
+        contador(new Ambito(null, null)).incrementAndGet();
+    }
+
+    /**
+     * Versión de las tareas del puesto entre las fechas indicadas
+     *
+     * @param puestoId puesto, nulo para todos
+     * @param desde primera fecha, nula si no se acota
+     * @param hasta última fecha, nula si no se acota
+     */
+    public String version(Long puestoId, LocalDate desde, LocalDate hasta) {
+        long version;
+        if (desde == null || hasta == null || semanas(desde, hasta) > MAX_SEMANAS) {
+            version = contador(new Ambito(puestoId, null)).get();
+        } else {
+            // Los contadores solo crecen: la suma cambia con cualquier cambio en el rango
+            version = 0;
+            for (LocalDate lunes = lunes(desde); !lunes.isAfter(hasta); lunes = lunes.plusWeeks(1)) {
+                AtomicLong contador = contadores.get(new Ambito(puestoId, lunes));
+                version += contador != null ? contador.get() : 0;
+            }
+        }
+        return epoca + "." + general.get() + "." + version;
+    }
+
+    private AtomicLong contador(Ambito ambito) {
+        return contadores.computeIfAbsent(ambito, clave -> new AtomicLong());
+    }
+
+    private static LocalDate lunes(LocalDate fecha) {
+        return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static long semanas(LocalDate desde, LocalDate hasta) {
+        return ChronoUnit.WEEKS.between(lunes(desde), hasta);
+    }
+}
@@ -1,6 +1,7 @@
 package com.codigozerocuatro.taska.domain.service;
 
 import com.codigozerocuatro.taska.infra.dto.CrearUserRequest;
+import com.codigozerocuatro.taska.infra.dto.UserResponse;
 import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
 
 import java.util.List;
@@ -19,7 +20,7 @@ public interface UserService {
 
     void adminChangePassword(String username, String password);
 
-    List<UserEntity> buscarTodos();
+    List<UserResponse> buscarTodos();
 
     void changePassword(UserEntity user, String currentPassword, String newPassword);
 }
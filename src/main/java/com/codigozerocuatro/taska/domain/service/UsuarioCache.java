@@ -0,0 +1,78 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.CacheKey;
+import com.codigozerocuatro.taska.infra.config.cache.BusInvalidaciones;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Invalidación de la caché de usuarios por username. UserJpaRepository guarda cada usuario con
+ * varias claves (findByUsername y findByUsernameAndActivo); al modificarlo se eliminan todas,
+ * sin tocar las entradas del resto de usuarios. Las demás instancias reciben el username y
+ * eliminan también sus entradas.
+ */
+@Component
+public class UsuarioCache {
+
+    private final Cache cache;
+    private final Counter invalidaciones;
+    private final BusInvalidaciones bus;
+
+    public UsuarioCache(@Qualifier("cacheManagerUser") CacheManager cacheManagerUser, BusInvalidaciones bus,
+                        MeterRegistry meterRegistry) {
+        this.cache = Objects.requireNonNull(cacheManagerUser.getCache(CacheKey.USER));
+        this.invalidaciones = Counter.builder("cache.invalidations")
+                .description("Entradas eliminadas por cambios en usuarios")
+                .tag("cache", CacheKey.USER)
+                .register(meterRegistry);
+        this.bus = bus;
+        bus.suscribir(CacheKey.USER, String.class, this::eliminar, cache::clear);
+    }
+
+    /**
+     * Elimina las entradas del usuario. Dentro de una transacción se hace al confirmarla: antes,
+     * otra petición podría volver a cachear la fila sin el cambio.
+     */
+    public void invalidar(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eliminarYPublicar(username);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eliminarYPublicar(username);
+            }
+        });
+    }
+
+    private void eliminarYPublicar(String username) {
+        eliminar(username);
+        bus.publicar(CacheKey.USER, username);
+    }
+
+    private void eliminar(String username) {
+        for (String clave : claves(username)) {
+            if (cache.evictIfPresent(clave)) {
+                invalidaciones.increment();
+            }
+        }
+    }
+
+    /**
+     * Claves con las que UserJpaRepository cachea al usuario; deben coincidir con las de sus @Cacheable
+     */
+    static List<String> claves(String username) {
+        return List.of(username, username + "_" + true, username + "_" + false);
+    }
+}
@@ -0,0 +1,83 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.config.cache.BusInvalidaciones;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Versión de seguridad vigente de cada usuario, en memoria. Los tokens llevan la versión con la
+ * que se emitieron; cada petición la compara aquí sin consultar la base de datos, salvo la
+ * primera de cada usuario. Las versiones solo crecen: combinar por máximo hace que una carga
+ * lenta nunca pise un incremento posterior. Cada revocación se avisa a las demás instancias, que
+ * descartan la versión cargada y la vuelven a leer; si el aviso se pierde, la versión caduca
+ * igualmente tras app.jwt.version-ttl.
+ */
+@Component
+public class VersionesSeguridad {
+
+    public static final String TEMA = "VERSION_SEGURIDAD";
+
+    private final UserJpaRepository userRepository;
+
+    private final BusInvalidaciones bus;
+    private final ConcurrentMap<String, Long> versiones;
+
+    public VersionesSeguridad(UserJpaRepository userRepository, BusInvalidaciones bus, AppProperties appProperties) {
+        this.userRepository = userRepository;
+        this.bus = bus;
+        this.versiones = Caffeine.newBuilder()
+                .expireAfterWrite(appProperties.jwt().versionTtl())
+                .<String, Long>build()
+                .asMap();
+        bus.suscribir(TEMA, String.class, versiones::remove, versiones::clear);
+    }
+
+    /**
+     * Indica si un token emitido con esta versión sigue aceptándose. Un usuario que no existe
+     * no tiene ninguna versión vigente.
+     */
+    public boolean vigente(String username, long version) {
+        Long actual = versiones.get(username);
+        if (actual == null) {
+            actual = userRepository.findVersionSeguridadByUsername(username)
+                    .map(cargada -> versiones.merge(username, cargada, Math::max))
+                    .orElse(null);
+        }
+        return actual != null && actual == version;
+    }
+
+    /**
+     * Revoca los tokens emitidos hasta ahora. Incrementa la versión de la entidad, que el llamante
+     * guarda; la tabla se actualiza al confirmar la transacción, para no rechazar los tokens
+     * vigentes si se deshace.
+     */
+    public void revocar(UserEntity user) {
+        long nueva = user.getVersionSeguridad() + 1;
+        user.setVersionSeguridad(nueva);
+
+        String username = user.getUsername();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicarYPublicar(username, nueva);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicarYPublicar(username, nueva);
+            }
+        });
+    }
+
+    private void aplicarYPublicar(String username, long nueva) {
+        versiones.merge(username, nueva, Math::max);
+        bus.publicar(TEMA, username);
+    }
+}
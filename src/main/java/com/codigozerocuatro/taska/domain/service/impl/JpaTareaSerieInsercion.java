@@ -0,0 +1,47 @@
+package com.codigozerocuatro.taska.domain.service.impl;
+
+import com.codigozerocuatro.taska.domain.service.TareaRecurrenciaGenerator;
+import com.codigozerocuatro.taska.domain.service.TareaSerieInsercion;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieFecha;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compone las ocurrencias con {@link TareaRecurrenciaGenerator} y las guarda con saveAll,
+ * que Hibernate agrupa en lotes JDBC. Funciona con cualquier base de datos.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.series", name = "insercion", havingValue = "JPA", matchIfMissing = true)
+public class JpaTareaSerieInsercion implements TareaSerieInsercion {
+
+    private final TareaJpaRepository tareaRepository;
+    private final TareaRecurrenciaGenerator recurrenciaGenerator;
+
+    @Override
+    public int insertarOcurrencias(TareaSerieEntity serie, LocalDate desde, LocalDate hasta) {
+        Set<LocalDate> persistidas = tareaRepository.findFechasPersistidas(List.of(serie.getId()), desde, hasta)
+                .stream()
+                .map(TareaSerieFecha::fecha)
+                .collect(Collectors.toSet());
+
+        List<TareaEntity> ocurrencias = recurrenciaGenerator.calcularFechas(serie, desde, hasta).stream()
+                .filter(fecha -> !persistidas.contains(fecha) && !serie.getExcepciones().contains(fecha))
+                .map(fecha -> recurrenciaGenerator.componerOcurrencia(serie, fecha))
+                .toList();
+
+        if (!ocurrencias.isEmpty()) {
+            tareaRepository.saveAll(ocurrencias);
+        }
+        return ocurrencias.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.codigozerocuatro.taska.domain.service.impl;
+
+import com.codigozerocuatro.taska.domain.service.TareaRecurrenciaGenerator;
+import com.codigozerocuatro.taska.domain.service.TareaSerieInsercion;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Genera las ocurrencias dentro de PostgreSQL con un único INSERT ... SELECT generate_series por serie.
+ * Las fechas se calculan igual que en {@link TareaRecurrenciaGenerator}: se suma n veces el paso a la
+ * fecha de inicio, y para MENSUAL make_interval(months => n) ajusta al último día del mes como plusMonths.
+ * Los ids se toman de tarea_seq por bloques, igual que el optimizador pooled de Hibernate. Una fecha
+ * que otra transacción acaba de insertar se omite (uk_tarea_serie_fecha) en lugar de duplicarse.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.series", name = "insercion", havingValue = "GENERATE_SERIES")
+public class PostgresTareaSerieInsercion implements TareaSerieInsercion {
+
+    private static final String INSERTAR_OCURRENCIAS = """
+            WITH fechas AS (
+                SELECT o.fecha, ROW_NUMBER() OVER (ORDER BY o.fecha) - 1 AS n
+                FROM tarea_serie s
+                CROSS JOIN LATERAL (
+                    SELECT CAST(CASE s.tipo_recurrencia
+                                    WHEN 'DIARIA' THEN s.fecha_inicio + r
+                                    WHEN 'SEMANAL' THEN s.fecha_inicio + 7 * r
+                                    WHEN 'QUINCENAL' THEN s.fecha_inicio + 14 * r
+                                    WHEN 'MENSUAL' THEN s.fecha_inicio + make_interval(months => r)
+                                END AS DATE) AS fecha
+                    FROM generate_series(0, :repeticionesMax) AS r
+                ) o
+                WHERE s.id = :serieId
+                  AND o.fecha BETWEEN :desde AND :hasta
+                  AND o.fecha <= s.fecha_fin
+                  AND NOT EXISTS (SELECT 1 FROM tarea_serie_excepcion e WHERE e.serie_id = s.id AND e.fecha = o.fecha)
+                  AND NOT EXISTS (SELECT 1 FROM tarea t WHERE t.serie_id = s.id AND t.fecha = o.fecha)
+            ),
+            bloques AS (
+                SELECT b, nextval('tarea_seq') AS ultimo_id
+                FROM generate_series(0, ((SELECT COUNT(*) FROM fechas) + :bloque - 1) / :bloque - 1) AS b
+            )
+            INSERT INTO tarea (id, completada, fecha, puesto_id, turno_id, serie_id)
+            SELECT bl.ultimo_id - :bloque + 1 + f.n % :bloque, false, f.fecha, s.puesto_id, s.turno_id, s.id
+            FROM fechas f
+            JOIN bloques bl ON bl.b = f.n / :bloque
+            JOIN tarea_serie s ON s.id = :serieId
+            ON CONFLICT (serie_id, fecha) DO NOTHING
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int insertarOcurrencias(TareaSerieEntity serie, LocalDate desde, LocalDate hasta) {
+        // La sentencia lee la serie y sus excepciones de la base de datos
+        entityManager.flush();
+
+        return entityManager.createNativeQuery(INSERTAR_OCURRENCIAS)
+                .setParameter("serieId", serie.getId())
+                .setParameter("desde", desde)
+                .setParameter("hasta", hasta)
+                .setParameter("repeticionesMax", TareaRecurrenciaGenerator.REPETICIONES_MAX)
+                .setParameter("bloque", TareaEntity.BLOQUE_IDS)
+                .executeUpdate();
+    }
+}
@@ -4,6 +4,7 @@ import com.codigozerocuatro.taska.domain.exception.AppEntityNotFoundException;
 import com.codigozerocuatro.taska.domain.model.CacheKey;
 import com.codigozerocuatro.taska.domain.model.PuestoEnum;
 import com.codigozerocuatro.taska.domain.service.PuestoService;
+import com.codigozerocuatro.taska.infra.dto.PuestoResponse;
 import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
 import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
 import lombok.RequiredArgsConstructor;
@@ -30,9 +31,17 @@ public class PuestoServiceImpl implements PuestoService {
                 .orElseThrow(() -> new AppEntityNotFoundException(puestoEnum.name()));
     }
 
+    @Cacheable(CacheKey.PUESTO_ID)
+    @Override
+    public Long obtenerIdPorNombre(PuestoEnum puestoEnum) {
+        return obtenerPuestoPorNombre(puestoEnum).getId();
+    }
+
     @Cacheable(CacheKey.PUESTOS)
     @Override
-    public List<PuestoEntity> findAll() {
-        return repository.findAll();
+    public List<PuestoResponse> findAll() {
+        return repository.findAll().stream()
+                .map(PuestoResponse::de)
+                .toList();
     }
 }
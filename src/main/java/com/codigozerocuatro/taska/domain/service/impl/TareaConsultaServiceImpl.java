@@ -0,0 +1,84 @@
+package com.codigozerocuatro.taska.domain.service.impl;
+
+import com.codigozerocuatro.taska.domain.model.CambiosTareas;
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.domain.model.TareaBusquedaClave;
+import com.codigozerocuatro.taska.domain.service.TareaBusquedaCache;
+import com.codigozerocuatro.taska.domain.service.TareaConsultaService;
+import com.codigozerocuatro.taska.domain.service.TareaService;
+import com.codigozerocuatro.taska.infra.dto.CambiosTareasResponse;
+import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.TareaResponse;
+import com.codigozerocuatro.taska.infra.dto.TareaSerieResponse;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+@Service
+public class TareaConsultaServiceImpl implements TareaConsultaService {
+
+    private final TareaService tareaService;
+    private final TareaBusquedaCache busquedaCache;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<TareaResponse> todas(String cursor, Integer limite) {
+        return responder(tareaService.todas(cursor, limite));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<TareaResponse> buscar(FiltroTareaRequest filtro, String cursor, Integer limite) {
+        TareaBusquedaClave clave = tareaService.claveBusqueda(filtro, cursor, limite);
+        return busquedaCache.obtener(clave, () -> responder(tareaService.buscar(clave)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TareaResponse> semana(LocalDate fecha) {
+        return responder(tareaService.obtenerTareasPorSemana(fecha));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TareaSerieResponse> series() {
+        return tareaService.obtenerSeries().stream()
+                .map(serie -> new TareaSerieResponse(
+                        serie.getId(),
+                        serie.getDescripcion(),
+                        serie.getTipoRecurrencia().name(),
+                        serie.getFechaInicio(),
+                        serie.getFechaFin(),
+                        serie.getMaterializadaHasta()
+                ))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CambiosTareasResponse cambios(Long puestoId, String cursor, Integer limite) {
+        CambiosTareas cambios = tareaService.cambios(puestoId, cursor, limite);
+        return new CambiosTareasResponse(responder(cambios.tareas()), cambios.eliminadas(),
+                cambios.cursor(), cambios.hayMas());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(Consumer<TareaResponse> consumidor) {
+        return tareaService.exportar(tarea -> consumidor.accept(TareaResponse.de(tarea)));
+    }
+
+    private static Pagina<TareaResponse> responder(Pagina<TareaEntity> pagina) {
+        return new Pagina<>(responder(pagina.contenido()), pagina.siguiente());
+    }
+
+    private static List<TareaResponse> responder(List<TareaEntity> tareas) {
+        return tareas.stream().map(TareaResponse::de).toList();
+    }
+}
@@ -1,36 +1,77 @@
 package com.codigozerocuatro.taska.domain.service.impl;
 
 import com.codigozerocuatro.taska.domain.exception.AppEntityNotFoundException;
+import com.codigozerocuatro.taska.domain.exception.AppValidationException;
+import com.codigozerocuatro.taska.domain.model.CambiosCursor;
+import com.codigozerocuatro.taska.domain.model.CambiosTareas;
 import com.codigozerocuatro.taska.domain.model.DiaSemana;
+import com.codigozerocuatro.taska.domain.model.ErrorCode;
+import com.codigozerocuatro.taska.domain.model.ModoSerie;
+import com.codigozerocuatro.taska.domain.model.Pagina;
 import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.ResultadoCompletado;
+import com.codigozerocuatro.taska.domain.model.TareaBusquedaClave;
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
+import com.codigozerocuatro.taska.domain.model.TareaCursor;
 import com.codigozerocuatro.taska.domain.model.TareaValida;
 import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
 import com.codigozerocuatro.taska.domain.service.PuestoService;
 import com.codigozerocuatro.taska.domain.service.SecurityUtils;
+import com.codigozerocuatro.taska.domain.service.TareaCambios;
 import com.codigozerocuatro.taska.domain.service.TareaRecurrenciaGenerator;
+import com.codigozerocuatro.taska.domain.service.TareaSerieExpander;
+import com.codigozerocuatro.taska.domain.service.TareaSerieInsercion;
+import com.codigozerocuatro.taska.domain.service.TareaSerieMaterializer;
 import com.codigozerocuatro.taska.domain.service.TareaService;
+import com.codigozerocuatro.taska.domain.service.TareaSuscripciones;
 import com.codigozerocuatro.taska.domain.service.TareaValidator;
+import com.codigozerocuatro.taska.domain.service.TareaVersiones;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.config.datasource.LecturaPrimaria;
+import com.codigozerocuatro.taska.infra.dto.CompletarTareasRequest;
 import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
 import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
 import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaConteo;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEliminadaEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEstado;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaEliminadaJpaRepository;
 import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
 import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.specification.TareaSerieSpecification;
 import com.codigozerocuatro.taska.infra.persistence.specification.TareaSpecification;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.time.DayOfWeek;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -42,8 +83,19 @@ public class TareaServiceImpl implements TareaService {
     private final TareaValidator validator;
     private final SecurityUtils securityUtils;
     private final TareaRecurrenciaGenerator recurrenciaGenerator;
+    private final TareaSerieJpaRepository serieRepository;
+    private final TareaSerieExpander serieExpander;
+    private final TareaSerieMaterializer serieMaterializer;
+    private final TareaSerieInsercion serieInsercion;
+    private final AppProperties appProperties;
+    private final EntityManager entityManager;
+    private final TareaCambios cambios;
+    private final TareaVersiones versiones;
+    private final TareaSuscripciones suscripciones;
+    private final TareaEliminadaJpaRepository eliminadaRepository;
 
     @Override
+    @Transactional
     public TareaEntity crear(CrearTareaRequest request) {
         TareaValida tareaValidada = validator.validarTareaRequest(request);
         
@@ -52,14 +104,31 @@ public class TareaServiceImpl implements TareaService {
         TurnoEntity turno = turnoRepository.findById(tareaValidada.turnoId())
                 .orElseThrow(() -> new AppEntityNotFoundException(tareaValidada.turnoId()));
         
-        // 1. Crear y persistir la tarea padre
+        // 1. Crear la tarea padre con su serie
         TareaEntity tareaPadre = recurrenciaGenerator.componerTareaPadre(tareaValidada, puesto, turno);
+
+        // 2. Persistir la regla de la serie y la tarea padre
+        ModoSerie modoSerie = appProperties.series().mode();
+        TareaSerieEntity serie = tareaPadre.getSerie();
+        if (modoSerie == ModoSerie.MATERIALIZADA) {
+            serie.setMaterializadaHasta(serie.getFechaFin());
+        }
+        TareaSerieEntity serieGuardada = serieRepository.save(serie);
         TareaEntity tareaPadreGuardada = tareaRepository.save(tareaPadre);
-        
-        // 2. Generar y persistir las tareas hijas (solo si hay más de una repetición)
-        List<TareaEntity> tareasHijas = recurrenciaGenerator.generarTareasHijas(tareaPadreGuardada, tareaValidada);
-        if (!tareasHijas.isEmpty()) {
-            tareaRepository.saveAll(tareasHijas);
+        cambios.registrar(new TareaCambio(TareaCambio.Tipo.CREADA, tareaPadreGuardada.getId(), puesto.getId(),
+                serieGuardada.getFechaInicio(), serieGuardada.getFechaFin(), null));
+        if (tareaValidada.tipoRecurrencia() == TipoRecurrencia.UNA_VEZ) {
+            return tareaPadreGuardada;
+        }
+
+        // 3. Generar y persistir las tareas hijas. En modo virtual se expanden al leer
+        switch (modoSerie) {
+            case MATERIALIZADA -> serieInsercion.insertarOcurrencias(serieGuardada,
+                    serieGuardada.getFechaInicio().plusDays(1), serieGuardada.getFechaFin());
+            case VENTANA -> serieMaterializer.extender(serieGuardada, serieMaterializer.horizonte());
+            case VIRTUAL -> {
+                // Nada que persistir
+            }
         }
 
         // Devolver la tarea padre para mantener compatibilidad con la API
@@ -67,14 +136,102 @@ public class TareaServiceImpl implements TareaService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TareaEntity> todas() {
         return tareaRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Pagina<TareaEntity> todas(String cursor, Integer limite) {
+        int tamano = tamanoPagina(limite);
+        Specification<TareaEntity> spec = Specification.allOf(
+                TareaSpecification.conReferencias(),
+                TareaSpecification.posteriorA(TareaCursor.decodificar(cursor)),
+                TareaSpecification.orderByFechaAsc()
+        );
+
+        return paginar(tareaRepository.findBy(spec, query -> query.limit(tamano + 1).all()), tamano);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(Consumer<TareaEntity> consumidor) {
+        long total = 0;
+        try (Stream<TareaEntity> tareas = tareaRepository.streamTodas()) {
+            Iterator<TareaEntity> iterator = tareas.iterator();
+            while (iterator.hasNext()) {
+                consumidor.accept(iterator.next());
+                // Las tareas ya entregadas no se vuelven a usar: el contexto no crece con la tabla
+                if (++total % TareaJpaRepository.LOTE_EXPORTACION == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<TareaEntity> buscar(FiltroTareaRequest filtro) {
+        return buscarPagina(normalizar(filtro, null, null)).contenido();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<TareaEntity> buscar(FiltroTareaRequest filtro, String cursor, Integer limite) {
+        return buscar(claveBusqueda(filtro, cursor, limite));
+    }
 
-        Long puestoId = getPuestoByUser(filtro);
+    @Override
+    public TareaBusquedaClave claveBusqueda(FiltroTareaRequest filtro, String cursor, Integer limite) {
+        return normalizar(filtro, TareaCursor.decodificar(cursor), tamanoPagina(limite));
+    }
+
+    /**
+     * Sin open-in-view, la expansión de ocurrencias virtuales necesita la transacción para cargar
+     * las excepciones de las series.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Pagina<TareaEntity> buscar(TareaBusquedaClave clave) {
+        return leerActualizado(() -> buscarPagina(clave));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TareaConteo> resumen(FiltroTareaRequest filtro) {
+        TareaBusquedaClave clave = normalizar(filtro, null, null);
+        // Las series sin fin no se pueden contar sin acotar las fechas
+        if (clave.desde() == null || clave.hasta() == null) {
+            throw new AppValidationException("fechaInicio", ErrorCode.RANGO_FECHAS_REQUIRED);
+        }
+
+        return leerActualizado(() -> {
+            List<TareaConteo> conteos = new ArrayList<>(tareaRepository.contar(filtroTareas(clave)));
+            // Las ocurrencias virtuales nunca están completadas
+            if (!Boolean.TRUE.equals(clave.completada())) {
+                conteos.addAll(serieExpander.contarOcurrenciasVirtuales(filtroSeries(clave), clave.desde(), clave.hasta()));
+            }
+            return TareaConteo.combinar(conteos);
+        });
+    }
+
+    @Override
+    public String versionBusqueda(FiltroTareaRequest filtro, String cursor, Integer limite) {
+        TareaBusquedaClave clave = claveBusqueda(filtro, cursor, limite);
+        // La misma URL da resultados distintos según el puesto del usuario
+        return versiones.version(clave.puestoId(), clave.desde(), clave.hasta())
+                + "-" + Integer.toHexString(clave.toString().hashCode());
+    }
+
+    /**
+     * Valida el filtro y lo reduce a los criterios que aplica la búsqueda: el puesto que puede ver
+     * el usuario y un único rango de fechas
+     */
+    private TareaBusquedaClave normalizar(FiltroTareaRequest filtro, TareaCursor cursor, Integer tamano) {
+
+        Long puestoId = getPuestoByUser(filtro.puestoId());
 
         TipoRecurrencia tipoRecurrencia = StringUtils.isEmpty(filtro.tipoRecurrencia())
                 ? null
@@ -87,49 +244,250 @@ public class TareaServiceImpl implements TareaService {
         // Validar rango de fechas
         validator.validarRangoFechas(filtro.fechaInicio(), filtro.fechaFin());
 
-        // Determinar qué specification de fecha usar
-        Specification<TareaEntity> fechaSpec;
-        if (filtro.fechaInicio() != null || filtro.fechaFin() != null) {
-            // Usar búsqueda por rango
-            fechaSpec = TareaSpecification.fechaBetween(filtro.fechaInicio(), filtro.fechaFin());
-        } else {
-            // Usar búsqueda por fecha específica (comportamiento original)
-            fechaSpec = TareaSpecification.fechaIs(filtro.fecha());
+        // Un rango sin inicio no acota la fecha; sin rango se busca por fecha específica
+        LocalDate desde = null;
+        LocalDate hasta = null;
+        if (filtro.fechaInicio() != null) {
+            desde = filtro.fechaInicio();
+            hasta = filtro.fechaFin() != null ? filtro.fechaFin() : filtro.fechaInicio();
+        } else if (filtro.fechaFin() == null) {
+            desde = filtro.fecha();
+            hasta = filtro.fecha();
         }
 
+        return new TareaBusquedaClave(puestoId, filtro.turnoId(), tipoRecurrencia, diaSemana,
+                filtro.completada(), desde, hasta, cursor, tamano);
+    }
+
+    /**
+     * Busca las tareas posteriores al cursor. Con tamaño nulo devuelve todas en una sola página.
+     */
+    private Pagina<TareaEntity> buscarPagina(TareaBusquedaClave clave) {
+        TareaCursor cursor = clave.cursor();
+        Integer tamano = clave.tamano();
+
         Specification<TareaEntity> spec = Specification.allOf(
                 List.of(
-                        TareaSpecification.puestoEquals(puestoId),
-                        TareaSpecification.turnoEquals(filtro.turnoId()),
-                        TareaSpecification.diaSemanaEquals(diaSemana),
-                        TareaSpecification.tipoRecurrenciaEquals(tipoRecurrencia),
-                        TareaSpecification.isCompletadaEquals(filtro.completada()),
-                        fechaSpec,
+                        TareaSpecification.conReferencias(),
+                        filtroTareas(clave),
+                        TareaSpecification.posteriorA(cursor),
                         TareaSpecification.orderByFechaAsc()
                 )
         );
 
-        return tareaRepository.findAll(spec);
+        // Se lee una tarea de más para saber si hay página siguiente
+        List<TareaEntity> tareas = tamano == null
+                ? tareaRepository.findAll(spec)
+                : tareaRepository.findBy(spec, query -> query.limit(tamano + 1).all());
+
+        // Las ocurrencias virtuales nunca están completadas
+        if (Boolean.TRUE.equals(clave.completada())) {
+            return paginar(tareas, tamano);
+        }
+
+        // Mismo rango de fechas que el filtro de tareas
+        LocalDate desde = clave.desde();
+        LocalDate hasta = clave.hasta();
+
+        // La página no pasa del cursor ni de la última tarea persistida leída
+        if (cursor != null && (desde == null || cursor.fecha().isAfter(desde))) {
+            desde = cursor.fecha();
+        }
+        if (tamano != null && tareas.size() > tamano) {
+            LocalDate ultimaFecha = tareas.getLast().getFecha();
+            hasta = hasta == null || ultimaFecha.isBefore(hasta) ? ultimaFecha : hasta;
+        }
+
+        // Cada serie aporta como mucho las ocurrencias que caben en la página, más la que indica si hay siguiente
+        List<TareaEntity> virtuales = tamano == null
+                ? serieExpander.ocurrenciasVirtuales(filtroSeries(clave), desde, hasta, cursor, Integer.MAX_VALUE)
+                : serieExpander.ocurrenciasVirtuales(filtroSeries(clave), desde, hasta, cursor, tamano + 1);
+
+        return paginar(combinar(tareas, virtuales), tamano);
+    }
+
+    /**
+     * Criterios de la búsqueda sobre las tareas persistidas, sin fetch ni orden
+     */
+    private static Specification<TareaEntity> filtroTareas(TareaBusquedaClave clave) {
+        Specification<TareaEntity> fechaSpec = clave.desde() != null && clave.desde().isEqual(clave.hasta())
+                ? TareaSpecification.fechaIs(clave.desde())
+                : TareaSpecification.fechaBetween(clave.desde(), clave.hasta());
+
+        return Specification.allOf(
+                List.of(
+                        TareaSpecification.puestoEquals(clave.puestoId()),
+                        TareaSpecification.turnoEquals(clave.turnoId()),
+                        TareaSpecification.diaSemanaEquals(clave.diaSemana()),
+                        TareaSpecification.tipoRecurrenciaEquals(clave.tipoRecurrencia()),
+                        TareaSpecification.isCompletadaEquals(clave.completada()),
+                        fechaSpec
+                )
+        );
+    }
+
+    /**
+     * Criterios de la búsqueda sobre las series, para sus ocurrencias virtuales
+     */
+    private static Specification<TareaSerieEntity> filtroSeries(TareaBusquedaClave clave) {
+        return Specification.allOf(
+                List.of(
+                        TareaSerieSpecification.puestoEquals(clave.puestoId()),
+                        TareaSerieSpecification.turnoEquals(clave.turnoId()),
+                        TareaSerieSpecification.diaSemanaEquals(clave.diaSemana()),
+                        TareaSerieSpecification.tipoRecurrenciaEquals(clave.tipoRecurrencia())
+                )
+        );
+    }
+
+    private int tamanoPagina(Integer limite) {
+        AppProperties.Paginacion paginacion = appProperties.paginacion();
+        if (limite == null) {
+            return paginacion.tamano();
+        }
+        if (limite < 1 || limite > paginacion.tamanoMaximo()) {
+            throw new AppValidationException("limite", ErrorCode.LIMITE_INVALID_RANGE);
+        }
+        return limite;
+    }
+
+    /**
+     * Corta la lista ordenada al tamaño de página y genera el cursor de la última tarea incluida
+     */
+    private Pagina<TareaEntity> paginar(List<TareaEntity> tareas, Integer tamano) {
+        if (tamano == null || tareas.size() <= tamano) {
+            return new Pagina<>(tareas, null);
+        }
+
+        List<TareaEntity> contenido = List.copyOf(tareas.subList(0, tamano));
+        return new Pagina<>(contenido, TareaCursor.de(contenido.getLast()).codificar());
     }
 
-    private Long getPuestoByUser(FiltroTareaRequest filtro) {
+    private Long getPuestoByUser(Long puestoId) {
         UserEntity user = securityUtils.getCurrentAuthenticatedUser();
 
         if (user.isAdmin() || PuestoEnum.ENCARGADO.equals(user.getPuesto())){
-            return filtro.puestoId();
+            return puestoId;
         }
 
-        PuestoEntity puesto = puestoService.obtenerPuestoPorNombre(user.getPuesto());
-        return puesto.getId();
+        // Sin consulta: las respuestas 304 y los aciertos de la caché de búsquedas no tocan la base de datos
+        return puestoService.obtenerIdPorNombre(user.getPuesto());
     }
 
+    /**
+     * Solo se devuelven cambios de transacciones por debajo del horizonte: las que pueden seguir
+     * en curso se dejan para la siguiente llamada, para que el cursor nunca adelante a un cambio
+     * que todavía no es visible.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public CambiosTareas cambios(Long puestoId, String cursor, Integer limite) {
+        Long puesto = getPuestoByUser(puestoId);
+        CambiosCursor desde = CambiosCursor.decodificar(cursor);
+        int tamano = tamanoPagina(limite);
+
+        // Antes que los cambios: lo que quede por debajo ya es visible en las consultas siguientes
+        long horizonte = tareaRepository.horizonteCambios();
+        Limit limiteConsulta = Limit.of(tamano + 1);
+        List<TareaEntity> tareas = puesto == null
+                ? tareaRepository.findCambios(desde.cambio(), desde.id(), horizonte, limiteConsulta)
+                : tareaRepository.findCambiosDelPuesto(puesto, desde.cambio(), desde.id(), horizonte, limiteConsulta);
+        List<TareaEliminadaEntity> eliminadas = puesto == null
+                ? eliminadaRepository.findCambios(desde.cambio(), desde.id(), horizonte, limiteConsulta)
+                : eliminadaRepository.findCambiosDelPuesto(puesto, desde.cambio(), desde.id(), horizonte, limiteConsulta);
+
+        // Mezcla de las dos listas en orden (cambio, id) hasta llenar la página
+        List<TareaEntity> paginaTareas = new ArrayList<>();
+        List<Long> paginaEliminadas = new ArrayList<>();
+        CambiosCursor ultimo = desde;
+        int t = 0;
+        int e = 0;
+        while (paginaTareas.size() + paginaEliminadas.size() < tamano && (t < tareas.size() || e < eliminadas.size())) {
+            CambiosCursor siguienteTarea = t < tareas.size()
+                    ? new CambiosCursor(tareas.get(t).getCambio(), tareas.get(t).getId())
+                    : null;
+            CambiosCursor siguienteEliminada = e < eliminadas.size()
+                    ? new CambiosCursor(eliminadas.get(e).getCambio(), eliminadas.get(e).getTareaId())
+                    : null;
+            if (siguienteEliminada == null || (siguienteTarea != null && siguienteTarea.compareTo(siguienteEliminada) < 0)) {
+                paginaTareas.add(tareas.get(t++));
+                ultimo = siguienteTarea;
+            } else {
+                paginaEliminadas.add(eliminadas.get(e++).getTareaId());
+                ultimo = siguienteEliminada;
+            }
+        }
+
+        boolean hayMas = t < tareas.size() || e < eliminadas.size();
+        return new CambiosTareas(paginaTareas, paginaEliminadas, ultimo.codificar(), hayMas);
+    }
+
+    @Override
+    public TareaSuscripciones.Suscripcion suscribir(Long puestoId, LocalDate fecha, TareaSuscripciones.Receptor receptor) {
+        return suscripciones.suscribir(getPuestoByUser(puestoId), fecha, receptor);
+    }
+
+    @Override
+    public void cancelarSuscripcion(TareaSuscripciones.Suscripcion suscripcion) {
+        suscripciones.cancelar(suscripcion);
+    }
+
+    /**
+     * El cambio se hace en una única sentencia sobre la fila: dos peticiones simultáneas
+     * sobre la misma tarea no pierden ninguno de los dos cambios.
+     */
+    @Override
+    @Transactional
     public TareaEntity completar(Long id) {
-        TareaEntity tarea = findById(id);
-        boolean isCompletada = tarea.isCompletada();
-        tarea.setCompletada(!isCompletada);
-        tarea.setFechaCompletada(!isCompletada ? Instant.now() : null);
-        return tareaRepository.save(tarea);
+        TareaEntity tarea = tareaRepository.alternarCompletada(id, Instant.now())
+                .orElseThrow(() -> new AppEntityNotFoundException(id));
+        registrarCambio(TareaCambio.Tipo.COMPLETADA, tarea, tarea.getFecha());
+        return tarea;
+    }
+
+    @Override
+    @Transactional
+    public List<ResultadoCompletado> completarTodas(CompletarTareasRequest request) {
+        Map<Long, Boolean> pedidos = new LinkedHashMap<>();
+        request.tareas().forEach(cambio -> pedidos.put(cambio.id(), cambio.completada()));
+
+        Map<Long, TareaEstado> estados = tareaRepository.findEstadosParaActualizar(pedidos.keySet()).stream()
+                .collect(Collectors.toMap(TareaEstado::id, Function.identity()));
+
+        // Misma precisión que la columna, para que la respuesta coincida con lo guardado
+        Instant ahora = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        List<Long> completar = new ArrayList<>();
+        List<Long> desmarcar = new ArrayList<>();
+        List<ResultadoCompletado> resultados = new ArrayList<>(pedidos.size());
+        pedidos.forEach((id, completada) -> {
+            TareaEstado estado = estados.get(id);
+            if (estado == null) {
+                resultados.add(new ResultadoCompletado(id, ResultadoCompletado.Estado.NO_ENCONTRADA, null, null));
+            } else if (estado.completada() == completada) {
+                resultados.add(new ResultadoCompletado(id, ResultadoCompletado.Estado.SIN_CAMBIOS,
+                        completada, estado.fechaCompletada()));
+            } else {
+                (completada ? completar : desmarcar).add(id);
+                resultados.add(new ResultadoCompletado(id, ResultadoCompletado.Estado.ACTUALIZADA,
+                        completada, completada ? ahora : null));
+            }
+        });
+
+        if (completar.isEmpty() && desmarcar.isEmpty()) {
+            return resultados;
+        }
+        tareaRepository.actualizarCompletadas(completar, desmarcar, ahora);
+
+        // Un único aviso por puesto con el rango de fechas modificado
+        Set<Long> actualizadas = new HashSet<>(completar);
+        actualizadas.addAll(desmarcar);
+        estados.values().stream()
+                .filter(estado -> actualizadas.contains(estado.id()))
+                .collect(Collectors.groupingBy(estado -> Optional.ofNullable(estado.puestoId()),
+                        Collectors.summarizingLong(estado -> estado.fecha().toEpochDay())))
+                .forEach((puestoId, fechas) -> cambios.registrar(TareaCambio.de(TareaCambio.Tipo.COMPLETADA,
+                        puestoId.orElse(null), LocalDate.ofEpochDay(fechas.getMin()), LocalDate.ofEpochDay(fechas.getMax()))));
+        return resultados;
     }
 
     @Transactional
@@ -139,11 +497,25 @@ public class TareaServiceImpl implements TareaService {
     }
 
     @Override
-    public List<TareaEntity> obtenerSerieRecurrente(Long idTareaPadre) {
-        return tareaRepository.findSerieRecurrente(idTareaPadre);
+    @Transactional(readOnly = true)
+    public List<TareaEntity> obtenerSerieRecurrente(Long id) {
+        List<TareaEntity> tareas = tareaRepository.findSerieRecurrente(id);
+        return tareas.stream()
+                .map(TareaEntity::getSerieId)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(serieId -> combinar(tareas, serieExpander.ocurrenciasVirtuales(serieId)))
+                .orElse(tareas);
+    }
+
+    @Override
+    public String versionSemana(LocalDate fecha) {
+        LocalDate inicioSemana = fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return versiones.version(null, inicioSemana, inicioSemana.plusDays(6)) + "-" + inicioSemana;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TareaEntity> obtenerTareasPorSemana(LocalDate fecha) {
         // Calcular el inicio de la semana (lunes)
         LocalDate inicioSemana = fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
@@ -151,68 +523,158 @@ public class TareaServiceImpl implements TareaService {
         // Calcular el fin de la semana (domingo)
         LocalDate finSemana = fecha.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
         
-        return tareaRepository.findByFechaBetweenOrderByFechaAsc(inicioSemana, finSemana);
+        return leerActualizado(() -> combinar(
+                tareaRepository.findByFechaBetweenOrderByFechaAsc(inicioSemana, finSemana),
+                serieExpander.ocurrenciasVirtuales(null, inicioSemana, finSemana)));
     }
 
     /**
-     * Elimina solo una tarea. Si es padre, actualiza las hijas y la siguiente por fecha será la nueva padre.
+     * La caché de búsquedas y los ETag dan por hecho que la lectura ya ve el último cambio
+     * aplicado. Una réplica puede no haberlo recibido: mientras dure su retraso máximo, estas
+     * lecturas se hacen en la primaria.
+     */
+    private <T> T leerActualizado(Supplier<T> lectura) {
+        AppProperties.Replica replica = appProperties.replica();
+        if (replica.activa() && cambios.hayCambiosRecientes(replica.maxLag())) {
+            return LecturaPrimaria.ejecutar(lectura);
+        }
+        return lectura.get();
+    }
+
+    @Override
+    public List<TareaSerieEntity> obtenerSeries() {
+        return serieRepository.findByTipoRecurrenciaNotOrderByIdAsc(TipoRecurrencia.UNA_VEZ);
+    }
+
+    @Override
+    @Transactional
+    public TareaEntity materializarOcurrencia(Long serieId, LocalDate fecha) {
+        // Bloqueada: dos peticiones, o el materializador, no pueden crear la misma ocurrencia a la vez
+        TareaSerieEntity serie = serieRepository.findBloqueadaById(serieId)
+                .orElseThrow(() -> new AppEntityNotFoundException(serieId));
+
+        return tareaRepository.findFirstBySerieIdAndFecha(serieId, fecha)
+                .orElseGet(() -> {
+                    // Hasta materializadaHasta, una ocurrencia sin fila es una ocurrencia eliminada
+                    if (!fecha.isAfter(serie.getMaterializadaHasta()) || !serieExpander.esOcurrencia(serie, fecha)) {
+                        throw new AppEntityNotFoundException(serieId + "/" + fecha);
+                    }
+
+                    // La ocurrencia virtual pasa a tener id: cambia su posición en las páginas
+                    TareaEntity ocurrencia = tareaRepository.save(recurrenciaGenerator.componerOcurrencia(serie, fecha));
+                    registrarCambio(TareaCambio.Tipo.MATERIALIZADA, ocurrencia, fecha);
+                    return ocurrencia;
+                });
+    }
+
+    @Override
+    @Transactional
+    public TareaEntity completarOcurrencia(Long serieId, LocalDate fecha) {
+        return completar(materializarOcurrencia(serieId, fecha).getId());
+    }
+
+    /**
+     * Elimina solo una tarea. La identidad de la serie no depende de ninguna fila,
+     * así que basta con un único DELETE aunque sea la primera ocurrencia.
      */
     @Override
     @Transactional
     public void eliminarSoloTarea(Long id) {
         TareaEntity tarea = findById(id);
-        // Si es tarea hija, simplemente se elimina
-        if (tarea.getIdTareaPadre() != null) {
-            tareaRepository.delete(tarea);
-            return;
-        }
-        // Es tarea padre
-        List<TareaEntity> hijas = tareaRepository.findByIdTareaPadre(id);
-        if (hijas.isEmpty()) {
-            // No hay hijas, solo eliminar la tarea padre
-            tareaRepository.delete(tarea);
-            return;
-        }
-        // Ordenar hijas por fecha ascendente y obtener la primera
-        TareaEntity nuevaPadre = hijas.stream().min(Comparator.comparing(TareaEntity::getFecha))
-                .orElseThrow(); // Esto nunca debería pasar, ya que hijas no está vacío
-
-        nuevaPadre.setIdTareaPadre(null); // Ahora es padre
-        // Actualizar las demás hijas para que apunten a la nueva padre
-        hijas.stream()
-                .filter(hija -> !hija.equals(nuevaPadre))
-                .forEach(hija -> hija.setIdTareaPadre(nuevaPadre.getId()));
-
-        // Persistir cambios
-        tareaRepository.save(nuevaPadre);
-        if (hijas.size() > 1) {
-            tareaRepository.saveAll(hijas.stream().filter(hija -> !hija.equals(nuevaPadre)).toList());
-        }
-        // Eliminar la tarea padre original
         tareaRepository.delete(tarea);
+        excluirDeSerie(tarea);
+        registrarCambio(TareaCambio.Tipo.ELIMINADA, tarea, tarea.getFecha());
     }
 
     /**
-     * Elimina una tarea y todas las posteriores en la serie recurrente.
+     * Elimina una tarea y todas las posteriores en la serie recurrente con un único DELETE,
+     * sin cargar las tareas en el contexto de persistencia.
      */
     @Override
     @Transactional
-    public void eliminarTareaYPosteriores(Long id) {
+    public int eliminarTareaYPosteriores(Long id) {
         TareaEntity tarea = findById(id);
-        
-        // Determinar el ID de la tarea padre de la serie
-        Long idTareaPadre = tarea.getIdTareaPadre() != null ? tarea.getIdTareaPadre() : id;
-        
-        // Obtener solo las tareas hijas posteriores (el query ya filtra por idTareaPadre)
-        List<TareaEntity> tareasHijas = tareaRepository.findTareasPosteriores(idTareaPadre, tarea.getFecha());
-        
-        // Eliminar todas las hijas posteriores
-        if (!tareasHijas.isEmpty()) {
-            tareaRepository.deleteAll(tareasHijas);
+        // Hasta el fin de la serie antes de recortarla
+        registrarCambio(TareaCambio.Tipo.ELIMINADA, tarea, tarea.getSerie().getFechaFin());
+
+        // La tarea actual y las posteriores de su serie
+        int eliminadas = tareaRepository.deleteTareasPosteriores(tarea.getSerieId(), tarea.getFecha());
+
+        // Acortar la regla para que no se expandan ocurrencias posteriores
+        recortarSerie(tarea.getSerieId(), tarea.getFecha());
+        return eliminadas;
+    }
+
+    @Override
+    @Transactional
+    public int eliminarSerie(Long serieId) {
+        TareaSerieEntity serie = serieRepository.findById(serieId)
+                .orElseThrow(() -> new AppEntityNotFoundException(serieId));
+        cambios.registrar(TareaCambio.de(TareaCambio.Tipo.ELIMINADA, serie.getPuesto().getId(),
+                serie.getFechaInicio(), serie.getFechaFin()));
+
+        int eliminadas = tareaRepository.deleteBySerieId(serieId);
+        serieRepository.deleteById(serieId);
+        return eliminadas;
+    }
+
+    /**
+     * Si la tarea es una ocurrencia fuera de la parte materializada de su serie,
+     * registra su fecha como excepción para que no vuelva a expandirse. La serie
+     * de una tarea de una vez se elimina con ella.
+     */
+    private void excluirDeSerie(TareaEntity tarea) {
+        TareaSerieEntity serie = tarea.getSerie();
+        if (serie.getTipoRecurrencia() == TipoRecurrencia.UNA_VEZ) {
+            serieRepository.delete(serie);
+        } else if (tarea.getFecha().isAfter(serie.getMaterializadaHasta())) {
+            serie.getExcepciones().add(tarea.getFecha());
         }
-        
-        // Eliminar la tarea actual (ya sea padre o hija)
-        tareaRepository.delete(tarea);
+    }
+
+    /**
+     * Termina la serie el día anterior a la fecha indicada. Si no le quedan ocurrencias, la elimina.
+     */
+    private void recortarSerie(Long serieId, LocalDate fecha) {
+        serieRepository.findById(serieId)
+                .filter(serie -> !serie.getFechaFin().isBefore(fecha))
+                .ifPresent(serie -> {
+                    LocalDate fechaFin = fecha.minusDays(1);
+                    if (fechaFin.isBefore(serie.getFechaInicio())) {
+                        serieRepository.delete(serie);
+                        return;
+                    }
+
+                    serie.setFechaFin(fechaFin);
+                    if (serie.getMaterializadaHasta().isAfter(fechaFin)) {
+                        serie.setMaterializadaHasta(fechaFin);
+                    }
+                    serie.getExcepciones().removeIf(excepcion -> excepcion.isAfter(fechaFin));
+                });
+    }
+
+    /**
+     * Registra el cambio en el puesto de la tarea, desde su fecha hasta la indicada
+     */
+    private void registrarCambio(TareaCambio.Tipo tipo, TareaEntity tarea, LocalDate hasta) {
+        Long puestoId = tarea.getPuesto() != null ? tarea.getPuesto().getId() : null;
+        Boolean completada = tipo == TareaCambio.Tipo.COMPLETADA ? tarea.isCompletada() : null;
+        cambios.registrar(new TareaCambio(tipo, tarea.getId(), puestoId, tarea.getFecha(), hasta, completada));
+    }
+
+    /**
+     * Añade las ocurrencias virtuales a las tareas persistidas manteniendo el orden por fecha
+     */
+    private List<TareaEntity> combinar(List<TareaEntity> tareas, List<TareaEntity> virtuales) {
+        if (virtuales.isEmpty()) {
+            return tareas;
+        }
+
+        List<TareaEntity> resultado = new ArrayList<>(tareas.size() + virtuales.size());
+        resultado.addAll(tareas);
+        resultado.addAll(virtuales);
+        resultado.sort(TareaCursor.ORDEN);
+        return resultado;
     }
 
     private TareaEntity findById(Long id) {
@@ -5,16 +5,19 @@ import com.codigozerocuatro.taska.domain.model.ErrorCode;
 import com.codigozerocuatro.taska.domain.model.RolEnum;
 import com.codigozerocuatro.taska.domain.service.PuestoService;
 import com.codigozerocuatro.taska.domain.service.UserService;
+import com.codigozerocuatro.taska.domain.service.UsuarioCache;
+import com.codigozerocuatro.taska.domain.service.VersionesSeguridad;
 import com.codigozerocuatro.taska.infra.dto.CrearUserRequest;
+import com.codigozerocuatro.taska.infra.dto.UserResponse;
 import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
 import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +31,8 @@ public class UserServiceImpl implements UserService {
     private final PuestoService puestoService;
     private final UserJpaRepository userJpaRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VersionesSeguridad versionesSeguridad;
+    private final UsuarioCache usuarioCache;
 
     @Override
     public UserEntity crearUsuario(CrearUserRequest request) {
@@ -45,7 +50,10 @@ public class UserServiceImpl implements UserService {
         newUser.setPuesto(puesto.getPuesto());
         newUser.setRol(RolEnum.USER);
         newUser.setPassword(passwordEncoder.encode(request.password()));
-        return userJpaRepository.save(newUser);
+        UserEntity saved = userJpaRepository.save(newUser);
+        // La comprobación anterior ha cacheado que el usuario no existía
+        usuarioCache.invalidar(saved.getUsername());
+        return saved;
     }
 
     @Override
@@ -61,39 +69,44 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @CacheEvict(value = "USER", allEntries = true, cacheManager = "cacheManagerUser")
+    @Transactional
     public void desactivarUsuario(String username) {
         UserEntity user = obtenerUsuarioPorUsernameActivo(username, true);
         user.setActivo(false);
+        versionesSeguridad.revocar(user);
         userJpaRepository.save(user);
+        usuarioCache.invalidar(username);
     }
 
     @Override
-    @CacheEvict(value = "USER", allEntries = true, cacheManager = "cacheManagerUser")
     public void activarUsuario(String username) {
         UserEntity user = obtenerUsuarioPorUsernameActivo(username, false);
         user.setActivo(true);
         userJpaRepository.save(user);
+        usuarioCache.invalidar(username);
     }
 
     @Override
-    @CacheEvict(value = "USER", allEntries = true, cacheManager = "cacheManagerUser")
+    @Transactional
     public void adminChangePassword(String username, String password) {
         UserEntity user = obtenerUsuarioPorUsername(username);
         user.setPassword(passwordEncoder.encode(password));
+        versionesSeguridad.revocar(user);
         userJpaRepository.save(user);
+        usuarioCache.invalidar(username);
         log.info("Password cambiado por el administrador");
     }
 
     @Override
-    public List<UserEntity> buscarTodos() {
-        List<UserEntity> users = userJpaRepository.findAll();
-        users.forEach(user -> user.setPassword(":)"));
-        return users;
+    @Transactional(readOnly = true)
+    public List<UserResponse> buscarTodos() {
+        return userJpaRepository.findAll().stream()
+                .map(UserResponse::de)
+                .toList();
     }
 
     @Override
-    @CacheEvict(value = "USER", allEntries = true, cacheManager = "cacheManagerUser")
+    @Transactional
     public void changePassword(UserEntity user, String currentPassword, String newPassword) {
         if (newPassword.equals(currentPassword)) {
             throw new AppValidationException(Map.of("newPassword", ErrorCode.PASSWORD_SAME_CURRENT));
@@ -105,6 +118,8 @@ public class UserServiceImpl implements UserService {
 
         String encodedPassword = passwordEncoder.encode(newPassword);
         user.setPassword(encodedPassword);
+        versionesSeguridad.revocar(user);
         userJpaRepository.save(user);
+        usuarioCache.invalidar(user.getUsername());
     }
 }
@@ -2,8 +2,10 @@ package com.codigozerocuatro.taska.infra.config;
 
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
 @EnableConfigurationProperties(AppProperties.class)
 public class AppConfig {
 }
@@ -1,13 +1,20 @@
 package com.codigozerocuatro.taska.infra.config;
 
+import com.codigozerocuatro.taska.domain.model.EstrategiaInsercion;
+import com.codigozerocuatro.taska.domain.model.ModoSerie;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
 import org.hibernate.validator.constraints.Length;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.time.Period;
 import java.util.List;
 
 
@@ -16,7 +23,12 @@ import java.util.List;
 public record AppProperties(
         @Valid Jwt jwt,
         @Valid User user,
-        @Valid Cors cors
+        @Valid Cors cors,
+        @Valid @DefaultValue Series series,
+        @Valid @DefaultValue Paginacion paginacion,
+        @Valid @DefaultValue Replica replica,
+        @Valid @DefaultValue Password password,
+        @Valid @DefaultValue Invalidaciones invalidaciones
 
 ) {
     public record User(
@@ -32,7 +44,97 @@ public record AppProperties(
             long expiration,
 
             @Min(value = 300000, message = "JWT refresh expiration must be at least 5 minutes")
-            long refreshExpiration
+            long refreshExpiration,
+
+            // Tokens verificados que se recuerdan hasta su expiración; 0 verifica la firma en cada petición
+            @Min(value = 0, message = "JWT cache size cannot be negative")
+            @DefaultValue("10000")
+            int cacheSize,
+
+            // Tiempo que cada instancia se fía de la versión de seguridad que ha cargado de un usuario:
+            // acota cuánto tarda en rechazar los tokens revocados desde otra instancia
+            @DefaultValue("1m")
+            Duration versionTtl
+    ) {}
+
+    public record Series(
+            @DefaultValue("MATERIALIZADA")
+            ModoSerie mode,
+
+            // Ocurrencias que se mantienen persistidas por delante de hoy en modo VENTANA
+            @DefaultValue("4w")
+            Period ventana,
+
+            @Min(value = 1, message = "Series batch size must be at least 1")
+            @DefaultValue("100")
+            int lote,
+
+            @DefaultValue("JPA")
+            EstrategiaInsercion insercion
+    ) {}
+
+    public record Paginacion(
+            // Tamaño de página cuando el cliente no indica límite
+            @Min(value = 1, message = "Default page size must be at least 1")
+            @DefaultValue("100")
+            int tamano,
+
+            @Min(value = 1, message = "Max page size must be at least 1")
+            @DefaultValue("500")
+            int tamanoMaximo
+    ) {}
+
+    public record Replica(
+            // Base de datos de solo lectura para las consultas en transacciones readOnly; sin url no se usa
+            String url,
+            String username,
+            String password,
+
+            // Retraso máximo de la réplica: durante este tiempo tras escribir se lee de la primaria
+            @DefaultValue("2s")
+            Duration maxLag
+    ) {
+        public boolean activa() {
+            return url != null && !url.isBlank();
+        }
+    }
+
+    public record Password(
+            // Coste de BCrypt: cada punto duplica el tiempo de hash (PasswordHashBenchmark).
+            // Los hashes guardados llevan su propio coste, así que cambiarlo no invalida contraseñas
+            @Min(value = 4, message = "BCrypt cost must be at least 4")
+            @Max(value = 31, message = "BCrypt cost must be at most 31")
+            @DefaultValue("12")
+            int coste,
+
+            // Hashes simultáneos: acota la CPU que se lleva un pico de logins
+            @Min(value = 1, message = "Password hashing threads must be at least 1")
+            @DefaultValue("2")
+            int hilos,
+
+            // Hashes en espera; con la cola llena se responde 503 en lugar de esperar
+            @Min(value = 0, message = "Password hashing queue cannot be negative")
+            @DefaultValue("16")
+            int cola
+    ) {}
+
+    public record Invalidaciones(
+            // Cada instancia avisa a las demás de lo que invalida en sus cachés, por LISTEN/NOTIFY de
+            // PostgreSQL. Con otra base de datos no se usa
+            @DefaultValue("true")
+            boolean activas,
+
+            @Pattern(regexp = "[a-z_][a-z0-9_]*", message = "Invalidation channel must be a lowercase identifier")
+            @DefaultValue("taska_cache")
+            String canal,
+
+            // Espera máxima de una invalidación para enviarse en la misma notificación que otras
+            @DefaultValue("100ms")
+            Duration lote,
+
+            // Espera entre intentos de reconexión de la conexión que escucha
+            @DefaultValue("5s")
+            Duration reintento
     ) {}
 
     public record Cors(
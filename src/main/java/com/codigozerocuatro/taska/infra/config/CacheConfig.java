@@ -1,6 +1,7 @@
 package com.codigozerocuatro.taska.infra.config;
 
 import com.codigozerocuatro.taska.domain.model.CacheKey;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -17,16 +18,21 @@ public class CacheConfig {
 
     @Bean
     @Primary
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(@Value("${app.cache.tareas.spec:maximumSize=1000,expireAfterWrite=10m}") String tareasSpec) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCacheNames(List.of(CacheKey.PUESTOS, CacheKey.TURNOS));
+        // Con estadísticas, cache.gets (hit/miss) y cache.evictions de /actuator/metrics tienen valores reales
+        cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+        cacheManager.setCacheNames(List.of(CacheKey.PUESTOS, CacheKey.PUESTO_ID, CacheKey.TURNOS));
+        // Se invalida por puesto y fecha al escribir (TareaBusquedaCache); el TTL es solo una red de seguridad
+        cacheManager.registerCustomCache(CacheKey.TAREAS_BUSQUEDA, Caffeine.from(tareasSpec).recordStats().build());
         return cacheManager;
     }
 
     @Bean
     public CacheManager cacheManagerUser(@Value("${app.cache.user.spec:}") String spec) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheKey.USER);
-        cacheManager.setCacheSpecification(spec);
+        // Se invalida por usuario al modificarlo (UsuarioCache)
+        cacheManager.setCaffeine(Caffeine.from(spec).recordStats());
         return cacheManager;
     }
 }
@@ -1,6 +1,7 @@
 package com.codigozerocuatro.taska.infra.config;
 
 import com.codigozerocuatro.taska.domain.exception.AppEntityNotFoundException;
+import com.codigozerocuatro.taska.domain.exception.AppServiceUnavailableException;
 import com.codigozerocuatro.taska.domain.exception.AppValidationException;
 import com.codigozerocuatro.taska.domain.model.ErrorCode;
 import com.codigozerocuatro.taska.infra.dto.ErrorResponse;
@@ -9,6 +10,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -86,6 +88,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    @ExceptionHandler(AppServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleAppServiceUnavailableException(AppServiceUnavailableException ex) {
+        log.warn("Service unavailable: {}", ex.getLocalizedMessage());
+        ErrorResponse body = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex) {
         log.warn("unauthorized {}", ex.getLocalizedMessage());
@@ -1,6 +1,8 @@
 package com.codigozerocuatro.taska.infra.config;
 
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -13,6 +15,7 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
@@ -24,6 +27,21 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
 
     private static final int MAX_PAYLOAD_LENGTH = 1000;
 
+    private static final String STREAMING_ATTRIBUTE = HttpLoggingFilter.class.getName() + ".STREAMING";
+
+    /**
+     * Marca la respuesta como streaming: el cuerpo se escribe directamente en la respuesta
+     * original en lugar de acumularse en memoria, y no se loga. Debe llamarse antes de
+     * escribir el cuerpo (por ejemplo desde el controlador que devuelve un StreamingResponseBody).
+     */
+    public static void disableContentCaching(ServletRequest request) {
+        request.setAttribute(STREAMING_ATTRIBUTE, true);
+    }
+
+    private static boolean isStreaming(ServletRequest request) {
+        return request.getAttribute(STREAMING_ATTRIBUTE) != null;
+    }
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
@@ -31,7 +49,7 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
 
         // Envolver request y response para poder leer el contenido
         ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        ContentCachingResponseWrapper wrappedResponse = new StreamingAwareResponseWrapper(response, request);
         
         Instant startTime = Instant.now();
         
@@ -113,6 +131,10 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
         // No logar response body para rutas de autenticación
         boolean isAuthRoute = uri.startsWith("/api/auth/");
 
+        if (isStreaming(request)) {
+            logMessage.append(" | Response: [streaming]");
+        }
+
         // Logar response body para errores o si es texto/json (excepto rutas de auth)
         if (!isAuthRoute && (status >= 400 || isLoggableResponseType(response))) {
             String responseBody = getResponseBody(response);
@@ -182,4 +204,37 @@ public class HttpLoggingFilter extends OncePerRequestFilter {
                path.startsWith("/images/") ||
                path.equals("/actuator/health");
     }
+
+    /**
+     * Acumula el cuerpo para poder logarlo salvo en las respuestas marcadas como streaming,
+     * que se escriben directamente en la respuesta original
+     */
+    private static class StreamingAwareResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        StreamingAwareResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return isStreaming(request) ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return isStreaming(request) ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (isStreaming(request)) {
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+    }
 }
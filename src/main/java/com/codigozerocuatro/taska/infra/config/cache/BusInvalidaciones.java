@@ -0,0 +1,303 @@
+package com.codigozerocuatro.taska.infra.config.cache;
+
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Reparte entre las instancias de la aplicación lo que cada una invalida en sus cachés locales.
+ * Los mensajes se envían con NOTIFY de PostgreSQL, agrupados en una notificación por lote, y se
+ * reciben con LISTEN en una conexión propia, fuera del pool. Quien publica ya ha aplicado el
+ * cambio: cada instancia ignora sus propios mensajes. Mientras no hay conexión se pueden perder
+ * mensajes, así que al reconectar cada suscriptor invalida todo lo que depende de ellos.
+ */
+@Slf4j
+@Component
+public class BusInvalidaciones {
+
+    /**
+     * NOTIFY admite hasta 8000 bytes por notificación
+     */
+    static final int MAX_BYTES = 7900;
+
+    private static final int MAX_PENDIENTES = 10_000;
+
+    private final AppProperties.Invalidaciones config;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+
+    private final String origen = UUID.randomUUID().toString();
+    private final Map<String, Suscripcion<?>> suscripciones = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> pendientes = new LinkedBlockingQueue<>(MAX_PENDIENTES);
+
+    /**
+     * Mensajes sacados de la cola que todavía no se han enviado; solo los usa el hilo del bus
+     */
+    private final List<String> sinEnviar = new ArrayList<>();
+
+    private final Counter enviadas;
+    private final Counter recibidos;
+    private final Counter descartados;
+    private final Counter reconexiones;
+
+    private volatile boolean disponible = true;
+    private volatile boolean conectado;
+    private volatile boolean detenido;
+    private Thread hilo;
+
+    public BusInvalidaciones(AppProperties appProperties, DataSourceProperties dataSourceProperties,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = appProperties.invalidaciones();
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.enviadas = Counter.builder("cache.bus.sent")
+                .description("Notificaciones enviadas, cada una con un lote de invalidaciones")
+                .register(meterRegistry);
+        this.recibidos = Counter.builder("cache.bus.received")
+                .description("Invalidaciones recibidas de otras instancias")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("cache.bus.dropped")
+                .description("Invalidaciones que no se han podido enviar")
+                .register(meterRegistry);
+        this.reconexiones = Counter.builder("cache.bus.reconnections")
+                .description("Conexiones de escucha perdidas")
+                .register(meterRegistry);
+        Gauge.builder("cache.bus.pending", pendientes, BlockingQueue::size)
+                .description("Invalidaciones en espera de enviarse")
+                .register(meterRegistry);
+        Gauge.builder("cache.bus.connected", this, bus -> bus.conectado ? 1 : 0)
+                .description("1 si la conexión de escucha está abierta")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra el receptor de los mensajes de un tema que publican las demás instancias.
+     *
+     * @param recibir aplica un mensaje recibido, sin volver a publicarlo
+     * @param invalidarTodo invalida todo lo que depende del tema, al reconectar tras perder mensajes
+     */
+    public <T> void suscribir(String tema, Class<T> tipo, Consumer<T> recibir, Runnable invalidarTodo) {
+        suscripciones.put(tema, new Suscripcion<>(tipo, recibir, invalidarTodo));
+    }
+
+    /**
+     * Envía el mensaje a las demás instancias en el siguiente lote. No lo aplica en esta.
+     */
+    public void publicar(String tema, Object mensaje) {
+        if (!disponible) {
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new Mensaje(tema, objectMapper.valueToTree(mensaje)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Mensaje de invalidación no serializable: " + tema, e);
+        }
+        if (bytes(json) > MAX_BYTES - bytes(prefijo()) || !pendientes.offer(json)) {
+            descartados.increment();
+            log.warn("Invalidación descartada del tema {}", tema);
+        }
+    }
+
+    public boolean conectado() {
+        return conectado;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!config.activas()) {
+            disponible = false;
+            return;
+        }
+        hilo = Thread.ofPlatform().name("cache-invalidaciones").daemon().start(this::escuchar);
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        detenido = true;
+        if (hilo != null) {
+            hilo.interrupt();
+            hilo.join(Duration.ofSeconds(2));
+        }
+    }
+
+    private void escuchar() {
+        boolean primera = true;
+        while (!detenido) {
+            try (Connection conexion = conectar()) {
+                if (!conexion.isWrapperFor(PGConnection.class)) {
+                    log.info("Invalidaciones entre instancias desactivadas: requieren PostgreSQL");
+                    disponible = false;
+                    pendientes.clear();
+                    return;
+                }
+                PGConnection pg = conexion.unwrap(PGConnection.class);
+                try (Statement statement = conexion.createStatement()) {
+                    statement.execute("SET application_name = 'taska-invalidaciones'");
+                    statement.execute("LISTEN " + config.canal());
+                }
+                conectado = true;
+                if (!primera) {
+                    log.info("Conexión de invalidaciones recuperada; se invalidan las cachés locales");
+                    suscripciones.values().forEach(suscripcion -> suscripcion.invalidarTodo().run());
+                }
+                primera = false;
+
+                while (!detenido) {
+                    enviar(conexion);
+                    // Espera notificaciones hasta completar el lote; lo publicado mientras sale en el siguiente envío
+                    PGNotification[] notificaciones = pg.getNotifications((int) config.lote().toMillis());
+                    if (notificaciones != null) {
+                        for (PGNotification notificacion : notificaciones) {
+                            recibir(notificacion.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                conectado = false;
+                primera = false;
+                if (detenido) {
+                    return;
+                }
+                reconexiones.increment();
+                log.warn("Conexión de invalidaciones perdida, reintento en {}: {}", config.reintento(), e.getMessage());
+                esperar(config.reintento());
+            }
+        }
+        conectado = false;
+    }
+
+    private Connection conectar() throws SQLException {
+        Properties propiedades = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            propiedades.setProperty("user", username);
+        }
+        if (password != null) {
+            propiedades.setProperty("password", password);
+        }
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), propiedades);
+    }
+
+    /**
+     * Envía los mensajes pendientes en tantas notificaciones como hagan falta para no pasar de
+     * {@link #MAX_BYTES}. Los que no llegan a enviarse se reintentan con la siguiente conexión.
+     */
+    private void enviar(Connection conexion) throws SQLException {
+        pendientes.drainTo(sinEnviar);
+        if (sinEnviar.isEmpty()) {
+            return;
+        }
+
+        String prefijo = prefijo();
+        try (PreparedStatement statement = conexion.prepareStatement("SELECT pg_notify(?, ?)")) {
+            while (!sinEnviar.isEmpty()) {
+                StringBuilder carga = new StringBuilder(prefijo);
+                int bytes = bytes(prefijo) + 2;
+                int enLote = 0;
+                for (String mensaje : sinEnviar) {
+                    int tamano = bytes(mensaje) + 1;
+                    if (enLote > 0 && bytes + tamano > MAX_BYTES) {
+                        break;
+                    }
+                    carga.append(enLote > 0 ? "," : "").append(mensaje);
+                    bytes += tamano;
+                    enLote++;
+                }
+                carga.append("]}");
+
+                statement.setString(1, config.canal());
+                statement.setString(2, carga.toString());
+                statement.execute();
+                enviadas.increment();
+                sinEnviar.subList(0, enLote).clear();
+            }
+        }
+    }
+
+    private void recibir(String carga) {
+        Notificacion notificacion;
+        try {
+            notificacion = objectMapper.readValue(carga, Notificacion.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Notificación de invalidación ilegible: {}", e.getMessage());
+            return;
+        }
+        if (origen.equals(notificacion.origen())) {
+            return;
+        }
+
+        for (Mensaje mensaje : notificacion.mensajes()) {
+            Suscripcion<?> suscripcion = suscripciones.get(mensaje.tema());
+            if (suscripcion == null) {
+                continue;
+            }
+            recibidos.increment();
+            try {
+                suscripcion.recibir(objectMapper, mensaje.mensaje());
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("No se pudo aplicar la invalidación del tema {}: {}", mensaje.tema(), e.getMessage());
+            }
+        }
+    }
+
+    private String prefijo() {
+        return "{\"origen\":\"" + origen + "\",\"mensajes\":[";
+    }
+
+    private static int bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void esperar(Duration tiempo) {
+        try {
+            Thread.sleep(tiempo);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            detenido = true;
+        }
+    }
+
+    record Mensaje(String tema, JsonNode mensaje) {
+    }
+
+    record Notificacion(String origen, List<Mensaje> mensajes) {
+    }
+
+    private record Suscripcion<T>(Class<T> tipo, Consumer<T> recibir, Runnable invalidarTodo) {
+
+        void recibir(ObjectMapper objectMapper, JsonNode mensaje) throws JsonProcessingException {
+            recibir.accept(objectMapper.treeToValue(mensaje, tipo));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.codigozerocuatro.taska.infra.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Elige la base de datos de cada conexión: la réplica para las transacciones de solo lectura y la
+ * primaria para el resto. Un usuario que acaba de escribir lee de la primaria durante el retraso
+ * máximo de la réplica, para ver sus propios cambios.
+ * <p>
+ * Debe ir detrás de un {@code LazyConnectionDataSourceProxy}: así la decisión se toma al ejecutar
+ * la primera sentencia, cuando la transacción ya está marcada como de solo lectura.
+ */
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRIMARIA,
+        REPLICA
+    }
+
+    enum Motivo {
+        LECTURA_ESCRITURA(Destino.PRIMARIA, "read-write"),
+        SOLICITADA(Destino.PRIMARIA, "requested"),
+        ESCRITURA_PROPIA(Destino.PRIMARIA, "own-write"),
+        SOLO_LECTURA(Destino.REPLICA, "read-only");
+
+        private final Destino destino;
+        private final String etiqueta;
+
+        Motivo(Destino destino, String etiqueta) {
+            this.destino = destino;
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    /**
+     * Usuarios con una escritura confirmada dentro del retraso máximo de la réplica
+     */
+    private final Cache<String, Boolean> escriturasRecientes;
+    private final Map<Motivo, Counter> decisiones = new EnumMap<>(Motivo.class);
+
+    public EnrutadorDataSource(DataSource primaria, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        this.escriturasRecientes = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .maximumSize(10_000)
+                .build();
+        for (Motivo motivo : Motivo.values()) {
+            decisiones.put(motivo, Counter.builder("datasource.routing")
+                    .description("Conexiones obtenidas por base de datos y motivo")
+                    .tag("target", motivo.destino.name().toLowerCase())
+                    .tag("reason", motivo.etiqueta)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return decidir().destino;
+    }
+
+    private Motivo decidir() {
+        Motivo motivo;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscritura();
+            motivo = Motivo.LECTURA_ESCRITURA;
+        } else if (LecturaPrimaria.solicitada()) {
+            motivo = Motivo.SOLICITADA;
+        } else if (escrituraReciente()) {
+            motivo = Motivo.ESCRITURA_PROPIA;
+        } else {
+            motivo = Motivo.SOLO_LECTURA;
+        }
+        decisiones.get(motivo).increment();
+        return motivo;
+    }
+
+    /**
+     * El retraso de la réplica cuenta desde la confirmación, no desde el inicio de la transacción
+     */
+    private void registrarEscritura() {
+        String usuario = usuario();
+        if (usuario == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                escriturasRecientes.put(usuario, Boolean.TRUE);
+            }
+        });
+    }
+
+    private boolean escrituraReciente() {
+        String usuario = usuario();
+        return usuario != null && escriturasRecientes.getIfPresent(usuario) != null;
+    }
+
+    private static String usuario() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,31 @@
+package com.codigozerocuatro.taska.infra.config.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Hace que las consultas de solo lectura del hilo actual vayan a la base de datos primaria, para
+ * lecturas que no pueden llegar con el retraso de la réplica. Sin réplica configurada no tiene efecto.
+ */
+public final class LecturaPrimaria {
+
+    private static final ThreadLocal<Boolean> SOLICITADA = new ThreadLocal<>();
+
+    private LecturaPrimaria() {
+    }
+
+    public static <T> T ejecutar(Supplier<T> lectura) {
+        Boolean anterior = SOLICITADA.get();
+        SOLICITADA.set(Boolean.TRUE);
+        try {
+            return lectura.get();
+        } finally {
+            if (anterior == null) {
+                SOLICITADA.remove();
+            }
+        }
+    }
+
+    static boolean solicitada() {
+        return SOLICITADA.get() != null;
+    }
+}
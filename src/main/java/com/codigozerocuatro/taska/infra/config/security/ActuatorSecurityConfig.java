@@ -17,7 +17,8 @@ public class ActuatorSecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/actuator/health").permitAll()
-                        .anyRequest().authenticated())
+                        // metrics y caches exponen el uso de la aplicación
+                        .anyRequest().hasRole("ADMIN"))
                 .httpBasic(Customizer.withDefaults())
                 .build();
     }
@@ -1,5 +1,7 @@
 package com.codigozerocuatro.taska.infra.config.security;
 
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,9 +16,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @EnableMethodSecurity
 public class AuthConfig {
 
+    /**
+     * BCrypt en un pool acotado: un pico de logins no deja sin CPU al resto de endpoints
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.Password password = appProperties.password();
+        return new PasswordEncoderAcotado(new BCryptPasswordEncoder(password.coste()),
+                password.hilos(), password.cola(), meterRegistry);
     }
 
     @Bean
@@ -1,6 +1,8 @@
 package com.codigozerocuatro.taska.infra.config.security;
 
+import com.codigozerocuatro.taska.domain.service.VersionesSeguridad;
 import com.codigozerocuatro.taska.infra.security.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,20 +12,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtConfig;
-    private final UserDetailsService userDetailsService;
+    private final VersionesSeguridad versionesSeguridad;
 
     @Override
     protected void doFilterInternal(
@@ -32,9 +34,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @Nonnull FilterChain filterChain) throws ServletException, IOException {
         final String token = getTokenFromRequest(request);
 
-        if (token != null && jwtConfig.validateToken(token) && jwtConfig.isNotRefreshToken(token)) {
-            String usernameFromToken = jwtConfig.getUsernameFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(usernameFromToken);
+        // Una sola verificación por petición: firma, expiración y tipo salen de los mismos claims.
+        // El usuario se construye con ellos; solo se comprueba que su versión no se haya revocado
+        Optional<Claims> claims = token != null ? jwtConfig.verifyAccessToken(token) : Optional.empty();
+        if (claims.isPresent() && vigente(claims.get())) {
+            UserDetails userDetails = JwtService.getPrincipal(claims.get());
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -46,6 +50,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean vigente(Claims claims) {
+        return JwtService.getVersionSeguridad(claims)
+                .map(version -> versionesSeguridad.vigente(claims.getSubject(), version))
+                .orElse(false);
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,111 @@
+package com.codigozerocuatro.taska.infra.config.security;
+
+import com.codigozerocuatro.taska.domain.exception.AppServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta los hashes de contraseñas en un pool propio de tamaño fijo con una cola acotada. Un pico
+ * de logins ocupa como mucho esos hilos de CPU, y el resto de peticiones se sigue atendiendo;
+ * cuando la cola está llena se rechaza al momento con {@link AppServiceUnavailableException}.
+ * El hilo de la petición espera el resultado sin consumir CPU.
+ */
+public class PasswordEncoderAcotado implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final Timer encode;
+    private final Timer matches;
+    private final Counter rechazos;
+
+    public PasswordEncoderAcotado(PasswordEncoder delegado, int hilos, int cola, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        BlockingQueue<Runnable> espera = cola > 0 ? new ArrayBlockingQueue<>(cola) : new SynchronousQueue<>();
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS, espera, tarea -> {
+            Thread thread = new Thread(tarea, "password-hash-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.encode = timer("encode", meterRegistry);
+        this.matches = timer("matches", meterRegistry);
+        this.rechazos = Counter.builder("password.hash.rejected")
+                .description("Hashes de contraseña rechazados con la cola llena")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Hashes de contraseña en espera de un hilo")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes de contraseña en curso")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(encode, () -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(matches, () -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T ejecutar(Timer timer, Callable<T> hash) {
+        Future<T> resultado;
+        try {
+            // Solo el hash: la espera en la cola la refleja password.hash.queue
+            resultado = executor.submit(() -> timer.recordCallable(hash));
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new AppServiceUnavailableException();
+        }
+
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el hash de la contraseña", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer timer(String operacion, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hash")
+                .description("Tiempo de cálculo de cada hash de contraseña")
+                .tag("operation", operacion)
+                .register(meterRegistry);
+    }
+}
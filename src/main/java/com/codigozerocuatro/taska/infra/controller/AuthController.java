@@ -1,6 +1,7 @@
 package com.codigozerocuatro.taska.infra.controller;
 
 import com.codigozerocuatro.taska.domain.model.User;
+import com.codigozerocuatro.taska.domain.service.VersionesSeguridad;
 import com.codigozerocuatro.taska.infra.dto.ErrorResponse;
 import com.codigozerocuatro.taska.infra.dto.LoginReponse;
 import com.codigozerocuatro.taska.infra.dto.LoginRequest;
@@ -29,6 +30,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final VersionesSeguridad versionesSeguridad;
 
     @PostMapping("/login")
     public ResponseEntity<LoginReponse> login(@Valid @RequestBody LoginRequest request) {
@@ -63,6 +65,16 @@ public class AuthController {
         }
 
         String username = jwtService.getUsernameFromToken(refreshToken);
+        // Desactivar al usuario o cambiar su contraseña también revoca sus refresh tokens
+        boolean vigente = jwtService.verify(refreshToken)
+                .flatMap(JwtService::getVersionSeguridad)
+                .map(version -> versionesSeguridad.vigente(username, version))
+                .orElse(false);
+        if (!vigente) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse(HttpStatus.UNAUTHORIZED, "Refresh token is invalid"));
+        }
+
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
         var auth = new UsernamePasswordAuthenticationToken(
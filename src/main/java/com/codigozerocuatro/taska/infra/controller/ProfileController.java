@@ -1,6 +1,5 @@
 package com.codigozerocuatro.taska.infra.controller;
 
-import com.codigozerocuatro.taska.domain.model.User;
 import com.codigozerocuatro.taska.domain.service.UserService;
 import com.codigozerocuatro.taska.infra.dto.ChangePasswordRequest;
 import com.codigozerocuatro.taska.infra.dto.ProfileResponse;
@@ -20,8 +19,8 @@ public class ProfileController {
 
     @GetMapping
     public ResponseEntity<ProfileResponse> getUser(Authentication authentication) {
-        User userAuthorized = (User) authentication.getPrincipal();
-        UserEntity user = userAuthorized.getUser();
+        // El usuario autenticado se construye con los claims del token, sin los datos de perfil
+        UserEntity user = userService.obtenerUsuarioPorUsername(authentication.getName());
         ProfileResponse response = new ProfileResponse(
                 user.getUsername(),
                 user.getNombre(),
@@ -33,8 +32,7 @@ public class ProfileController {
 
     @PostMapping("password")
     public ResponseEntity<Void> changePassword(Authentication authentication, @Valid @RequestBody ChangePasswordRequest request) {
-        User userAuthorized = (User) authentication.getPrincipal();
-        UserEntity user = userAuthorized.getUser();
+        UserEntity user = userService.obtenerUsuarioPorUsername(authentication.getName());
         userService.changePassword(user, request.currentPassword(), request.newPassword());
         return ResponseEntity.noContent().build();
     }
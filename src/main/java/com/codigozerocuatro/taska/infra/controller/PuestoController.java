@@ -1,7 +1,7 @@
 package com.codigozerocuatro.taska.infra.controller;
 
 import com.codigozerocuatro.taska.domain.service.PuestoService;
-import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.dto.PuestoResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,7 +18,7 @@ public class PuestoController {
     private final PuestoService puestoService;
 
     @GetMapping
-    public ResponseEntity<List<PuestoEntity>> getAllPuestos(){
+    public ResponseEntity<List<PuestoResponse>> getAllPuestos(){
         return ResponseEntity.ok(puestoService.findAll());
     }
 
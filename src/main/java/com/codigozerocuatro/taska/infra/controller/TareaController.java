@@ -1,46 +1,163 @@
 package com.codigozerocuatro.taska.infra.controller;
 
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.domain.model.ResultadoCompletado;
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
+import com.codigozerocuatro.taska.domain.service.TareaConsultaService;
 import com.codigozerocuatro.taska.domain.service.TareaService;
+import com.codigozerocuatro.taska.domain.service.TareaSuscripciones;
+import com.codigozerocuatro.taska.infra.dto.CambiosTareasResponse;
+import com.codigozerocuatro.taska.infra.dto.CompletarTareasRequest;
 import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.TareaConteoResponse;
 import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
-import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.dto.TareaResponse;
+import com.codigozerocuatro.taska.infra.dto.TareaSerieResponse;
+import com.codigozerocuatro.taska.infra.dto.TareasEliminadasResponse;
+import com.codigozerocuatro.taska.infra.config.HttpLoggingFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
+/**
+ * Devuelve registros de infra.dto, nunca entidades. Las lecturas los componen en
+ * {@link TareaConsultaService}; las escrituras, a partir de la tarea que devuelve el servicio con
+ * sus referencias ya cargadas.
+ */
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/tareas")
 public class TareaController {
 
+    /**
+     * El cliente guarda la respuesta, pero debe revalidarla con su ETag en cada petición.
+     * Depende del usuario, así que no se comparte en cachés intermedias.
+     */
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
     private final TareaService tareaService;
+    private final TareaConsultaService consultaService;
+    private final ObjectMapper objectMapper;
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
-    public ResponseEntity<TareaEntity> create(@Valid @RequestBody CrearTareaRequest request) {
-        TareaEntity tarea = tareaService.crear(request);
+    public ResponseEntity<TareaResponse> create(@Valid @RequestBody CrearTareaRequest request) {
+        TareaResponse tarea = TareaResponse.de(tareaService.crear(request));
         return ResponseEntity.ok(tarea);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/batch")
-    public ResponseEntity<List<TareaEntity>> createList(@Valid @RequestBody List<CrearTareaRequest> requests) {
-        List<TareaEntity> tareasCreadas = tareaService.crearTodas(requests);
+    public ResponseEntity<List<TareaResponse>> createList(@Valid @RequestBody List<CrearTareaRequest> requests) {
+        List<TareaResponse> tareasCreadas = tareaService.crearTodas(requests).stream()
+                .map(TareaResponse::de)
+                .toList();
         return ResponseEntity.ok(tareasCreadas);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/all")
-    public ResponseEntity<List<TareaEntity>> getAll() {
-        List<TareaEntity> tareas = tareaService.todas();
+    public ResponseEntity<Pagina<TareaResponse>> getAll(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limite) {
+        Pagina<TareaResponse> tareas = consultaService.todas(cursor, limite);
         return ResponseEntity.ok(tareas);
     }
 
+    /**
+     * Exporta todas las tareas persistidas como NDJSON (una tarea por línea), escribiendo a
+     * medida que se leen de la base de datos. La memoria no depende del número de tareas.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(HttpServletRequest request) {
+        HttpLoggingFilter.disableContentCaching(request);
+
+        ObjectWriter writer = objectMapper.writerFor(TareaResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = salida -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(salida)) {
+                consultaService.exportar(tarea -> {
+                    try {
+                        writer.writeValue(generator, tarea);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Cambios de tareas posteriores al cursor, incluidas las eliminadas, para ponerse al día
+     * después de estar sin conexión
+     */
+    @GetMapping("/cambios")
+    public ResponseEntity<CambiosTareasResponse> changes(@RequestParam(required = false) Long puestoId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limite) {
+        CambiosTareasResponse cambios = consultaService.cambios(puestoId, cursor, limite);
+        return ResponseEntity.ok(cambios);
+    }
+
+    /**
+     * Envía por SSE los cambios confirmados en las tareas del puesto y fecha indicados, para que
+     * los clientes no tengan que consultar periódicamente la búsqueda o la semana. Cada evento se
+     * llama como su tipo y solo indica qué ha cambiado. La petición es asíncrona: una conexión sin
+     * eventos no ocupa ningún hilo.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long puestoId,
+                             @RequestParam(required = false) LocalDate fecha,
+                             HttpServletRequest request) {
+        HttpLoggingFilter.disableContentCaching(request);
+
+        SseEmitter emitter = new SseEmitter();
+        TareaSuscripciones.Suscripcion suscripcion = tareaService.suscribir(puestoId, fecha, new TareaSuscripciones.Receptor() {
+            @Override
+            public void recibir(TareaCambio cambio) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name(cambio.tipo().name())
+                        .data(cambio, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void latido() throws IOException {
+                emitter.send(SseEmitter.event().comment(""));
+            }
+
+            @Override
+            public void cerrar() {
+                emitter.complete();
+            }
+        });
+        // Al cerrar la conexión, por el cliente, por error o al agotar el tiempo de la petición
+        emitter.onCompletion(() -> tareaService.cancelarSuscripcion(suscripcion));
+        emitter.onError(error -> tareaService.cancelarSuscripcion(suscripcion));
+        return emitter;
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}/eliminar-todas")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -55,21 +172,107 @@ public class TareaController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Con If-None-Match de la versión actual responde 304 sin consultar las tareas
+     */
     @GetMapping
-    public List<TareaEntity> search(@ModelAttribute FiltroTareaRequest filtro) {
-        return tareaService.buscar(filtro);
+    public ResponseEntity<Pagina<TareaResponse>> search(@ModelAttribute FiltroTareaRequest filtro,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limite,
+                                                        WebRequest request) {
+        String version = tareaService.versionBusqueda(filtro, cursor, limite);
+        if (request.checkNotModified(version)) {
+            return noModificado(version);
+        }
+
+        Pagina<TareaResponse> tareas = consultaService.buscar(filtro, cursor, limite);
+        return conVersion(version, tareas);
+    }
+
+    /**
+     * Número de tareas por fecha, puesto, turno y estado para los paneles, con los filtros de la
+     * búsqueda. Su versión es la de la búsqueda completa con el mismo filtro.
+     */
+    @GetMapping("/resumen")
+    public ResponseEntity<List<TareaConteoResponse>> summary(@ModelAttribute FiltroTareaRequest filtro, WebRequest request) {
+        String version = tareaService.versionBusqueda(filtro, null, null);
+        if (request.checkNotModified(version)) {
+            return noModificado(version);
+        }
+
+        List<TareaConteoResponse> conteos = tareaService.resumen(filtro).stream()
+                .map(TareaConteoResponse::de)
+                .toList();
+        return conVersion(version, conteos);
+    }
+
+    /**
+     * Marca o desmarca varias tareas en una sola petición y transacción, por ejemplo al cerrar un turno
+     */
+    @PostMapping("/completar")
+    public ResponseEntity<List<ResultadoCompletado>> completeAll(@Valid @RequestBody CompletarTareasRequest request) {
+        List<ResultadoCompletado> resultados = tareaService.completarTodas(request);
+        return ResponseEntity.ok(resultados);
     }
 
     @PostMapping("/{id}/completar")
-    public ResponseEntity<TareaEntity> complete(@PathVariable Long id) {
-        TareaEntity tarea = tareaService.completar(id);
+    public ResponseEntity<TareaResponse> complete(@PathVariable Long id) {
+        TareaResponse tarea = TareaResponse.de(tareaService.completar(id));
         return ResponseEntity.ok(tarea);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/series")
+    public ResponseEntity<List<TareaSerieResponse>> getSeries() {
+        List<TareaSerieResponse> series = consultaService.series();
+        return ResponseEntity.ok(series);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/series/{serieId}")
+    public ResponseEntity<TareasEliminadasResponse> deleteSerie(@PathVariable Long serieId) {
+        int eliminadas = tareaService.eliminarSerie(serieId);
+        return ResponseEntity.ok(new TareasEliminadasResponse(eliminadas));
+    }
+
+    @PostMapping("/series/{serieId}/ocurrencias/{fecha}")
+    public ResponseEntity<TareaResponse> materializeOccurrence(@PathVariable Long serieId, @PathVariable LocalDate fecha) {
+        TareaResponse tarea = TareaResponse.de(tareaService.materializarOcurrencia(serieId, fecha));
+        return ResponseEntity.ok(tarea);
+    }
+
+    @PostMapping("/series/{serieId}/ocurrencias/{fecha}/completar")
+    public ResponseEntity<TareaResponse> completeOccurrence(@PathVariable Long serieId, @PathVariable LocalDate fecha) {
+        TareaResponse tarea = TareaResponse.de(tareaService.completarOcurrencia(serieId, fecha));
+        return ResponseEntity.ok(tarea);
+    }
+
+    /**
+     * Con If-None-Match de la versión actual responde 304 sin consultar las tareas
+     */
     @GetMapping("/week")
-    public ResponseEntity<List<TareaEntity>> getTasksForWeek(@RequestParam LocalDate fecha) {
-        List<TareaEntity> tareas = tareaService.obtenerTareasPorSemana(fecha);
-        return ResponseEntity.ok(tareas);
+    public ResponseEntity<List<TareaResponse>> getTasksForWeek(@RequestParam LocalDate fecha, WebRequest request) {
+        String version = tareaService.versionSemana(fecha);
+        if (request.checkNotModified(version)) {
+            return noModificado(version);
+        }
+
+        List<TareaResponse> tareas = consultaService.semana(fecha);
+        return conVersion(version, tareas);
+    }
+
+    private static <T> ResponseEntity<T> noModificado(String version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(version)
+                .cacheControl(REVALIDAR)
+                .build();
+    }
+
+    private static <T> ResponseEntity<T> conVersion(String version, T body) {
+        return ResponseEntity.ok()
+                .eTag(version)
+                .cacheControl(REVALIDAR)
+                .body(body);
     }
 
 }
@@ -1,7 +1,7 @@
 package com.codigozerocuatro.taska.infra.controller;
 
 import com.codigozerocuatro.taska.domain.model.CacheKey;
-import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+import com.codigozerocuatro.taska.infra.dto.TurnoResponse;
 import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
@@ -21,8 +21,10 @@ public class TurnoController {
 
     @Cacheable(CacheKey.TURNOS)
     @GetMapping
-    public ResponseEntity<List<TurnoEntity>> getAll() {
-        List<TurnoEntity> turnos = repository.findAll();
+    public ResponseEntity<List<TurnoResponse>> getAll() {
+        List<TurnoResponse> turnos = repository.findAll().stream()
+                .map(TurnoResponse::de)
+                .toList();
         return ResponseEntity.ok(turnos);
     }
 
@@ -3,7 +3,7 @@ package com.codigozerocuatro.taska.infra.controller;
 import com.codigozerocuatro.taska.domain.service.UserService;
 import com.codigozerocuatro.taska.infra.dto.AdminChangePasswordRequest;
 import com.codigozerocuatro.taska.infra.dto.CrearUserRequest;
-import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.dto.UserResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -21,14 +21,13 @@ public class UserController {
     private final UserService userService;
 
     @PostMapping
-    public ResponseEntity<UserEntity> create(@Valid @RequestBody CrearUserRequest request){
-        UserEntity user = userService.crearUsuario(request);
-        user.setPassword(":)");
+    public ResponseEntity<UserResponse> create(@Valid @RequestBody CrearUserRequest request){
+        UserResponse user = UserResponse.de(userService.crearUsuario(request));
         return ResponseEntity.ok(user);
     }
 
     @GetMapping
-    public ResponseEntity<List<UserEntity>> getUsers(){
+    public ResponseEntity<List<UserResponse>> getUsers(){
         return ResponseEntity.ok(userService.buscarTodos());
     }
 
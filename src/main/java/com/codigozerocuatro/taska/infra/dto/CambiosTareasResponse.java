@@ -0,0 +1,14 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta de la sincronización incremental; ver {@code CambiosTareas}
+ */
+public record CambiosTareasResponse(
+        List<TareaResponse> tareas,
+        List<Long> eliminadas,
+        String cursor,
+        boolean hayMas
+) {
+}
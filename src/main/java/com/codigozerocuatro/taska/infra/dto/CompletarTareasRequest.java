@@ -0,0 +1,27 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import com.codigozerocuatro.taska.domain.model.ErrorCode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record CompletarTareasRequest(
+        @NotEmpty(message = ErrorCode.TAREAS_REQUIRED)
+        @Size(max = CompletarTareasRequest.MAX_TAREAS, message = ErrorCode.TAREAS_MAX_SIZE)
+        List<@Valid Cambio> tareas
+) {
+
+    public static final int MAX_TAREAS = 500;
+
+    /**
+     * Estado que se quiere para una tarea
+     */
+    public record Cambio(
+            @NotNull(message = ErrorCode.TAREA_ID_REQUIRED) Long id,
+            @NotNull(message = ErrorCode.COMPLETADA_REQUIRED) Boolean completada
+    ) {
+    }
+}
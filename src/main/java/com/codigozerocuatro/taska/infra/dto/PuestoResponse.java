@@ -0,0 +1,14 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+
+public record PuestoResponse(
+        Long id,
+        PuestoEnum puesto
+) {
+
+    public static PuestoResponse de(PuestoEntity puesto) {
+        return puesto == null ? null : new PuestoResponse(puesto.getId(), puesto.getPuesto());
+    }
+}
@@ -0,0 +1,22 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaConteo;
+
+import java.time.LocalDate;
+
+/**
+ * Número de tareas de una fecha, puesto, turno y estado, tal como lo devuelve la API
+ */
+public record TareaConteoResponse(
+        LocalDate fecha,
+        Long puestoId,
+        Long turnoId,
+        boolean completada,
+        long total
+) {
+
+    public static TareaConteoResponse de(TareaConteo conteo) {
+        return new TareaConteoResponse(conteo.fecha(), conteo.puestoId(), conteo.turnoId(),
+                conteo.completada(), conteo.total());
+    }
+}
@@ -0,0 +1,48 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import com.codigozerocuatro.taska.domain.model.DiaSemana;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Tarea tal como la devuelve la API. Las ocurrencias virtuales no tienen id; se identifican por
+ * serieId y fecha.
+ *
+ * @param serieId serie a la que pertenece la tarea; agrupa sus ocurrencias y sustituye a idTareaPadre
+ */
+public record TareaResponse(
+        Long id,
+        boolean completada,
+        Instant fechaCompletada,
+        LocalDate fecha,
+        PuestoResponse puesto,
+        TurnoResponse turno,
+        Long serieId,
+        String descripcion,
+        TipoRecurrencia tipoRecurrencia,
+        DiaSemana diaSemana,
+        Integer diaMes
+) {
+
+    /**
+     * Lee la serie, el puesto y el turno de la tarea: deben estar cargados o dentro de una transacción
+     */
+    public static TareaResponse de(TareaEntity tarea) {
+        return new TareaResponse(
+                tarea.getId(),
+                tarea.isCompletada(),
+                tarea.getFechaCompletada(),
+                tarea.getFecha(),
+                PuestoResponse.de(tarea.getPuesto()),
+                TurnoResponse.de(tarea.getTurno()),
+                tarea.getSerieId(),
+                tarea.getDescripcion(),
+                tarea.getTipoRecurrencia(),
+                tarea.getDiaSemana(),
+                tarea.getDiaMes()
+        );
+    }
+}
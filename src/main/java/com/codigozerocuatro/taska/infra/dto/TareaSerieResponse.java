@@ -0,0 +1,13 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import java.time.LocalDate;
+
+public record TareaSerieResponse(
+        Long id,
+        String descripcion,
+        String tipoRecurrencia,
+        LocalDate fechaInicio,
+        LocalDate fechaFin,
+        LocalDate materializadaHasta
+) {
+}
@@ -0,0 +1,6 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+public record TareasEliminadasResponse(
+        int eliminadas
+) {
+}
@@ -0,0 +1,14 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+
+public record TurnoResponse(
+        Long id,
+        TurnoEnum turno
+) {
+
+    public static TurnoResponse de(TurnoEntity turno) {
+        return turno == null ? null : new TurnoResponse(turno.getId(), turno.getTurno());
+    }
+}
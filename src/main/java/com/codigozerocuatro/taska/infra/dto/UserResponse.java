@@ -0,0 +1,35 @@
+package com.codigozerocuatro.taska.infra.dto;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usuario tal como lo devuelve la API, sin la contraseña
+ */
+public record UserResponse(
+        Long id,
+        String username,
+        String nombre,
+        Boolean activo,
+        PuestoEnum puesto,
+        RolEnum rol,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaActualizacion
+) {
+
+    public static UserResponse de(UserEntity user) {
+        return new UserResponse(
+                user.getId(),
+                user.getUsername(),
+                user.getNombre(),
+                user.getActivo(),
+                user.getPuesto(),
+                user.getRol(),
+                user.getFechaCreacion(),
+                user.getFechaActualizacion()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.codigozerocuatro.taska.infra.persistence.model;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Proyección con el número de tareas de una fecha, puesto, turno y estado
+ */
+public record TareaConteo(LocalDate fecha, Long puestoId, Long turnoId, boolean completada, long total) {
+
+    private static final Comparator<TareaConteo> ORDEN = Comparator.comparing(TareaConteo::fecha)
+            .thenComparing(TareaConteo::puestoId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TareaConteo::turnoId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TareaConteo::completada);
+
+    /**
+     * Suma los totales de los conteos del mismo grupo y los ordena por fecha, puesto, turno y estado
+     */
+    public static List<TareaConteo> combinar(List<TareaConteo> conteos) {
+        Map<TareaConteo, Long> totales = new TreeMap<>(ORDEN);
+        conteos.forEach(conteo -> totales.merge(conteo, conteo.total(), Long::sum));
+        return totales.entrySet().stream()
+                .map(grupo -> new TareaConteo(grupo.getKey().fecha(), grupo.getKey().puestoId(),
+                        grupo.getKey().turnoId(), grupo.getKey().completada(), grupo.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,34 @@
+package com.codigozerocuatro.taska.infra.persistence.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Marca de una tarea eliminada. La escribe la base de datos al borrar la tarea (trigger en
+ * PostgreSQL) para que la sincronización incremental pueda avisar del borrado.
+ */
+@Entity
+@Immutable
+@Table(name = "tarea_eliminada")
+@Getter
+@NoArgsConstructor
+public class TareaEliminadaEntity {
+
+    @Id
+    private Long tareaId;
+
+    private Long puestoId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    /**
+     * Transacción que eliminó la tarea
+     */
+    @Column(nullable = false)
+    private long cambio;
+}
@@ -2,6 +2,7 @@ package com.codigozerocuatro.taska.infra.persistence.model;
 
 import com.codigozerocuatro.taska.domain.model.DiaSemana;
 import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,48 +10,94 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tarea")
+// Una sola fila por ocurrencia de cada serie
+@Table(name = "tarea", uniqueConstraints = @UniqueConstraint(name = "uk_tarea_serie_fecha", columnNames = {"serie_id", "fecha"}))
+@NamedEntityGraph(name = TareaEntity.GRAFO_REFERENCIAS, attributeNodes = {
+        @NamedAttributeNode("puesto"),
+        @NamedAttributeNode("turno"),
+        @NamedAttributeNode("serie")
+})
 @Getter
 @Setter
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class TareaEntity {
 
+    // Ids que reserva cada llamada a tarea_seq (optimizador pooled)
+    public static final int BLOQUE_IDS = 50;
+
+    /**
+     * Plan de carga de las lecturas de tareas: puesto, turno y serie en la misma consulta
+     */
+    public static final String GRAFO_REFERENCIAS = "TareaEntity.referencias";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tarea_seq")
+    @SequenceGenerator(name = "tarea_seq", sequenceName = "tarea_seq", allocationSize = BLOQUE_IDS)
     @EqualsAndHashCode.Include
     private Long id;
 
-    @Column(nullable = false, length = 3000)
-    private String descripcion;
-
     @Column(nullable = false, columnDefinition = "boolean default false")
     private boolean completada;
 
     private Instant fechaCompletada;
 
-    @Column(nullable = false)
-    private LocalDate fecha;
-
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
-    private TipoRecurrencia tipoRecurrencia;
+    /**
+     * Detecta escrituras basadas en una copia obsoleta de la tarea
+     */
+    @JsonIgnore
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 
-    @Enumerated(EnumType.STRING)
-    private DiaSemana diaSemana;
+    /**
+     * Última transacción que insertó o modificó la tarea. La asigna la base de datos en cada
+     * escritura (trigger en PostgreSQL); se usa para la sincronización incremental.
+     */
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long cambio;
 
-    private Integer diaMes;
+    @Column(nullable = false)
+    private LocalDate fecha;
 
-    @Column(name = "id_tarea_padre")
-    private Long idTareaPadre;
+    /**
+     * Serie a la que pertenece la tarea. Descripción y recurrencia se guardan una sola
+     * vez en la serie; las tareas de una vez tienen una serie de una única ocurrencia.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "serie_id", nullable = false)
+    private TareaSerieEntity serie;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "puesto_id")
     private PuestoEntity puesto;
 
     @ToString.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "turno_id")
     private TurnoEntity turno;
 
+    public Long getSerieId() {
+        return serie != null ? serie.getId() : null;
+    }
+
+    public String getDescripcion() {
+        return serie.getDescripcion();
+    }
+
+    public TipoRecurrencia getTipoRecurrencia() {
+        return serie.getTipoRecurrencia();
+    }
+
+    public DiaSemana getDiaSemana() {
+        return serie.getDiaSemana();
+    }
+
+    public Integer getDiaMes() {
+        return serie.getDiaMes();
+    }
+
 }
@@ -0,0 +1,10 @@
+package com.codigozerocuatro.taska.infra.persistence.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Proyección del estado de completado de una tarea, con el puesto y la fecha que afecta su cambio
+ */
+public record TareaEstado(Long id, boolean completada, Instant fechaCompletada, LocalDate fecha, Long puestoId) {
+}
@@ -0,0 +1,88 @@
+package com.codigozerocuatro.taska.infra.persistence.model;
+
+import com.codigozerocuatro.taska.domain.model.DiaSemana;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Regla de una serie recurrente. Guarda una sola vez los datos comunes a todas
+ * las ocurrencias y el rango de fechas que cubre la serie. Las series de las tareas
+ * se cargan por lotes, una vez por serie distinta.
+ */
+@Entity
+@Table(name = "tarea_serie")
+@BatchSize(size = 50)
+@Getter
+@Setter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class TareaSerieEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(nullable = false, length = 3000)
+    private String descripcion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoRecurrencia tipoRecurrencia;
+
+    @Enumerated(EnumType.STRING)
+    private DiaSemana diaSemana;
+
+    private Integer diaMes;
+
+    /**
+     * Fecha de la primera ocurrencia de la serie
+     */
+    @Column(nullable = false)
+    private LocalDate fechaInicio;
+
+    /**
+     * Fecha de la última ocurrencia de la serie (inclusive)
+     */
+    @Column(nullable = false)
+    private LocalDate fechaFin;
+
+    /**
+     * Fecha hasta la que existen filas en tarea para esta serie. Las ocurrencias
+     * posteriores se expanden a partir de la regla al leer.
+     */
+    @Column(nullable = false)
+    private LocalDate materializadaHasta;
+
+    @ToString.Exclude
+    @ManyToOne
+    @JoinColumn(name = "puesto_id")
+    private PuestoEntity puesto;
+
+    @ToString.Exclude
+    @ManyToOne
+    @JoinColumn(name = "turno_id")
+    private TurnoEntity turno;
+
+    /**
+     * Fechas de ocurrencias eliminadas que no deben volver a expandirse
+     */
+    @ToString.Exclude
+    @ElementCollection
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "tarea_serie_excepcion", joinColumns = @JoinColumn(name = "serie_id"))
+    @Column(name = "fecha", nullable = false)
+    private Set<LocalDate> excepciones = new HashSet<>();
+
+    public boolean tieneOcurrenciasVirtuales() {
+        return fechaFin.isAfter(materializadaHasta);
+    }
+
+}
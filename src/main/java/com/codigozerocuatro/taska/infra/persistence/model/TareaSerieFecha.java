@@ -0,0 +1,9 @@
+package com.codigozerocuatro.taska.infra.persistence.model;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección (serie, fecha) de una ocurrencia persistida
+ */
+public record TareaSerieFecha(Long serieId, LocalDate fecha) {
+}
@@ -46,6 +46,12 @@ public class UserEntity {
     @Column(name = "rol", nullable = false)
     private RolEnum rol;
 
+    /**
+     * Versión que llevan los tokens del usuario. Al incrementarla se revocan los emitidos antes.
+     */
+    @Column(name = "version_seguridad", nullable = false, columnDefinition = "bigint default 0")
+    private long versionSeguridad;
+
     public UserEntity() {}
 
     public UserEntity(String username, String password, String nombre) {
@@ -0,0 +1,14 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+/**
+ * Fragmento de {@link TareaJpaRepository} con el límite hasta el que se pueden leer los cambios
+ * de tareas sin saltarse ninguno
+ */
+public interface TareaCambioRepository {
+
+    /**
+     * Las transacciones por debajo de este valor han terminado, así que ya no puede aparecer
+     * ningún cambio nuevo con un valor de cambio menor. Debe obtenerse antes de leer los cambios.
+     */
+    long horizonteCambios();
+}
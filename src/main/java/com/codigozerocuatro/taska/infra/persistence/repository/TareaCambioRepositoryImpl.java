@@ -0,0 +1,32 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * En PostgreSQL el horizonte es el xmin de la instantánea actual: la transacción más antigua
+ * que sigue en curso. En otras bases de datos no hay trigger que asigne el cambio y todas las
+ * tareas tienen cambio 0, así que no hay límite.
+ */
+@RequiredArgsConstructor
+public class TareaCambioRepositoryImpl implements TareaCambioRepository {
+
+    private static final String HORIZONTE_POSTGRESQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public long horizonteCambios() {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        if (!(dialect instanceof PostgreSQLDialect)) {
+            return Long.MAX_VALUE;
+        }
+        return ((Number) entityManager.createNativeQuery(HORIZONTE_POSTGRESQL).getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,23 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Fragmento de {@link TareaJpaRepository} con el cambio de estado atómico de una tarea
+ */
+public interface TareaCompletadaRepository {
+
+    /**
+     * Marca o desmarca la tarea como completada en una única sentencia, leyendo el estado de la
+     * fila y no el de memoria: dos cambios simultáneos no se pisan. Aumenta la versión, así que
+     * una copia de la tarea leída antes queda obsoleta. Debe ejecutarse dentro de una transacción.
+     *
+     * @param id id de la tarea
+     * @param ahora fecha de completado si la tarea pasa a estar completada
+     * @return la tarea actualizada con puesto, turno y serie cargados, o vacío si no existe
+     */
+    Optional<TareaEntity> alternarCompletada(Long id, Instant ahora);
+}
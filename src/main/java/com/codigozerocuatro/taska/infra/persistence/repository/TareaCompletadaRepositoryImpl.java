@@ -0,0 +1,80 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * El UPDATE devuelve la fila ya modificada junto con sus referencias: con RETURNING en
+ * PostgreSQL y con FINAL TABLE en H2.
+ */
+@RequiredArgsConstructor
+public class TareaCompletadaRepositoryImpl implements TareaCompletadaRepository {
+
+    private static final String ALTERNAR = """
+            UPDATE tarea
+            SET completada = NOT completada,
+                fecha_completada = CASE WHEN completada THEN NULL ELSE CAST(:ahora AS TIMESTAMP WITH TIME ZONE) END,
+                version = version + 1
+            WHERE id = :id
+            """;
+
+    private static final String REFERENCIAS = """
+            LEFT JOIN puesto p ON p.id = t.puesto_id
+            LEFT JOIN turno tu ON tu.id = t.turno_id
+            JOIN tarea_serie s ON s.id = t.serie_id
+            """;
+
+    private static final String ALTERNAR_POSTGRESQL = "WITH t AS (" + ALTERNAR + " RETURNING *)\n"
+            + "SELECT {t.*}, {p.*}, {tu.*}, {s.*} FROM t\n" + REFERENCIAS;
+
+    private static final String ALTERNAR_H2 = "SELECT {t.*}, {p.*}, {tu.*}, {s.*} FROM FINAL TABLE (" + ALTERNAR + ") t\n"
+            + REFERENCIAS;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<TareaEntity> alternarCompletada(Long id, Instant ahora) {
+        // La copia gestionada de la tarea quedaría con el estado anterior
+        entityManager.flush();
+        entityManager.detach(entityManager.getReference(TareaEntity.class, id));
+
+        // Puesto, turno y serie llegan en la misma fila como fetch de la tarea
+        List<?> tareas = entityManager.createNativeQuery(sentencia())
+                .unwrap(NativeQuery.class)
+                .addEntity("t", TareaEntity.class)
+                .addJoin("p", "t.puesto")
+                .addJoin("tu", "t.turno")
+                .addJoin("s", "t.serie")
+                .setParameter("id", id)
+                .setParameter("ahora", ahora)
+                .getResultList();
+
+        return tareas.stream()
+                .map(TareaEntity.class::cast)
+                .findFirst();
+    }
+
+    private String sentencia() {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        if (dialect instanceof PostgreSQLDialect) {
+            return ALTERNAR_POSTGRESQL;
+        }
+        if (dialect instanceof H2Dialect) {
+            return ALTERNAR_H2;
+        }
+        throw new IllegalStateException("Base de datos no soportada: " + dialect);
+    }
+}
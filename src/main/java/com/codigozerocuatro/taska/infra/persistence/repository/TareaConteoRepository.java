@@ -0,0 +1,21 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaConteo;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Fragmento de {@link TareaJpaRepository} con los conteos de tareas agrupados
+ */
+public interface TareaConteoRepository {
+
+    /**
+     * Cuenta las tareas persistidas que cumplen el filtro, agrupadas por fecha, puesto, turno y
+     * estado, en una sola consulta y sin cargar las tareas
+     *
+     * @param filtro filtros de {@code TareaSpecification}; no debe incluir fetch ni orden
+     */
+    List<TareaConteo> contar(Specification<TareaEntity> filtro);
+}
@@ -0,0 +1,45 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaConteo;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * GROUP BY sobre las claves ajenas de tarea: ni joins con puesto y turno ni entidades en el resultado
+ */
+@RequiredArgsConstructor
+public class TareaConteoRepositoryImpl implements TareaConteoRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TareaConteo> contar(Specification<TareaEntity> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TareaConteo> query = cb.createQuery(TareaConteo.class);
+        Root<TareaEntity> root = query.from(TareaEntity.class);
+
+        Path<LocalDate> fecha = root.get("fecha");
+        Path<Long> puestoId = root.get("puesto").get("id");
+        Path<Long> turnoId = root.get("turno").get("id");
+        Path<Boolean> completada = root.get("completada");
+
+        query.select(cb.construct(TareaConteo.class, fecha, puestoId, turnoId, completada, cb.count(root)))
+                .groupBy(fecha, puestoId, turnoId, completada);
+        Predicate predicate = filtro.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,31 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEliminadaEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TareaEliminadaJpaRepository extends JpaRepository<TareaEliminadaEntity, Long> {
+
+    /**
+     * Tareas eliminadas después del cursor (cambio, tareaId) por transacciones anteriores al
+     * horizonte, en ese orden (usa idx_tarea_eliminada_cambio_id)
+     */
+    @Query("SELECT e FROM TareaEliminadaEntity e WHERE e.cambio >= :cambio AND (e.cambio > :cambio OR e.tareaId > :id) " +
+            "AND e.cambio < :horizonte ORDER BY e.cambio, e.tareaId")
+    List<TareaEliminadaEntity> findCambios(@Param("cambio") long cambio, @Param("id") long id,
+                                           @Param("horizonte") long horizonte, Limit limite);
+
+    /**
+     * Como {@link #findCambios} para un puesto (usa idx_tarea_eliminada_puesto_cambio_id)
+     */
+    @Query("SELECT e FROM TareaEliminadaEntity e WHERE e.puestoId = :puestoId " +
+            "AND e.cambio >= :cambio AND (e.cambio > :cambio OR e.tareaId > :id) " +
+            "AND e.cambio < :horizonte ORDER BY e.cambio, e.tareaId")
+    List<TareaEliminadaEntity> findCambiosDelPuesto(@Param("puestoId") Long puestoId, @Param("cambio") long cambio,
+                                                    @Param("id") long id, @Param("horizonte") long horizonte,
+                                                    Limit limite);
+}
@@ -1,38 +1,150 @@
 package com.codigozerocuatro.taska.infra.persistence.repository;
 
 import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEstado;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieFecha;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TareaJpaRepository extends JpaRepository<TareaEntity, Long>, JpaSpecificationExecutor<TareaEntity> {
+/**
+ * Las lecturas de tareas cargan puesto, turno y serie con el grafo {@link TareaEntity#GRAFO_REFERENCIAS};
+ * las consultas por Specification lo hacen con {@code TareaSpecification.conReferencias()}.
+ */
+public interface TareaJpaRepository extends JpaRepository<TareaEntity, Long>, JpaSpecificationExecutor<TareaEntity>,
+        TareaCompletadaRepository, TareaCambioRepository, TareaConteoRepository {
 
     /**
-     * Encuentra todas las tareas hijas de una tarea padre
+     * Filas que el driver trae en cada viaje al recorrer la exportación
      */
-    List<TareaEntity> findByIdTareaPadre(Long idTareaPadre);
+    int LOTE_EXPORTACION = 500;
+
+    @Override
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
+    Optional<TareaEntity> findById(Long id);
+
+    @Override
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
+    List<TareaEntity> findAll();
+
+    /**
+     * Encuentra todas las tareas persistidas de la serie a la que pertenece la tarea indicada
+     * (usa idx_tarea_serie_fecha)
+     */
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
+    @Query("SELECT t FROM TareaEntity t WHERE t.id = :id " +
+            "OR t.serie.id = (SELECT o.serie.id FROM TareaEntity o WHERE o.id = :id) ORDER BY t.fecha")
+    List<TareaEntity> findSerieRecurrente(@Param("id") Long id);
+
+    /**
+     * Recorre todas las tareas persistidas en orden (fecha, id) con un cursor del driver, sin
+     * cargar el resultado completo en memoria. Debe consumirse dentro de una transacción.
+     */
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + LOTE_EXPORTACION),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM TareaEntity t ORDER BY t.fecha, t.id")
+    Stream<TareaEntity> streamTodas();
+
+    /**
+     * Elimina en una sola sentencia las tareas de una serie en una fecha o posteriores
+     * @return número de tareas eliminadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TareaEntity t WHERE t.serie.id = :serieId AND t.fecha >= :fecha")
+    int deleteTareasPosteriores(@Param("serieId") Long serieId, @Param("fecha") LocalDate fecha);
+
+    /**
+     * Elimina en una sola sentencia todas las tareas persistidas de una serie
+     * @return número de tareas eliminadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TareaEntity t WHERE t.serie.id = :serieId")
+    int deleteBySerieId(@Param("serieId") Long serieId);
+
+    /**
+     * Estado de completado de las tareas indicadas. Bloquea sus filas hasta el final de la
+     * transacción, en orden de id para que dos cambios en bloque no se esperen mutuamente.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.codigozerocuatro.taska.infra.persistence.model.TareaEstado(" +
+            "t.id, t.completada, t.fechaCompletada, t.fecha, t.puesto.id) " +
+            "FROM TareaEntity t WHERE t.id IN :ids ORDER BY t.id")
+    List<TareaEstado> findEstadosParaActualizar(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marca y desmarca tareas en una sola sentencia. Las que se completan comparten la fecha de completado.
+     * @return número de tareas actualizadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TareaEntity t SET " +
+            "t.completada = CASE WHEN t.id IN :completar THEN true ELSE false END, " +
+            "t.fechaCompletada = CASE WHEN t.id IN :completar THEN :ahora ELSE NULL END, " +
+            "t.version = t.version + 1 " +
+            "WHERE t.id IN :completar OR t.id IN :desmarcar")
+    int actualizarCompletadas(@Param("completar") Collection<Long> completar,
+                              @Param("desmarcar") Collection<Long> desmarcar,
+                              @Param("ahora") Instant ahora);
 
     /**
-     * Encuentra todas las tareas de una serie recurrente (padre e hijas)
+     * Tareas insertadas o modificadas después del cursor (cambio, id) por transacciones anteriores
+     * al horizonte, en ese orden (usa idx_tarea_cambio_id)
      */
-    @Query("SELECT t FROM TareaEntity t WHERE t.id = :idTareaPadre OR t.idTareaPadre = :idTareaPadre ORDER BY t.fecha")
-    List<TareaEntity> findSerieRecurrente(@Param("idTareaPadre") Long idTareaPadre);
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
+    @Query("SELECT t FROM TareaEntity t WHERE t.cambio >= :cambio AND (t.cambio > :cambio OR t.id > :id) " +
+            "AND t.cambio < :horizonte ORDER BY t.cambio, t.id")
+    List<TareaEntity> findCambios(@Param("cambio") long cambio, @Param("id") long id,
+                                  @Param("horizonte") long horizonte, Limit limite);
 
     /**
-     * Encuentra tareas posteriores a una fecha específica en una serie recurrente
-     * solo las tareas hijas (excluye la tarea padre)
+     * Como {@link #findCambios} para un puesto (usa idx_tarea_puesto_cambio_id)
      */
-    @Query("SELECT t FROM TareaEntity t WHERE t.idTareaPadre = :idTareaPadre AND t.fecha >= :fecha ORDER BY t.fecha")
-    List<TareaEntity> findTareasPosteriores(@Param("idTareaPadre") Long idTareaPadre, @Param("fecha") LocalDate fecha);
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
+    @Query("SELECT t FROM TareaEntity t WHERE t.puesto.id = :puestoId " +
+            "AND t.cambio >= :cambio AND (t.cambio > :cambio OR t.id > :id) " +
+            "AND t.cambio < :horizonte ORDER BY t.cambio, t.id")
+    List<TareaEntity> findCambiosDelPuesto(@Param("puestoId") Long puestoId, @Param("cambio") long cambio,
+                                           @Param("id") long id, @Param("horizonte") long horizonte, Limit limite);
 
     /**
      * Encuentra todas las tareas en un rango de fechas ordenadas por fecha
      */
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
     @Query("SELECT t FROM TareaEntity t WHERE t.fecha >= :fechaInicio AND t.fecha <= :fechaFin ORDER BY t.fecha ASC")
     List<TareaEntity> findByFechaBetweenOrderByFechaAsc(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
 
+    /**
+     * Encuentra la ocurrencia persistida de una serie en una fecha concreta
+     */
+    @EntityGraph(TareaEntity.GRAFO_REFERENCIAS)
+    @Query("SELECT t FROM TareaEntity t WHERE t.serie.id = :serieId AND t.fecha = :fecha")
+    Optional<TareaEntity> findFirstBySerieIdAndFecha(@Param("serieId") Long serieId, @Param("fecha") LocalDate fecha);
+
+    /**
+     * Fechas con fila persistida de las series indicadas dentro de un rango
+     */
+    @Query("SELECT new com.codigozerocuatro.taska.infra.persistence.model.TareaSerieFecha(t.serie.id, t.fecha) " +
+            "FROM TareaEntity t WHERE t.serie.id IN :serieIds AND t.fecha >= :fechaInicio AND t.fecha <= :fechaFin")
+    List<TareaSerieFecha> findFechasPersistidas(@Param("serieIds") Collection<Long> serieIds,
+                                                @Param("fechaInicio") LocalDate fechaInicio,
+                                                @Param("fechaFin") LocalDate fechaFin);
+
 }
@@ -0,0 +1,58 @@
+package com.codigozerocuatro.taska.infra.persistence.repository;
+
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface TareaSerieJpaRepository extends JpaRepository<TareaSerieEntity, Long>, JpaSpecificationExecutor<TareaSerieEntity> {
+
+    // Tiempo de espera de bloqueo que Hibernate traduce a SKIP LOCKED
+    String SALTAR_BLOQUEADAS = "-2";
+
+    /**
+     * Series a expandir en ocurrencias virtuales, con puesto y turno en la misma consulta
+     */
+    @Override
+    @EntityGraph(attributePaths = {"puesto", "turno"})
+    List<TareaSerieEntity> findAll(Specification<TareaSerieEntity> spec);
+
+    /**
+     * Series abiertas cuya parte materializada no llega al horizonte indicado. Las filas quedan
+     * bloqueadas hasta el final de la transacción y se saltan las que ya tiene bloqueadas otra
+     * (SKIP LOCKED en PostgreSQL): varias instancias materializando a la vez se reparten las series.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SALTAR_BLOQUEADAS))
+    @Query("SELECT s FROM TareaSerieEntity s WHERE s.materializadaHasta < s.fechaFin " +
+            "AND s.materializadaHasta < :horizonte ORDER BY s.id")
+    List<TareaSerieEntity> findPendientesDeMaterializar(@Param("horizonte") LocalDate horizonte, Pageable pageable);
+
+    /**
+     * Serie bloqueada hasta el final de la transacción, para materializar una de sus ocurrencias
+     * sin competir con el materializador
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TareaSerieEntity s WHERE s.id = :id")
+    Optional<TareaSerieEntity> findBloqueadaById(@Param("id") Long id);
+
+    /**
+     * Series ordenadas por id, excluidas las de un tipo (las de tareas de una vez)
+     */
+    @EntityGraph(attributePaths = {"puesto", "turno"})
+    List<TareaSerieEntity> findByTipoRecurrenciaNotOrderByIdAsc(TipoRecurrencia tipoRecurrencia);
+
+}
@@ -3,9 +3,14 @@ package com.codigozerocuatro.taska.infra.persistence.repository;
 import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
+/**
+ * Las claves de la caché USER se invalidan por usuario en UsuarioCache: si cambian aquí, cambian allí.
+ */
 public interface UserJpaRepository extends JpaRepository<UserEntity, Long> {
 
     @Cacheable(value = "USER", key = "#username", cacheManager = "cacheManagerUser")
@@ -14,4 +19,7 @@ public interface UserJpaRepository extends JpaRepository<UserEntity, Long> {
     @Cacheable(value = "USER", key = "#username + '_' + #activo", cacheManager = "cacheManagerUser")
     Optional<UserEntity> findByUsernameAndActivo(String username, boolean activo);
 
+    @Query("SELECT u.versionSeguridad FROM UserEntity u WHERE u.username = :username")
+    Optional<Long> findVersionSeguridadByUsername(@Param("username") String username);
+
 }
@@ -0,0 +1,44 @@
+package com.codigozerocuatro.taska.infra.persistence.specification;
+
+import com.codigozerocuatro.taska.domain.model.DiaSemana;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public final class TareaSerieSpecification {
+
+    public static Specification<TareaSerieEntity> puestoEquals(Long puestoId) {
+        return (root, query, cb)
+                -> puestoId == null ? null : cb.equal(root.get("puesto").get("id"), puestoId);
+    }
+
+    public static Specification<TareaSerieEntity> turnoEquals(Long turnoId) {
+        return (root, query, cb)
+                -> turnoId == null ? null : cb.equal(root.get("turno").get("id"), turnoId);
+    }
+
+    public static Specification<TareaSerieEntity> diaSemanaEquals(DiaSemana diaSemana) {
+        return (root, query, cb)
+                -> diaSemana == null ? null : cb.equal(root.get("diaSemana"), diaSemana);
+    }
+
+    public static Specification<TareaSerieEntity> tipoRecurrenciaEquals(TipoRecurrencia tipoRecurrencia) {
+        return (root, query, cb)
+                -> tipoRecurrencia == null ? null : cb.equal(root.get("tipoRecurrencia"), tipoRecurrencia);
+    }
+
+    /**
+     * Series con ocurrencias sin materializar que caen dentro del rango. Un extremo nulo
+     * deja el rango abierto por ese lado.
+     */
+    public static Specification<TareaSerieEntity> conOcurrenciasVirtualesEntre(LocalDate desde, LocalDate hasta) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThan(root.get("fechaFin"), root.get("materializadaHasta")),
+                desde == null ? cb.conjunction() : cb.greaterThanOrEqualTo(root.get("fechaFin"), desde),
+                hasta == null ? cb.conjunction() : cb.lessThan(root.get("materializadaHasta"), hasta)
+        );
+    }
+
+}
@@ -1,8 +1,13 @@
 package com.codigozerocuatro.taska.infra.persistence.specification;
 
 import com.codigozerocuatro.taska.domain.model.DiaSemana;
+import com.codigozerocuatro.taska.domain.model.TareaCursor;
 import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
 import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
@@ -14,29 +19,40 @@ public final class TareaSpecification {
                 -> id == null ? null : cb.equal(root.get("id"), id);
     }
 
+    /**
+     * Compara la clave ajena de la tarea, sin join con puesto, para que el filtro use el índice de tarea
+     */
     public static Specification<TareaEntity> puestoEquals(Long puestoId) {
         return (root, query, cb)
-                -> puestoId == null ? null : cb.equal(root.join("puesto").get("id"), puestoId);
+                -> puestoId == null ? null : cb.equal(root.get("puesto").get("id"), puestoId);
     }
 
     public static Specification<TareaEntity> turnoEquals(Long turnoId) {
         return (root, query, cb)
-                -> turnoId == null ? null : cb.equal(root.join("turno").get("id"), turnoId);
+                -> turnoId == null ? null : cb.equal(root.get("turno").get("id"), turnoId);
     }
 
     public static Specification<TareaEntity> diaSemanaEquals(DiaSemana diaSemana) {
         return (root, query, cb)
-                -> diaSemana == null ? null : cb.equal(root.get("diaSemana"), diaSemana.name());
+                -> diaSemana == null ? null : cb.equal(joinSerie(root).get("diaSemana"), diaSemana);
     }
 
     public static Specification<TareaEntity> tipoRecurrenciaEquals(TipoRecurrencia tipoRecurrencia) {
         return (root, query, cb)
-                -> tipoRecurrencia == null ? null : cb.equal(root.get("tipoRecurrencia"), tipoRecurrencia.name());
+                -> tipoRecurrencia == null ? null : cb.equal(joinSerie(root).get("tipoRecurrencia"), tipoRecurrencia);
     }
 
+    /**
+     * El valor va como literal y no como parámetro para que PostgreSQL pueda usar el índice
+     * parcial de tareas pendientes también con planes genéricos
+     */
     public static Specification<TareaEntity> isCompletadaEquals(Boolean completada) {
-        return (root, query, cb)
-                -> completada == null ? null : cb.equal(root.get("completada"), completada);
+        return (root, query, cb) -> {
+            if (completada == null) {
+                return null;
+            }
+            return completada ? cb.isTrue(root.get("completada")) : cb.isFalse(root.get("completada"));
+        };
     }
 
     public static Specification<TareaEntity> fechaIs(LocalDate fecha) {
@@ -60,13 +76,71 @@ public final class TareaSpecification {
         };
     }
 
+    /**
+     * Tareas persistidas posteriores al cursor en el orden (fecha, id). Las persistidas van
+     * antes que las ocurrencias virtuales de la misma fecha.
+     */
+    public static Specification<TareaEntity> posteriorA(TareaCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            if (cursor.esVirtual()) {
+                return cb.greaterThan(root.get("fecha"), cursor.fecha());
+            }
+
+            // La condición redundante sobre fecha permite recorrer el índice por rango
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get("fecha"), cursor.fecha()),
+                    cb.or(
+                            cb.greaterThan(root.get("fecha"), cursor.fecha()),
+                            cb.greaterThan(root.get("id"), cursor.id())
+                    )
+            );
+        };
+    }
+
+    /**
+     * Carga puesto, turno y serie en la misma consulta que las tareas. Debe ir antes que
+     * los filtros sobre la serie para que reutilicen el join.
+     */
+    public static Specification<TareaEntity> conReferencias() {
+        return (root, query, cb) -> {
+            // Las consultas de conteo no admiten fetch
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch("puesto", JoinType.LEFT);
+                root.fetch("turno", JoinType.LEFT);
+                root.fetch("serie");
+            }
+            return cb.conjunction();
+        };
+    }
+
     public static Specification<TareaEntity> orderByFechaAsc() {
         return (root, query, cb) -> {
             if (query != null) {
-                query.orderBy(cb.asc(root.get("fecha")));
+                // id como desempate para que el orden sea estable entre páginas
+                query.orderBy(cb.asc(root.get("fecha")), cb.asc(root.get("id")));
             }
             return cb.conjunction();
         };
     }
 
+    /**
+     * Reutiliza el join con la serie si otro filtro o el fetch de conReferencias ya lo ha creado
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<TareaEntity, TareaSerieEntity> joinSerie(Root<TareaEntity> root) {
+        return root.getJoins().stream()
+                .filter(join -> "serie".equals(join.getAttribute().getName()))
+                .map(join -> (Join<TareaEntity, TareaSerieEntity>) join)
+                .findFirst()
+                .or(() -> root.getFetches().stream()
+                        .filter(fetch -> "serie".equals(fetch.getAttribute().getName()))
+                        .map(fetch -> (Join<TareaEntity, TareaSerieEntity>) fetch)
+                        .findFirst())
+                .orElseGet(() -> root.join("serie"));
+    }
+
 }
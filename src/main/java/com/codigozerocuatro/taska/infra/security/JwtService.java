@@ -1,30 +1,79 @@
 package com.codigozerocuatro.taska.infra.security;
 
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
 import com.codigozerocuatro.taska.domain.model.User;
 import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 @Slf4j
 @Component
 @Configuration
 public class JwtService {
 
+    private static final String TIPO_REFRESH = "refresh";
+
+    // Lo que el filtro necesita para construir el usuario autenticado sin consultarlo
+    private static final String CLAIM_ROL = "rol";
+    private static final String CLAIM_PUESTO = "puesto";
+    private static final String CLAIM_VERSION = "sv";
+
     private final AppProperties appProperties;
     private final SecretKey key;
 
+    // El parser es inmutable: se construye una vez y se comparte entre peticiones
+    private final JwtParser parser;
+
+    /**
+     * Claims de tokens ya verificados, por resumen SHA-256 del token. Cada entrada caduca cuando
+     * caduca su token, así que un acierto equivale a verificar la firma y la expiración.
+     * Null si app.jwt.cache-size es 0.
+     */
+    private final Cache<String, Claims> verificados;
+
+    @Autowired
     public JwtService(@NotNull AppProperties appProperties) {
+        this(appProperties, UnaryOperator.identity());
+    }
+
+    /**
+     * @param decorador envuelve el parser; los tests lo usan para contar las verificaciones de firma
+     */
+    JwtService(AppProperties appProperties, UnaryOperator<JwtParser> decorador) {
         this.appProperties = appProperties;
         this.key = Keys.hmacShaKeyFor(appProperties.jwt().secret().getBytes());
+        this.parser = decorador.apply(Jwts.parser()
+                .verifyWith(key)
+                .build());
+        this.verificados = appProperties.jwt().cacheSize() > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(appProperties.jwt().cacheSize())
+                        .expireAfter(Expiry.creating((String resumen, Claims claims) -> vigencia(claims)))
+                        .build()
+                : null;
     }
 
     public String generateToken(Authentication authentication) {
@@ -36,6 +85,9 @@ public class JwtService {
                 .subject(user.getUsername())
                 .issuedAt(now)
                 .expiration(expiryDate)
+                .claim(CLAIM_ROL, user.getUser().getRol().name())
+                .claim(CLAIM_PUESTO, user.getUser().getPuesto().name())
+                .claim(CLAIM_VERSION, user.getUser().getVersionSeguridad())
                 .signWith(key)
                 .compact();
     }
@@ -49,23 +101,46 @@ public class JwtService {
                 .subject(user.getUsername())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .claim("type", "refresh")
+                .claim("type", TIPO_REFRESH)
+                .claim(CLAIM_VERSION, user.getUser().getVersionSeguridad())
                 .signWith(key)
                 .compact();
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = parseClaims(token);
-        return claims != null ? claims.getSubject() : null;
+        return verify(token)
+                .map(Claims::getSubject)
+                .orElse(null);
     }
 
     public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    public boolean isNotRefreshToken(String token) {
+        return verify(token)
+                .map(JwtService::isAccessToken)
+                .orElse(true);
+    }
+
+    /**
+     * Verifica firma y expiración una sola vez y devuelve los claims si el token es de acceso.
+     * Es lo que necesita cada petición autenticada.
+     */
+    public Optional<Claims> verifyAccessToken(String token) {
+        return verify(token).filter(JwtService::isAccessToken);
+    }
+
+    /**
+     * Claims del token si es válido. Los tokens inválidos no se recuerdan: se vuelven a
+     * comprobar (y a registrar) cada vez.
+     */
+    public Optional<Claims> verify(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = verificados != null
+                    ? verificados.get(resumen(token), resumen -> parser.parseSignedClaims(token).getPayload())
+                    : parser.parseSignedClaims(token).getPayload();
+            return Optional.of(claims);
         } catch (SignatureException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -76,33 +151,55 @@ public class JwtService {
             log.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
-    public boolean isNotRefreshToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return !"refresh".equals(claims.get("type"));
-        } catch (Exception e) {
-            return true;
-        }
+    // Un token sin expiración no se recuerda
+    private static Duration vigencia(Claims claims) {
+        return claims.getExpiration() != null
+                ? Duration.between(Instant.now(), claims.getExpiration().toInstant())
+                : Duration.ZERO;
+    }
+
+    /**
+     * Versión de seguridad con la que se emitió el token; vacía en tokens anteriores a ella
+     */
+    public static Optional<Long> getVersionSeguridad(Claims claims) {
+        return Optional.ofNullable(claims.get(CLAIM_VERSION, Long.class));
     }
 
-    private Claims parseClaims(String token) {
+    /**
+     * Usuario autenticado a partir de los claims de un token de acceso, sin contraseña ni datos
+     * de perfil: quien los necesite debe cargar el usuario.
+     */
+    public static User getPrincipal(Claims claims) {
+        UserEntity user = new UserEntity();
+        user.setUsername(claims.getSubject());
+        user.setRol(RolEnum.valueOf(claims.get(CLAIM_ROL, String.class)));
+        user.setPuesto(PuestoEnum.valueOf(claims.get(CLAIM_PUESTO, String.class)));
+        getVersionSeguridad(claims).ifPresent(user::setVersionSeguridad);
+        return new User(user);
+    }
+
+    private static boolean isAccessToken(Claims claims) {
+        return !TIPO_REFRESH.equals(claims.get("type"));
+    }
+
+    /**
+     * La caché no guarda los tokens, solo su resumen: ocupa lo mismo sea cual sea el token
+     */
+    private static String resumen(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Token vacío");
+        }
         try {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (Exception ex) {
-            log.error("Error parsing claims from token: {}", ex.getMessage());
-            return null;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
@@ -0,0 +1,57 @@
+-- Tabla tarea_serie: regla de recurrencia de una serie de tareas
+CREATE TABLE public.tarea_serie
+(
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    descripcion        VARCHAR(3000) NOT NULL,
+    tipo_recurrencia   VARCHAR(255)  NOT NULL,
+    dia_semana         VARCHAR(255),
+    dia_mes            INTEGER,
+    fecha_inicio       DATE          NOT NULL,
+    fecha_fin          DATE          NOT NULL,
+    materializada_hasta DATE          NOT NULL,
+    puesto_id          BIGINT,
+    turno_id           BIGINT,
+    id_tarea_origen    BIGINT,
+    CONSTRAINT fk_tarea_serie_puesto FOREIGN KEY (puesto_id) REFERENCES public.puesto (id),
+    CONSTRAINT fk_tarea_serie_turno FOREIGN KEY (turno_id) REFERENCES public.turno (id)
+);
+
+-- Fechas eliminadas de la parte virtual de una serie
+CREATE TABLE public.tarea_serie_excepcion
+(
+    serie_id BIGINT NOT NULL,
+    fecha    DATE   NOT NULL,
+    PRIMARY KEY (serie_id, fecha),
+    CONSTRAINT fk_tarea_serie_excepcion_serie FOREIGN KEY (serie_id) REFERENCES public.tarea_serie (id)
+);
+
+ALTER TABLE public.tarea ADD COLUMN serie_id BIGINT;
+
+ALTER TABLE public.tarea
+ADD CONSTRAINT fk_tarea_serie
+FOREIGN KEY (serie_id) REFERENCES public.tarea_serie (id);
+
+CREATE INDEX idx_tarea_serie_fecha ON public.tarea (serie_id, fecha);
+
+-- Crear una serie por cada tarea padre recurrente existente, totalmente materializada
+INSERT INTO public.tarea_serie (descripcion, tipo_recurrencia, dia_semana, dia_mes, fecha_inicio, fecha_fin,
+                                materializada_hasta, puesto_id, turno_id, id_tarea_origen)
+SELECT p.descripcion,
+       p.tipo_recurrencia,
+       p.dia_semana,
+       p.dia_mes,
+       p.fecha,
+       COALESCE((SELECT MAX(h.fecha) FROM public.tarea h WHERE h.id_tarea_padre = p.id), p.fecha),
+       COALESCE((SELECT MAX(h.fecha) FROM public.tarea h WHERE h.id_tarea_padre = p.id), p.fecha),
+       p.puesto_id,
+       p.turno_id,
+       p.id
+FROM public.tarea p
+WHERE p.id_tarea_padre IS NULL
+  AND p.tipo_recurrencia <> 'UNA_VEZ';
+
+UPDATE public.tarea t
+SET serie_id = (SELECT s.id FROM public.tarea_serie s WHERE s.id_tarea_origen = COALESCE(t.id_tarea_padre, t.id))
+WHERE t.tipo_recurrencia <> 'UNA_VEZ';
+
+ALTER TABLE public.tarea_serie DROP COLUMN id_tarea_origen;
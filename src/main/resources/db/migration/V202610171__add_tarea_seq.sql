@@ -0,0 +1,3 @@
+-- Secuencia para los ids de tarea. Hibernate reserva bloques de 50 ids (optimizador pooled)
+-- y puede agrupar los INSERT de una serie en lotes JDBC
+CREATE SEQUENCE public.tarea_seq START WITH 1 INCREMENT BY 50;
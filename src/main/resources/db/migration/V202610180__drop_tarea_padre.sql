@@ -0,0 +1,7 @@
+-- La pertenencia a una serie se guarda en serie_id, que no cambia al eliminar ocurrencias.
+-- id_tarea_padre obligaba a reasignar todas las hijas al eliminar la primera tarea de la serie
+ALTER TABLE public.tarea DROP CONSTRAINT fk_tarea_padre;
+
+DROP INDEX public.idx_tarea_padre;
+
+ALTER TABLE public.tarea DROP COLUMN id_tarea_padre;
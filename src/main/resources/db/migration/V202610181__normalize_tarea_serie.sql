@@ -0,0 +1,32 @@
+-- Descripción y recurrencia se guardan una sola vez en tarea_serie. Cada tarea pertenece a una serie;
+-- las tareas de una vez tienen una serie con una única ocurrencia.
+-- puesto_id y turno_id se mantienen en tarea porque son los filtros habituales de búsqueda
+ALTER TABLE public.tarea_serie ADD COLUMN id_tarea_origen BIGINT;
+
+INSERT INTO public.tarea_serie (descripcion, tipo_recurrencia, dia_semana, dia_mes, fecha_inicio, fecha_fin,
+                                materializada_hasta, puesto_id, turno_id, id_tarea_origen)
+SELECT t.descripcion,
+       t.tipo_recurrencia,
+       t.dia_semana,
+       t.dia_mes,
+       t.fecha,
+       t.fecha,
+       t.fecha,
+       t.puesto_id,
+       t.turno_id,
+       t.id
+FROM public.tarea t
+WHERE t.serie_id IS NULL;
+
+UPDATE public.tarea t
+SET serie_id = (SELECT s.id FROM public.tarea_serie s WHERE s.id_tarea_origen = t.id)
+WHERE t.serie_id IS NULL;
+
+ALTER TABLE public.tarea_serie DROP COLUMN id_tarea_origen;
+
+ALTER TABLE public.tarea ALTER COLUMN serie_id SET NOT NULL;
+
+ALTER TABLE public.tarea DROP COLUMN descripcion;
+ALTER TABLE public.tarea DROP COLUMN tipo_recurrencia;
+ALTER TABLE public.tarea DROP COLUMN dia_semana;
+ALTER TABLE public.tarea DROP COLUMN dia_mes;
@@ -0,0 +1,2 @@
+-- Paginación por cursor sobre (fecha, id): cada página recorre el índice desde la posición del cursor
+CREATE INDEX idx_tarea_fecha_id ON public.tarea (fecha, id);
@@ -0,0 +1,4 @@
+-- Índices para los filtros de búsqueda de tareas. Todos terminan en (fecha, id) para que la
+-- búsqueda por rango de fechas y la paginación por cursor recorran el índice ya ordenado
+CREATE INDEX idx_tarea_puesto_fecha_id ON public.tarea (puesto_id, fecha, id);
+CREATE INDEX idx_tarea_turno_fecha_id ON public.tarea (turno_id, fecha, id);
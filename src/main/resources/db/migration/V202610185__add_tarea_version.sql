@@ -0,0 +1,2 @@
+-- Versión para el bloqueo optimista de las tareas: la incrementan Hibernate y el cambio de completada
+ALTER TABLE public.tarea ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,18 @@
+-- Última transacción que insertó o modificó cada tarea, para la sincronización incremental.
+-- En PostgreSQL la asigna un trigger; las filas existentes empiezan en 0
+ALTER TABLE public.tarea ADD COLUMN cambio BIGINT NOT NULL DEFAULT 0;
+
+-- Tareas eliminadas, para que los clientes sepan qué borrar al sincronizar
+CREATE TABLE public.tarea_eliminada
+(
+    tarea_id  BIGINT PRIMARY KEY,
+    puesto_id BIGINT,
+    fecha     DATE   NOT NULL,
+    cambio    BIGINT NOT NULL
+);
+
+-- Cambios posteriores a un cursor (cambio, id), de todos los puestos o de uno
+CREATE INDEX idx_tarea_cambio_id ON public.tarea (cambio, id);
+CREATE INDEX idx_tarea_puesto_cambio_id ON public.tarea (puesto_id, cambio, id);
+CREATE INDEX idx_tarea_eliminada_cambio_id ON public.tarea_eliminada (cambio, tarea_id);
+CREATE INDEX idx_tarea_eliminada_puesto_cambio_id ON public.tarea_eliminada (puesto_id, cambio, tarea_id);
@@ -0,0 +1,3 @@
+-- Se incrementa al desactivar al usuario o cambiar su contraseña: los tokens emitidos con una
+-- versión anterior dejan de aceptarse
+ALTER TABLE public.usuario ADD COLUMN version_seguridad BIGINT NOT NULL DEFAULT 0;
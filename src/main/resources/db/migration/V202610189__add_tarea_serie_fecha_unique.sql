@@ -0,0 +1,12 @@
+-- Una sola fila por ocurrencia de cada serie: dos materializaciones simultáneas no pueden duplicar
+-- una fecha. Antes se eliminan los duplicados, conservando la fila completada o, si no, la más antigua
+DELETE FROM public.tarea t
+WHERE t.serie_id IS NOT NULL
+  AND EXISTS (SELECT 1 FROM public.tarea o
+              WHERE o.serie_id = t.serie_id
+                AND o.fecha = t.fecha
+                AND o.id <> t.id
+                AND (o.completada AND NOT t.completada OR o.completada = t.completada AND o.id < t.id));
+
+DROP INDEX public.idx_tarea_serie_fecha;
+ALTER TABLE public.tarea ADD CONSTRAINT uk_tarea_serie_fecha UNIQUE (serie_id, fecha);
@@ -0,0 +1,194 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.CacheKey;
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.TareaResponse;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La caché de búsquedas solo se usa fuera de transacción o en una de solo lectura, así que este
+ * test confirma sus escrituras y elimina las tareas al terminar.
+ */
+public class TareaBusquedaCacheIntegrationTest extends TareaIntegrationTest {
+
+    @Autowired
+    private TareaConsultaService consultaService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDate fecha = LocalDate.now().plusDays(60);
+
+    private Long cocinero;
+    private Long camarero;
+    private TareaEntity tareaCocinero;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheKey.TAREAS_BUSQUEDA).clear();
+
+        cocinero = puesto.getId();
+        camarero = puesto(PuestoEnum.CAMARERO).getId();
+
+        tareaCocinero = crear(cocinero, fecha);
+        crear(cocinero, fecha.plusDays(10));
+        crear(camarero, fecha);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAll();
+    }
+
+    @Test
+    void testBuscar_SegundaLecturaDesdeCache() {
+        double aciertos = aciertos();
+
+        Pagina<TareaResponse> primera = buscar(cocinero, fecha, fecha);
+        Pagina<TareaResponse> segunda = buscar(cocinero, fecha, fecha);
+
+        assertSame(primera, segunda);
+        assertEquals(1, segunda.contenido().size());
+        assertEquals(PuestoEnum.COCINERO, segunda.contenido().getFirst().puesto().puesto());
+        assertEquals(aciertos + 1, aciertos());
+    }
+
+    @Test
+    void testBuscar_UsuarioDeUnPuestoAciertaSinConsultas() {
+        autenticar(Usuarios.usuario("camarero", RolEnum.USER, PuestoEnum.CAMARERO));
+        Pagina<TareaResponse> primera = buscar(null, fecha, fecha);
+
+        // Aunque pida otro puesto, la búsqueda es la de su puesto
+        JdbcRoundTripCounter.reset();
+        Pagina<TareaResponse> segunda = buscar(cocinero, fecha, fecha);
+
+        assertEquals(0, JdbcRoundTripCounter.roundTrips());
+        assertSame(primera, segunda);
+        assertEquals(camarero, segunda.contenido().getFirst().puesto().id());
+    }
+
+    @Test
+    void testBuscar_FiltrosEquivalentesCompartenEntrada() {
+        Pagina<TareaResponse> porFecha = consultaService.buscar(
+                new FiltroTareaRequest(null, cocinero, null, null, null, fecha, null, null), null, null);
+        Pagina<TareaResponse> porRango = consultaService.buscar(
+                new FiltroTareaRequest(null, cocinero, "", null, null, null, fecha, null), null, null);
+
+        assertSame(porFecha, porRango);
+    }
+
+    @Test
+    void testCompletar_InvalidaSoloElPuestoYLaFecha() {
+        Pagina<TareaResponse> mismoPuestoYFecha = buscar(cocinero, fecha, fecha);
+        Pagina<TareaResponse> todosLosPuestos = buscar(null, fecha, fecha.plusDays(10));
+        Pagina<TareaResponse> otraFecha = buscar(cocinero, fecha.plusDays(10), fecha.plusDays(10));
+        Pagina<TareaResponse> otroPuesto = buscar(camarero, fecha, fecha);
+        double invalidaciones = invalidaciones();
+
+        tareaService.completar(tareaCocinero.getId());
+
+        Pagina<TareaResponse> recargada = buscar(cocinero, fecha, fecha);
+        assertNotSame(mismoPuestoYFecha, recargada);
+        assertTrue(recargada.contenido().getFirst().completada());
+        assertNotSame(todosLosPuestos, buscar(null, fecha, fecha.plusDays(10)));
+        assertSame(otraFecha, buscar(cocinero, fecha.plusDays(10), fecha.plusDays(10)));
+        assertSame(otroPuesto, buscar(camarero, fecha, fecha));
+        assertEquals(invalidaciones + 2, invalidaciones());
+    }
+
+    @Test
+    void testCrear_InvalidaLasBusquedasQueIncluyenLaTarea() {
+        Pagina<TareaResponse> otroPuesto = buscar(cocinero, fecha.plusDays(5), fecha.plusDays(5));
+        Pagina<TareaResponse> anterior = buscar(camarero, fecha, fecha);
+        Pagina<TareaResponse> rango = buscar(camarero, fecha, fecha.plusDays(10));
+
+        crear(camarero, fecha.plusDays(5));
+
+        assertSame(otroPuesto, buscar(cocinero, fecha.plusDays(5), fecha.plusDays(5)));
+        assertSame(anterior, buscar(camarero, fecha, fecha));
+        assertEquals(rango.contenido().size() + 1, buscar(camarero, fecha, fecha.plusDays(10)).contenido().size());
+    }
+
+    @Test
+    void testEliminarSoloTarea_InvalidaLasBusquedasQueLaIncluyen() {
+        Pagina<TareaResponse> antes = buscar(cocinero, fecha, fecha.plusDays(10));
+        Pagina<TareaResponse> otroPuesto = buscar(camarero, fecha, fecha);
+
+        tareaService.eliminarSoloTarea(tareaCocinero.getId());
+
+        assertEquals(antes.contenido().size() - 1, buscar(cocinero, fecha, fecha.plusDays(10)).contenido().size());
+        assertSame(otroPuesto, buscar(camarero, fecha, fecha));
+    }
+
+    @Test
+    void testBuscar_DentroDeTransaccionNoUsaCache() {
+        Pagina<TareaResponse> cacheada = buscar(cocinero, fecha, fecha);
+
+        Pagina<TareaResponse> enTransaccion = new TransactionTemplate(transactionManager)
+                .execute(status -> buscar(cocinero, fecha, fecha));
+
+        assertNotSame(cacheada, enTransaccion);
+        assertSame(cacheada, buscar(cocinero, fecha, fecha));
+    }
+
+    @Test
+    void testBuscar_EnTransaccionDeSoloLecturaUsaCache() {
+        Pagina<TareaResponse> cacheada = buscar(cocinero, fecha, fecha);
+
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        Pagina<TareaResponse> enTransaccion = soloLectura.execute(status -> buscar(cocinero, fecha, fecha));
+
+        assertSame(cacheada, enTransaccion);
+    }
+
+    private TareaEntity crear(Long puestoId, LocalDate fechaTarea) {
+        return tareaService.crear(new CrearTareaRequest("Tarea " + puestoId + " " + fechaTarea, puestoId, turno.getId(),
+                TipoRecurrencia.UNA_VEZ.name(), null, null, fechaTarea, 1, null));
+    }
+
+    private Pagina<TareaResponse> buscar(Long puestoId, LocalDate desde, LocalDate hasta) {
+        return consultaService.buscar(new FiltroTareaRequest(null, puestoId, null, null, null, null, desde, hasta), null, null);
+    }
+
+    private double aciertos() {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", CacheKey.TAREAS_BUSQUEDA, "result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    private double invalidaciones() {
+        return meterRegistry.get("cache.invalidations")
+                .tags("cache", CacheKey.TAREAS_BUSQUEDA)
+                .counter()
+                .count();
+    }
+}
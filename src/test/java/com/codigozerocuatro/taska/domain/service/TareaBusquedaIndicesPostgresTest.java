@@ -0,0 +1,198 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.JdbcStatementRecorder;
+import com.codigozerocuatro.taska.support.PostgresIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ejecuta EXPLAIN sobre el SQL que genera la búsqueda para cada combinación de filtros y
+ * comprueba que ninguna recorre la tabla tarea entera. Los datos se cargan una vez para toda
+ * la clase y se eliminan al terminar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(JdbcStatementRecorder.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TareaBusquedaIndicesPostgresTest extends PostgresIntegrationTest {
+
+    private static final int TAREAS = 100_000;
+    private static final int TAREAS_POR_DIA = 140;
+    private static final int SERIES = 400;
+    private static final long PRIMER_ID = 1_000_000;
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FECHA = INICIO.plusDays(180);
+
+    private static final Pattern SEQ_SCAN_TAREA = Pattern.compile("Seq Scan on tarea\\s");
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    private TurnoJpaRepository turnoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private long primeraSerie;
+
+    @BeforeAll
+    void cargarDatos() {
+        // Series ya materializadas para que la búsqueda no expanda ocurrencias virtuales
+        jdbcTemplate.update("""
+                INSERT INTO tarea_serie (descripcion, tipo_recurrencia, dia_semana, fecha_inicio, fecha_fin,
+                                         materializada_hasta, puesto_id, turno_id)
+                SELECT 'Serie ' || g,
+                       (ARRAY['DIARIA', 'SEMANAL', 'QUINCENAL', 'MENSUAL'])[1 + g % 4],
+                       CASE WHEN g % 4 IN (1, 2) THEN (ARRAY['LUNES', 'MARTES', 'MIERCOLES', 'JUEVES', 'VIERNES'])[1 + g % 5] END,
+                       ?, ?, ?,
+                       (SELECT MIN(id) FROM puesto), (SELECT MIN(id) FROM turno)
+                FROM generate_series(0, ? - 1) g
+                """, INICIO, INICIO.plusYears(2), INICIO.plusYears(2), SERIES);
+        primeraSerie = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tarea_serie", Long.class) - SERIES + 1;
+
+        // Tareas en orden de fecha repartidas entre puestos y turnos; una de cada diecinueve pendiente
+        jdbcTemplate.update("""
+                WITH puestos AS (SELECT array_agg(id ORDER BY id) ids FROM puesto),
+                     turnos AS (SELECT array_agg(id ORDER BY id) ids FROM turno)
+                INSERT INTO tarea (id, completada, fecha, puesto_id, turno_id, serie_id)
+                SELECT ? + g,
+                       g % 19 <> 0,
+                       ?::date + g / ?,
+                       puestos.ids[1 + g % cardinality(puestos.ids)],
+                       turnos.ids[1 + (g / 7) % cardinality(turnos.ids)],
+                       ? + g % ?
+                FROM generate_series(0, ? - 1) g, puestos, turnos
+                """, PRIMER_ID, INICIO, TAREAS_POR_DIA, primeraSerie, SERIES, TAREAS);
+
+        jdbcTemplate.execute("ANALYZE tarea");
+        jdbcTemplate.execute("ANALYZE tarea_serie");
+    }
+
+    @AfterAll
+    void eliminarDatos() {
+        jdbcTemplate.update("DELETE FROM tarea WHERE id >= ?", PRIMER_ID);
+        jdbcTemplate.update("DELETE FROM tarea_serie WHERE id >= ?", primeraSerie);
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(Usuarios.admin());
+    }
+
+    static Stream<Arguments> filtros() {
+        return Stream.of(
+                Arguments.of("sin filtros", null, null, null, null, null, null, null, null, null),
+                Arguments.of("fecha", null, null, null, null, null, null, FECHA, null, null),
+                Arguments.of("rango", null, null, null, null, null, null, null, FECHA, FECHA.plusDays(30)),
+                Arguments.of("puesto", "idx_tarea_puesto_fecha_id", PuestoEnum.COCINERO, null, null, null, null, null, null, null),
+                Arguments.of("puesto y fecha", "idx_tarea_puesto_fecha_id", PuestoEnum.COCINERO, null, null, null, null, FECHA, null, null),
+                Arguments.of("puesto y rango", null, PuestoEnum.COCINERO, null, null, null, null, null, FECHA, FECHA.plusDays(30)),
+                Arguments.of("turno", "idx_tarea_turno_fecha_id", null, TurnoEnum.TARDE, null, null, null, null, null, null),
+                Arguments.of("turno y fecha", "idx_tarea_turno_fecha_id", null, TurnoEnum.TARDE, null, null, null, FECHA, null, null),
+                Arguments.of("turno y rango", null, null, TurnoEnum.TARDE, null, null, null, null, FECHA, FECHA.plusDays(30)),
+                Arguments.of("puesto, turno y rango", null, PuestoEnum.CAMARERO, TurnoEnum.MANANA, null, null, null, null, FECHA, FECHA.plusDays(30)),
+                Arguments.of("pendientes", "idx_tarea_pendiente_fecha_id", null, null, null, null, false, null, null, null),
+                Arguments.of("pendientes del puesto", "idx_tarea_pendiente_fecha_id", PuestoEnum.PINCHE, null, null, null, false, null, null, null),
+                Arguments.of("pendientes del puesto en rango", "idx_tarea_pendiente_fecha_id", PuestoEnum.PINCHE, null, null, null, false, null, FECHA, FECHA.plusDays(30)),
+                Arguments.of("completadas en fecha", null, null, null, null, null, true, FECHA, null, null),
+                Arguments.of("recurrencia y fecha", null, null, null, "SEMANAL", null, null, FECHA, null, null),
+                Arguments.of("día de la semana y rango", null, null, null, null, "LUNES", null, null, FECHA, FECHA.plusDays(30))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filtros")
+    void testBuscar_NoRecorreLaTablaEntera(String nombre, String indiceEsperado, PuestoEnum puesto, TurnoEnum turno,
+                                           String tipoRecurrencia, String diaSemana, Boolean completada,
+                                           LocalDate fecha, LocalDate fechaInicio, LocalDate fechaFin) {
+        FiltroTareaRequest filtro = new FiltroTareaRequest(
+                turno == null ? null : turnoId(turno),
+                puesto == null ? null : puestoRepository.findByPuesto(puesto).orElseThrow().getId(),
+                tipoRecurrencia, diaSemana, completada, fecha, fechaInicio, fechaFin);
+
+        JdbcStatementRecorder.reset();
+        // Primera página y la siguiente, que añade la condición del cursor
+        Pagina<TareaEntity> pagina = tareaService.buscar(filtro, null, null);
+        assertFalse(pagina.contenido().isEmpty());
+        if (pagina.siguiente() != null) {
+            tareaService.buscar(filtro, pagina.siguiente(), null);
+        }
+
+        List<JdbcStatementRecorder.Sentencia> consultas = JdbcStatementRecorder.sentencias().stream()
+                .filter(sentencia -> sentencia.sql().contains(" from tarea "))
+                .toList();
+        assertFalse(consultas.isEmpty());
+
+        for (JdbcStatementRecorder.Sentencia consulta : consultas) {
+            String plan = explicar(consulta);
+            assertFalse(SEQ_SCAN_TAREA.matcher(plan).find(),
+                    () -> "Seq scan en '" + nombre + "'\n" + consulta.sql() + "\n" + plan);
+        }
+
+        // Combinaciones para las que el índice específico es claramente mejor que (fecha, id)
+        if (indiceEsperado != null) {
+            String plan = explicar(consultas.getFirst());
+            assertTrue(plan.contains(indiceEsperado), () -> "'" + nombre + "' no usa " + indiceEsperado + "\n" + plan);
+        }
+    }
+
+    private Long turnoId(TurnoEnum turno) {
+        return turnoRepository.findAll().stream()
+                .filter(entity -> turno == entity.getTurno())
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+    private String explicar(JdbcStatementRecorder.Sentencia consulta) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = consulta.preparar(connection, "EXPLAIN ");
+                 ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
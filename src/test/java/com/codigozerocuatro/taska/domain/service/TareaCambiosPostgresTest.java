@@ -0,0 +1,221 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.CambiosCursor;
+import com.codigozerocuatro.taska.domain.model.CambiosTareas;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.PostgresIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Los triggers de PostgreSQL asignan el cambio de cada tarea y guardan las eliminadas. El test no
+ * es transaccional: solo se devuelven cambios de transacciones terminadas. Elimina sus series al
+ * terminar; los cambios de otros tests quedan antes del cursor inicial de cada test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class TareaCambiosPostgresTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaJpaRepository tareaRepository;
+
+    @Autowired
+    private TareaSerieJpaRepository serieRepository;
+
+    @Autowired
+    private PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    private TurnoJpaRepository turnoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private final LocalDate fecha = LocalDate.now().plusDays(1);
+    private final List<Long> series = new ArrayList<>();
+
+    private Long cocinero;
+    private Long camarero;
+    private Long turno;
+    private String cursor;
+
+    @BeforeEach
+    void setUp() {
+        when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(Usuarios.admin());
+
+        cocinero = puestoRepository.findByPuesto(PuestoEnum.COCINERO).orElseThrow().getId();
+        camarero = puestoRepository.findByPuesto(PuestoEnum.CAMARERO).orElseThrow().getId();
+        turno = turnoRepository.findAll().getFirst().getId();
+
+        // Todo lo anterior al horizonte ya ha terminado: el test solo ve sus propios cambios
+        cursor = new CambiosCursor(tareaRepository.horizonteCambios() - 1, Long.MAX_VALUE).codificar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        series.stream()
+                .filter(serieRepository::existsById)
+                .forEach(tareaService::eliminarSerie);
+    }
+
+    @Test
+    void testCambios_CreacionYCompletadoFiltradosPorPuesto() {
+        TareaEntity cocina = crear("Cocina", cocinero, TipoRecurrencia.UNA_VEZ, 1);
+        TareaEntity sala = crear("Sala", camarero, TipoRecurrencia.UNA_VEZ, 1);
+        tareaService.completar(cocina.getId());
+
+        CambiosTareas todos = tareaService.cambios(null, cursor, null);
+        assertEquals(Set.of(cocina.getId(), sala.getId()), ids(todos.tareas()));
+        assertTrue(todos.eliminadas().isEmpty());
+        assertFalse(todos.hayMas());
+
+        CambiosTareas delPuesto = tareaService.cambios(cocinero, cursor, null);
+        assertEquals(List.of(cocina.getId()), delPuesto.tareas().stream().map(TareaEntity::getId).toList());
+        assertTrue(delPuesto.tareas().getFirst().isCompletada());
+        assertEquals(PuestoEnum.COCINERO, delPuesto.tareas().getFirst().getPuesto().getPuesto());
+
+        // Con el cursor devuelto no se repite nada; un cambio posterior sí aparece
+        assertTrue(tareaService.cambios(null, todos.cursor(), null).tareas().isEmpty());
+        tareaService.completar(sala.getId());
+        assertEquals(List.of(sala.getId()),
+                tareaService.cambios(null, todos.cursor(), null).tareas().stream().map(TareaEntity::getId).toList());
+    }
+
+    @Test
+    void testCambios_LasEliminacionesLleganComoMarcas() {
+        TareaEntity primera = crear("Diaria", cocinero, TipoRecurrencia.DIARIA, 5);
+        List<Long> ids = tareaRepository.findSerieRecurrente(primera.getId()).stream().map(TareaEntity::getId).toList();
+        assertEquals(5, ids.size());
+        String antes = ponerseAlDia(cursor);
+
+        tareaService.eliminarSoloTarea(ids.get(1));
+        tareaService.eliminarTareaYPosteriores(ids.get(3));
+        CambiosTareas parcial = tareaService.cambios(cocinero, antes, null);
+        assertEquals(Set.of(ids.get(1), ids.get(3), ids.get(4)), Set.copyOf(parcial.eliminadas()));
+        assertTrue(parcial.tareas().isEmpty());
+
+        tareaService.eliminarSerie(primera.getSerieId());
+        CambiosTareas cambios = tareaService.cambios(cocinero, parcial.cursor(), null);
+        assertEquals(Set.of(ids.get(0), ids.get(2)), Set.copyOf(cambios.eliminadas()));
+
+        // Las marcas también se filtran por puesto
+        assertTrue(tareaService.cambios(camarero, antes, null).eliminadas().isEmpty());
+    }
+
+    @Test
+    void testCambios_PaginasSinRepetidos() {
+        Set<Long> creadas = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            creadas.add(crear("Tarea " + i, cocinero, TipoRecurrencia.UNA_VEZ, 1).getId());
+        }
+        TareaEntity eliminada = crear("Eliminada", cocinero, TipoRecurrencia.UNA_VEZ, 1);
+        tareaService.eliminarSoloTarea(eliminada.getId());
+
+        List<Long> recibidas = new ArrayList<>();
+        List<Long> eliminadas = new ArrayList<>();
+        String siguiente = cursor;
+        int paginas = 0;
+        CambiosTareas pagina;
+        do {
+            pagina = tareaService.cambios(cocinero, siguiente, 2);
+            assertTrue(pagina.tareas().size() + pagina.eliminadas().size() <= 2);
+            pagina.tareas().forEach(tarea -> recibidas.add(tarea.getId()));
+            eliminadas.addAll(pagina.eliminadas());
+            siguiente = pagina.cursor();
+            paginas++;
+        } while (pagina.hayMas());
+
+        assertEquals(3, paginas);
+        assertEquals(creadas, Set.copyOf(recibidas));
+        assertEquals(creadas.size(), recibidas.size());
+        assertEquals(List.of(eliminada.getId()), eliminadas);
+    }
+
+    @Test
+    void testCambios_NoAdelantaAUnaTransaccionEnCurso() throws Exception {
+        TareaEntity lenta = crear("Lenta", cocinero, TipoRecurrencia.UNA_VEZ, 1);
+        TareaEntity rapida = crear("Rápida", cocinero, TipoRecurrencia.UNA_VEZ, 1);
+        String antes = ponerseAlDia(cursor);
+
+        // Una transacción modifica una tarea y no confirma hasta que otra posterior ya lo ha hecho
+        CountDownLatch modificada = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        CompletableFuture<Void> enCurso = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE tarea SET completada = true WHERE id = ?", lenta.getId());
+            modificada.countDown();
+            try {
+                assertTrue(confirmar.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(modificada.await(10, TimeUnit.SECONDS));
+        tareaService.completar(rapida.getId());
+
+        // El cambio confirmado es posterior al que sigue en curso: todavía no se entrega ninguno
+        CambiosTareas durante = tareaService.cambios(cocinero, antes, null);
+        assertTrue(durante.tareas().isEmpty());
+
+        confirmar.countDown();
+        enCurso.get(10, TimeUnit.SECONDS);
+
+        CambiosTareas despues = tareaService.cambios(cocinero, durante.cursor(), null);
+        assertEquals(Set.of(lenta.getId(), rapida.getId()), ids(despues.tareas()));
+    }
+
+    private TareaEntity crear(String descripcion, Long puesto, TipoRecurrencia tipo, int ocurrencias) {
+        TareaEntity tarea = tareaService.crear(new CrearTareaRequest(descripcion, puesto, turno, tipo.name(),
+                null, null, fecha, ocurrencias, null));
+        series.add(tarea.getSerieId());
+        return tarea;
+    }
+
+    private String ponerseAlDia(String desde) {
+        CambiosTareas cambios;
+        do {
+            cambios = tareaService.cambios(null, desde, null);
+            desde = cambios.cursor();
+        } while (cambios.hayMas());
+        return desde;
+    }
+
+    private static Set<Long> ids(List<TareaEntity> tareas) {
+        return Set.copyOf(tareas.stream().map(TareaEntity::getId).toList());
+    }
+}
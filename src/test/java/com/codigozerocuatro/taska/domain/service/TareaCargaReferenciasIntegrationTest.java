@@ -0,0 +1,107 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Las lecturas de tareas cargan puesto, turno y serie en la misma consulta, sin una
+ * consulta adicional por cada referencia distinta.
+ */
+@Transactional
+public class TareaCargaReferenciasIntegrationTest extends TareaIntegrationTest {
+
+    private static final int TAREAS_POR_DIA = 4;
+
+    private LocalDate lunes;
+    private TareaEntity tareaPadre;
+
+    @BeforeEach
+    void setUp() {
+        List<PuestoEntity> puestos = List.of(puesto, puesto(PuestoEnum.CAMARERO), puesto(PuestoEnum.PINCHE),
+                puesto(PuestoEnum.ENCARGADO));
+        List<TurnoEntity> turnos = List.of(turno, turno(TurnoEnum.MEDIO), turno(TurnoEnum.TARDE));
+
+        // Una semana de tareas sueltas repartidas entre todos los puestos y turnos, más una serie diaria desde hoy
+        lunes = LocalDate.now().plusDays(30).with(DayOfWeek.MONDAY);
+        for (int dia = 0; dia < 7; dia++) {
+            for (int i = 0; i < TAREAS_POR_DIA; i++) {
+                tareaService.crear(new CrearTareaRequest("Tarea " + dia + "-" + i, puestos.get(i).getId(),
+                        turnos.get((dia + i) % turnos.size()).getId(), TipoRecurrencia.UNA_VEZ.name(),
+                        null, null, lunes.plusDays(dia), 1, null));
+            }
+        }
+        tareaPadre = tareaService.crear(new CrearTareaRequest("Serie diaria", puestos.getFirst().getId(),
+                turnos.getFirst().getId(), TipoRecurrencia.DIARIA.name(), null, null, lunes, 7, null));
+
+        // Cada lectura parte de un contexto de persistencia vacío, como una petición nueva
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testTodas_UnaConsulta() {
+        assertEquals(1, contarConsultas(() -> tareaService.todas(), 35));
+    }
+
+    @Test
+    void testTodasPaginadas_UnaConsulta() {
+        assertEquals(1, contarConsultas(() -> tareaService.todas(null, 100).contenido(), 35));
+    }
+
+    @Test
+    void testBuscar_TareasYSeriesConVirtuales() {
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, null, lunes, lunes.plusDays(6));
+
+        // Las tareas con sus referencias y la búsqueda de series con ocurrencias virtuales.
+        // La serie diaria empieza hoy, fuera de la semana
+        assertEquals(2, contarConsultas(() -> tareaService.buscar(filtro), 7 * TAREAS_POR_DIA));
+    }
+
+    @Test
+    void testObtenerTareasPorSemana_ConsultasAcotadas() {
+        assertTrue(contarConsultas(() -> tareaService.obtenerTareasPorSemana(lunes), 7 * TAREAS_POR_DIA) <= 2);
+    }
+
+    @Test
+    void testObtenerSerieRecurrente_UnaConsulta() {
+        // La serie ya está en el contexto de persistencia al expandir sus ocurrencias virtuales
+        assertEquals(1, contarConsultas(() -> tareaService.obtenerSerieRecurrente(tareaPadre.getId()), 7));
+    }
+
+    /**
+     * Ejecuta la lectura y recorre las referencias como lo hace la serialización de la respuesta
+     *
+     * @return número de consultas ejecutadas
+     */
+    private long contarConsultas(Supplier<List<TareaEntity>> lectura, int tareasEsperadas) {
+        JdbcRoundTripCounter.reset();
+        List<TareaEntity> tareas = lectura.get();
+        tareas.forEach(tarea -> {
+            assertNotNull(tarea.getPuesto().getPuesto());
+            assertNotNull(tarea.getTurno().getTurno());
+            assertNotNull(tarea.getDescripcion());
+        });
+        long consultas = JdbcRoundTripCounter.roundTrips();
+
+        assertEquals(tareasEsperadas, tareas.size());
+        return consultas;
+    }
+}
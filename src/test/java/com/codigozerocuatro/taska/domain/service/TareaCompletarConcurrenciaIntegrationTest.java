@@ -0,0 +1,129 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.exception.AppEntityNotFoundException;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cada hilo necesita su propia transacción confirmada, así que este test no es transaccional:
+ * confirma sus datos y los elimina al terminar.
+ */
+public class TareaCompletarConcurrenciaIntegrationTest extends TareaIntegrationTest {
+
+    private static final int HILOS = 16;
+    private static final int CAMBIOS_POR_HILO = 25;
+
+    private TareaEntity tarea;
+
+    @BeforeEach
+    void setUp() {
+        tarea = tareaService.crear(new CrearTareaRequest("Tarea compartida", puesto.getId(), turno.getId(),
+                TipoRecurrencia.UNA_VEZ.name(), null, null, LocalDate.now().plusDays(1), 1, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAll();
+    }
+
+    @Test
+    void testCompletar_CambiosSimultaneosNoSePierden() throws Exception {
+        List<Boolean> estados = alternarEnParalelo(tarea.getId());
+
+        // Cada cambio parte del resultado del anterior: la mitad completan y la otra mitad desmarcan
+        int total = HILOS * CAMBIOS_POR_HILO;
+        assertEquals(total, estados.size());
+        assertEquals(total / 2, estados.stream().filter(Boolean::booleanValue).count());
+
+        TareaEntity finalizada = tareaRepository.findById(tarea.getId()).orElseThrow();
+        assertFalse(finalizada.isCompletada());
+        assertNull(finalizada.getFechaCompletada());
+        assertEquals(tarea.getVersion() + total, finalizada.getVersion());
+    }
+
+    @Test
+    void testCompletar_DevuelveLaTareaConSusReferencias() {
+        TareaEntity completada = tareaService.completar(tarea.getId());
+
+        assertTrue(completada.isCompletada());
+        assertNotNull(completada.getFechaCompletada());
+        assertEquals(tarea.getVersion() + 1, completada.getVersion());
+        assertEquals(PuestoEnum.COCINERO, completada.getPuesto().getPuesto());
+        assertEquals(TurnoEnum.MANANA, completada.getTurno().getTurno());
+        assertEquals("Tarea compartida", completada.getDescripcion());
+
+        TareaEntity desmarcada = tareaService.completar(tarea.getId());
+        assertFalse(desmarcada.isCompletada());
+        assertNull(desmarcada.getFechaCompletada());
+    }
+
+    @Test
+    void testCompletar_TareaInexistente() {
+        assertThrows(AppEntityNotFoundException.class, () -> tareaService.completar(-1L));
+    }
+
+    @Test
+    void testGuardar_CopiaObsoletaDetectaElConflicto() {
+        TareaEntity copia = tareaRepository.findById(tarea.getId()).orElseThrow();
+
+        tareaService.completar(tarea.getId());
+
+        copia.setFecha(copia.getFecha().plusDays(1));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> tareaRepository.save(copia));
+    }
+
+    /**
+     * Lanza todos los hilos a la vez contra la misma tarea
+     *
+     * @return el estado devuelto por cada cambio
+     */
+    static List<Boolean> alternarEnParalelo(TareaService tareaService, Long id) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<List<Boolean>>> hilos = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                hilos.add(executor.submit(() -> {
+                    salida.await();
+                    List<Boolean> estados = new ArrayList<>();
+                    for (int j = 0; j < CAMBIOS_POR_HILO; j++) {
+                        estados.add(tareaService.completar(id).isCompletada());
+                    }
+                    return estados;
+                }));
+            }
+            salida.countDown();
+
+            List<Boolean> estados = new ArrayList<>();
+            for (Future<List<Boolean>> hilo : hilos) {
+                estados.addAll(hilo.get());
+            }
+            return estados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Boolean> alternarEnParalelo(Long id) throws Exception {
+        return alternarEnParalelo(tareaService, id);
+    }
+}
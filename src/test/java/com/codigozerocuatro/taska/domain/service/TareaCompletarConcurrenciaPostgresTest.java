@@ -0,0 +1,88 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.PostgresIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mismo test de concurrencia que {@link TareaCompletarConcurrenciaIntegrationTest} sobre
+ * UPDATE ... RETURNING en PostgreSQL. Elimina la serie creada al terminar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class TareaCompletarConcurrenciaPostgresTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaJpaRepository tareaRepository;
+
+    @Autowired
+    private PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    private TurnoJpaRepository turnoRepository;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private TareaEntity tarea;
+
+    @BeforeEach
+    void setUp() {
+        when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(Usuarios.admin());
+
+        Long puestoId = puestoRepository.findByPuesto(PuestoEnum.COCINERO).orElseThrow().getId();
+        Long turnoId = turnoRepository.findAll().getFirst().getId();
+        tarea = tareaService.crear(new CrearTareaRequest("Tarea compartida", puestoId, turnoId,
+                TipoRecurrencia.UNA_VEZ.name(), null, null, LocalDate.now().plusDays(1), 1, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareaService.eliminarSerie(tarea.getSerieId());
+    }
+
+    @Test
+    void testCompletar_CambiosSimultaneosNoSePierden() throws Exception {
+        List<Boolean> estados = TareaCompletarConcurrenciaIntegrationTest.alternarEnParalelo(tareaService, tarea.getId());
+
+        assertEquals(estados.size() / 2, estados.stream().filter(Boolean::booleanValue).count());
+
+        TareaEntity finalizada = tareaRepository.findById(tarea.getId()).orElseThrow();
+        assertFalse(finalizada.isCompletada());
+        assertNull(finalizada.getFechaCompletada());
+        assertEquals(tarea.getVersion() + estados.size(), finalizada.getVersion());
+    }
+
+    @Test
+    void testCompletar_DevuelveLaTareaConSusReferencias() {
+        TareaEntity completada = tareaService.completar(tarea.getId());
+
+        assertTrue(completada.isCompletada());
+        assertNotNull(completada.getFechaCompletada());
+        assertEquals(PuestoEnum.COCINERO, completada.getPuesto().getPuesto());
+        assertNotNull(completada.getTurno().getTurno());
+        assertEquals("Tarea compartida", completada.getDescripcion());
+    }
+}
@@ -0,0 +1,121 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.ResultadoCompletado;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.infra.dto.CompletarTareasRequest;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+public class TareaCompletarTodasIntegrationTest extends TareaIntegrationTest {
+
+    private static final int TAREAS = 30;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        TurnoEntity tarde = turno(TurnoEnum.TARDE);
+
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        ids = IntStream.range(0, TAREAS)
+                .mapToObj(i -> tareaService.crear(new CrearTareaRequest("Cierre " + i, puesto.getId(), tarde.getId(),
+                        TipoRecurrencia.UNA_VEZ.name(), null, null, fecha, 1, null)).getId())
+                .toList();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testCompletarTodas_ResultadoPorIdEnOrden() {
+        Long completada = ids.get(0);
+        Long pendiente = ids.get(1);
+        Long aDesmarcar = ids.get(2);
+        tareaService.completar(completada);
+        tareaService.completar(aDesmarcar);
+        TareaEntity yaCompletada = tareaRepository.findById(completada).orElseThrow();
+
+        List<ResultadoCompletado> resultados = tareaService.completarTodas(new CompletarTareasRequest(List.of(
+                new CompletarTareasRequest.Cambio(pendiente, true),
+                new CompletarTareasRequest.Cambio(-1L, true),
+                new CompletarTareasRequest.Cambio(completada, true),
+                new CompletarTareasRequest.Cambio(aDesmarcar, false))));
+
+        assertEquals(List.of(pendiente, -1L, completada, aDesmarcar), resultados.stream().map(ResultadoCompletado::id).toList());
+        assertEquals(List.of(ResultadoCompletado.Estado.ACTUALIZADA, ResultadoCompletado.Estado.NO_ENCONTRADA,
+                        ResultadoCompletado.Estado.SIN_CAMBIOS, ResultadoCompletado.Estado.ACTUALIZADA),
+                resultados.stream().map(ResultadoCompletado::estado).toList());
+
+        TareaEntity marcada = tareaRepository.findById(pendiente).orElseThrow();
+        assertTrue(marcada.isCompletada());
+        assertEquals(resultados.getFirst().fechaCompletada(), marcada.getFechaCompletada());
+
+        // La que ya estaba completada conserva su fecha y su versión
+        TareaEntity sinCambios = tareaRepository.findById(completada).orElseThrow();
+        assertEquals(yaCompletada.getFechaCompletada(), sinCambios.getFechaCompletada());
+        assertEquals(yaCompletada.getVersion(), sinCambios.getVersion());
+        assertEquals(yaCompletada.getFechaCompletada(), resultados.get(2).fechaCompletada());
+
+        TareaEntity desmarcada = tareaRepository.findById(aDesmarcar).orElseThrow();
+        assertFalse(desmarcada.isCompletada());
+        assertNull(desmarcada.getFechaCompletada());
+        assertNull(resultados.get(3).fechaCompletada());
+    }
+
+    @Test
+    void testCompletarTodas_FechaCompartidaYConsultasConstantes() {
+        List<CompletarTareasRequest.Cambio> cambios = ids.stream()
+                .map(id -> new CompletarTareasRequest.Cambio(id, true))
+                .toList();
+
+        JdbcRoundTripCounter.reset();
+        List<ResultadoCompletado> resultados = tareaService.completarTodas(new CompletarTareasRequest(cambios));
+
+        // Lectura bloqueante de los estados y un único UPDATE
+        assertEquals(2, JdbcRoundTripCounter.roundTrips());
+        assertTrue(resultados.stream().allMatch(resultado -> resultado.estado() == ResultadoCompletado.Estado.ACTUALIZADA));
+
+        List<TareaEntity> tareas = tareaRepository.findAllById(ids);
+        assertEquals(TAREAS, tareas.size());
+        assertTrue(tareas.stream().allMatch(TareaEntity::isCompletada));
+        assertEquals(1, tareas.stream().map(TareaEntity::getFechaCompletada).distinct().count());
+    }
+
+    @Test
+    void testCompletarTodas_IdRepetidoValeElUltimo() {
+        Long id = ids.getFirst();
+
+        List<ResultadoCompletado> resultados = tareaService.completarTodas(new CompletarTareasRequest(List.of(
+                new CompletarTareasRequest.Cambio(id, true),
+                new CompletarTareasRequest.Cambio(id, false))));
+
+        assertEquals(1, resultados.size());
+        assertEquals(ResultadoCompletado.Estado.SIN_CAMBIOS, resultados.getFirst().estado());
+        assertFalse(tareaRepository.findById(id).orElseThrow().isCompletada());
+    }
+
+    @Test
+    void testCompletarTodas_SoloDesmarcar() {
+        Long id = ids.getFirst();
+        tareaService.completar(id);
+
+        List<ResultadoCompletado> resultados = tareaService.completarTodas(new CompletarTareasRequest(List.of(
+                new CompletarTareasRequest.Cambio(id, false))));
+
+        assertEquals(ResultadoCompletado.Estado.ACTUALIZADA, resultados.getFirst().estado());
+        assertFalse(tareaRepository.findById(id).orElseThrow().isCompletada());
+    }
+}
@@ -4,7 +4,7 @@ import com.codigozerocuatro.taska.domain.model.DiaSemana;
 import com.codigozerocuatro.taska.domain.model.TareaValida;
 import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
 import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
-import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,7 +30,7 @@ class TareaRecurrenciaGeneratorFechaMaximaTest {
     }
 
     @Test
-    void generarTareasHastaFechaMaxima_TareaSemanal() {
+    void calcularFechasHastaFechaMaxima_TareaSemanal() {
         LocalDate hoy = LocalDate.now();
         LocalDate fechaMaxima = hoy.plusWeeks(4); // 4 semanas
         
@@ -46,26 +46,24 @@ class TareaRecurrenciaGeneratorFechaMaximaTest {
                 fechaMaxima
         );
 
-        // Crear tarea padre
-        TareaEntity tareaPadre = generator.componerTareaPadre(tareaValidada, puesto, turno);
-        tareaPadre.setId(1L);
+        TareaSerieEntity serie = generator.componerSerie(tareaValidada, puesto, turno);
 
-        // Generar tareas hijas
-        List<TareaEntity> tareasHijas = generator.generarTareasHijas(tareaPadre, tareaValidada);
+        // Ocurrencias posteriores a la primera
+        List<LocalDate> fechas = ocurrenciasTrasLaPrimera(serie);
 
-        // Deberían generarse aproximadamente 3-4 tareas hijas (sin contar la padre)
-        assertTrue(tareasHijas.size() >= 3 && tareasHijas.size() <= 4);
+        // Deberían generarse aproximadamente 3-4 tareas hijas (sin contar la primera)
+        assertTrue(fechas.size() >= 3 && fechas.size() <= 4);
         
         // Verificar que todas las fechas están dentro del rango
-        for (TareaEntity tarea : tareasHijas) {
-            assertTrue(tarea.getFecha().isAfter(tareaPadre.getFecha()));
-            assertTrue(tarea.getFecha().isBefore(fechaMaxima) || tarea.getFecha().isEqual(fechaMaxima));
-            assertEquals(1L, tarea.getIdTareaPadre());
+        for (LocalDate fecha : fechas) {
+            assertTrue(fecha.isAfter(serie.getFechaInicio()));
+            assertFalse(fecha.isAfter(fechaMaxima));
         }
+        assertEquals(fechas.getLast(), serie.getFechaFin());
     }
 
     @Test
-    void generarTareasHastaFechaMaxima_TareaDiaria() {
+    void calcularFechasHastaFechaMaxima_TareaDiaria() {
         LocalDate hoy = LocalDate.now();
         LocalDate fechaMaxima = hoy.plusDays(7); // 1 semana
         
@@ -81,26 +79,24 @@ class TareaRecurrenciaGeneratorFechaMaximaTest {
                 fechaMaxima
         );
 
-        // Crear tarea padre
-        TareaEntity tareaPadre = generator.componerTareaPadre(tareaValidada, puesto, turno);
-        tareaPadre.setId(1L);
+        TareaSerieEntity serie = generator.componerSerie(tareaValidada, puesto, turno);
 
-        // Generar tareas hijas
-        List<TareaEntity> tareasHijas = generator.generarTareasHijas(tareaPadre, tareaValidada);
+        // Ocurrencias posteriores a la primera
+        List<LocalDate> fechas = ocurrenciasTrasLaPrimera(serie);
 
-        // Deberían generarse 6-7 tareas hijas (7 días menos el padre)
-        assertTrue(tareasHijas.size() >= 6 && tareasHijas.size() <= 7);
+        // Deberían generarse 6-7 tareas hijas (7 días menos la primera)
+        assertTrue(fechas.size() >= 6 && fechas.size() <= 7);
         
         // Verificar que todas las fechas están dentro del rango
-        for (TareaEntity tarea : tareasHijas) {
-            assertTrue(tarea.getFecha().isAfter(tareaPadre.getFecha()));
-            assertTrue(tarea.getFecha().isBefore(fechaMaxima) || tarea.getFecha().isEqual(fechaMaxima));
-            assertEquals(1L, tarea.getIdTareaPadre());
+        for (LocalDate fecha : fechas) {
+            assertTrue(fecha.isAfter(serie.getFechaInicio()));
+            assertFalse(fecha.isAfter(fechaMaxima));
         }
+        assertEquals(fechas.getLast(), serie.getFechaFin());
     }
 
     @Test
-    void generarTareasHastaFechaMaxima_UnaVez_NoGeneraTareasHijas() {
+    void calcularFechasHastaFechaMaxima_UnaVez_SinMasOcurrencias() {
         LocalDate fechaInicio = LocalDate.now().plusDays(1);
         LocalDate fechaMaxima = LocalDate.now().plusMonths(1);
         
@@ -116,19 +112,18 @@ class TareaRecurrenciaGeneratorFechaMaximaTest {
                 fechaMaxima
         );
 
-        // Crear tarea padre
-        TareaEntity tareaPadre = generator.componerTareaPadre(tareaValidada, puesto, turno);
-        tareaPadre.setId(1L);
+        TareaSerieEntity serie = generator.componerSerie(tareaValidada, puesto, turno);
 
-        // Generar tareas hijas
-        List<TareaEntity> tareasHijas = generator.generarTareasHijas(tareaPadre, tareaValidada);
+        // Ocurrencias posteriores a la primera
+        List<LocalDate> fechas = ocurrenciasTrasLaPrimera(serie);
 
-        // No debería generar tareas hijas para UNA_VEZ
-        assertTrue(tareasHijas.isEmpty());
+        // La serie de UNA_VEZ termina en su única ocurrencia
+        assertTrue(fechas.isEmpty());
+        assertEquals(fechaInicio, serie.getFechaFin());
     }
 
     @Test
-    void generarTareasPorRepeticiones_CuandoNoHayFechaMaxima() {
+    void calcularFechasPorRepeticiones_CuandoNoHayFechaMaxima() {
         TareaValida tareaValidada = new TareaValida(
                 "Tarea con repeticiones",
                 1L,
@@ -141,23 +136,19 @@ class TareaRecurrenciaGeneratorFechaMaximaTest {
                 null // Sin fecha máxima
         );
 
-        // Crear tarea padre
-        TareaEntity tareaPadre = generator.componerTareaPadre(tareaValidada, puesto, turno);
-        tareaPadre.setId(1L);
+        TareaSerieEntity serie = generator.componerSerie(tareaValidada, puesto, turno);
 
-        // Generar tareas hijas
-        List<TareaEntity> tareasHijas = generator.generarTareasHijas(tareaPadre, tareaValidada);
+        // Ocurrencias posteriores a la primera
+        List<LocalDate> fechas = ocurrenciasTrasLaPrimera(serie);
 
-        // Deberían generarse exactamente 2 tareas hijas (3 total - 1 padre)
-        assertEquals(2, tareasHijas.size());
-        
-        for (TareaEntity tarea : tareasHijas) {
-            assertEquals(1L, tarea.getIdTareaPadre());
-        }
+        // Deberían generarse exactamente 2 tareas hijas (3 total - 1 primera)
+        assertEquals(2, fechas.size());
+        assertEquals(serie.getFechaInicio().plusWeeks(2), serie.getFechaFin());
+        assertEquals(serie.getFechaFin(), generator.calcularFechaFin(serie.getFechaInicio(), tareaValidada));
     }
 
     @Test
-    void generarTareasHastaFechaMaxima_LimiteDeSeguridad() {
+    void calcularFechasHastaFechaMaxima_LimiteDeSeguridad() {
         LocalDate hoy = LocalDate.now();
         LocalDate fechaMaxima = hoy.plusYears(2); // 2 años (debería limitarse a 365 repeticiones)
         
@@ -173,14 +164,17 @@ class TareaRecurrenciaGeneratorFechaMaximaTest {
                 fechaMaxima
         );
 
-        // Crear tarea padre
-        TareaEntity tareaPadre = generator.componerTareaPadre(tareaValidada, puesto, turno);
-        tareaPadre.setId(1L);
+        TareaSerieEntity serie = generator.componerSerie(tareaValidada, puesto, turno);
 
-        // Generar tareas hijas
-        List<TareaEntity> tareasHijas = generator.generarTareasHijas(tareaPadre, tareaValidada);
+        // Ocurrencias posteriores a la primera
+        List<LocalDate> fechas = ocurrenciasTrasLaPrimera(serie);
 
         // Debería limitarse a 365 repeticiones máximo
-        assertTrue(tareasHijas.size() <= 365);
+        assertTrue(fechas.size() <= TareaRecurrenciaGenerator.REPETICIONES_MAX);
+        assertEquals(serie.getFechaInicio().plusDays(TareaRecurrenciaGenerator.REPETICIONES_MAX), serie.getFechaFin());
+    }
+
+    private List<LocalDate> ocurrenciasTrasLaPrimera(TareaSerieEntity serie) {
+        return generator.calcularFechas(serie, serie.getFechaInicio().plusDays(1), serie.getFechaFin());
     }
-}
\ No newline at end of file
+}
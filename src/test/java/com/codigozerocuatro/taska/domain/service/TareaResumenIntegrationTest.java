@@ -0,0 +1,122 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.exception.AppValidationException;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaConteo;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.support.JdbcStatementRecorder;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(JdbcStatementRecorder.class)
+@Transactional
+public class TareaResumenIntegrationTest extends TareaIntegrationTest {
+
+    private Long cocinero;
+    private Long camarero;
+    private Long manana;
+    private Long tarde;
+    private LocalDate lunes;
+
+    @BeforeEach
+    void setUp() {
+        cocinero = puesto.getId();
+        camarero = puesto(PuestoEnum.CAMARERO).getId();
+        manana = turno.getId();
+        tarde = turno(TurnoEnum.TARDE).getId();
+
+        // Fuera de la ventana de materialización: la serie diaria, que empieza hoy, allí solo tiene
+        // ocurrencias virtuales
+        lunes = LocalDate.now().plusWeeks(5).with(DayOfWeek.MONDAY);
+        crear(cocinero, manana, TipoRecurrencia.UNA_VEZ, lunes, 1);
+        crear(cocinero, manana, TipoRecurrencia.UNA_VEZ, lunes, 1);
+        tareaService.completar(crear(cocinero, manana, TipoRecurrencia.UNA_VEZ, lunes, 1).getId());
+        crear(camarero, tarde, TipoRecurrencia.UNA_VEZ, lunes.plusDays(1), 1);
+        crear(cocinero, manana, TipoRecurrencia.DIARIA, null, 90);
+    }
+
+    @Test
+    void testResumen_AgrupaPersistidasYVirtuales() {
+        List<TareaConteo> resumen = tareaService.resumen(filtro(null, null, lunes, lunes.plusDays(2)));
+
+        assertEquals(List.of(
+                new TareaConteo(lunes, cocinero, manana, false, 3),
+                new TareaConteo(lunes, cocinero, manana, true, 1),
+                new TareaConteo(lunes.plusDays(1), cocinero, manana, false, 1),
+                new TareaConteo(lunes.plusDays(1), camarero, tarde, false, 1),
+                new TareaConteo(lunes.plusDays(2), cocinero, manana, false, 1)
+        ), resumen);
+    }
+
+    @Test
+    void testResumen_CoincideConLaBusqueda() {
+        for (FiltroTareaRequest filtro : List.of(
+                filtro(null, null, lunes, lunes.plusDays(6)),
+                filtro(cocinero, null, lunes, lunes.plusDays(1)),
+                filtro(null, false, lunes, lunes.plusDays(6)),
+                filtro(null, true, lunes, lunes.plusDays(6)),
+                new FiltroTareaRequest(manana, null, TipoRecurrencia.DIARIA.name(), null, null, lunes.plusDays(2), null, null))) {
+
+            List<TareaConteo> contadas = new ArrayList<>();
+            tareaService.buscar(filtro).forEach(tarea -> contadas.add(new TareaConteo(tarea.getFecha(),
+                    tarea.getPuesto().getId(), tarea.getTurno().getId(), tarea.isCompletada(), 1)));
+
+            assertEquals(TareaConteo.combinar(contadas), tareaService.resumen(filtro), filtro.toString());
+        }
+    }
+
+    @Test
+    void testResumen_UsuarioDeUnPuestoSoloCuentaElSuyo() {
+        autenticar(Usuarios.usuario("usuario", RolEnum.USER, PuestoEnum.CAMARERO));
+
+        List<TareaConteo> resumen = tareaService.resumen(filtro(cocinero, null, lunes, lunes.plusDays(6)));
+
+        assertEquals(List.of(new TareaConteo(lunes.plusDays(1), camarero, tarde, false, 1)), resumen);
+    }
+
+    @Test
+    void testResumen_SinCargarTareas() {
+        tareaRepository.flush();
+        JdbcStatementRecorder.reset();
+
+        tareaService.resumen(filtro(null, true, lunes, lunes.plusDays(6)));
+
+        List<String> consultas = JdbcStatementRecorder.sentencias().stream()
+                .map(sentencia -> sentencia.sql().toLowerCase())
+                .toList();
+        assertEquals(1, consultas.size(), consultas.toString());
+        assertTrue(consultas.getFirst().contains("group by"), consultas.getFirst());
+        assertFalse(consultas.getFirst().contains("join"), consultas.getFirst());
+    }
+
+    @Test
+    void testResumen_RequiereRangoDeFechas() {
+        assertThrows(AppValidationException.class, () -> tareaService.resumen(filtro(null, null, null, null)));
+        assertThrows(AppValidationException.class, () -> tareaService.resumen(filtro(null, null, null, lunes)));
+    }
+
+    private TareaEntity crear(Long puesto, Long turno, TipoRecurrencia tipo, LocalDate fecha, int repeticiones) {
+        return tareaService.crear(new CrearTareaRequest("Tarea", puesto, turno, tipo.name(),
+                null, null, fecha, repeticiones, null));
+    }
+
+    private static FiltroTareaRequest filtro(Long puestoId, Boolean completada, LocalDate inicio, LocalDate fin) {
+        return new FiltroTareaRequest(null, puestoId, null, null, completada, null, inicio, fin);
+    }
+}
@@ -0,0 +1,153 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.DiaSemana;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TareaValida;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.service.impl.JpaTareaSerieInsercion;
+import com.codigozerocuatro.taska.domain.service.impl.PostgresTareaSerieInsercion;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieFecha;
+import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba que INSERT ... SELECT generate_series genera las mismas fechas que el generador en la JVM
+ */
+@SpringBootTest(properties = "app.series.insercion=GENERATE_SERIES")
+@ActiveProfiles("test")
+@Transactional
+public class TareaSerieInsercionPostgresTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TareaSerieInsercion serieInsercion;
+
+    @Autowired
+    private TareaRecurrenciaGenerator recurrenciaGenerator;
+
+    @Autowired
+    private TareaJpaRepository tareaRepository;
+
+    @Autowired
+    private TareaSerieJpaRepository serieRepository;
+
+    @Autowired
+    private PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    private TurnoJpaRepository turnoRepository;
+
+    private JpaTareaSerieInsercion jpaInsercion;
+    private PuestoEntity puesto;
+    private TurnoEntity turno;
+
+    @BeforeEach
+    void setUp() {
+        jpaInsercion = new JpaTareaSerieInsercion(tareaRepository, recurrenciaGenerator);
+        puesto = puestoRepository.findByPuesto(PuestoEnum.COCINERO).orElseThrow();
+        turno = turnoRepository.findAll().getFirst();
+    }
+
+    @Test
+    void testEstrategiaSeleccionada() {
+        assertInstanceOf(PostgresTareaSerieInsercion.class, serieInsercion);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DIARIA, 2025-01-01, 365",
+            "SEMANAL, 2025-01-01, 52",
+            "QUINCENAL, 2025-01-01, 26",
+            "MENSUAL, 2025-01-31, 12",
+            "MENSUAL, 2025-01-30, 12",
+            "MENSUAL, 2024-02-29, 12",
+            "MENSUAL, 2025-08-31, 12"
+    })
+    void testMismasFechasQueElGenerador(TipoRecurrencia tipo, LocalDate fechaInicio, int repeticiones) {
+        TareaValida tareaValidada = new TareaValida("Serie", puesto.getId(), turno.getId(), tipo,
+                tipo == TipoRecurrencia.MENSUAL ? null : DiaSemana.MIERCOLES,
+                tipo == TipoRecurrencia.MENSUAL ? fechaInicio.getDayOfMonth() : null,
+                null, repeticiones, null);
+
+        TareaSerieEntity serie = recurrenciaGenerator.componerSerie(tareaValidada, puesto, turno, fechaInicio);
+        List<LocalDate> esperadas = recurrenciaGenerator.calcularFechas(serie, fechaInicio.plusDays(1), serie.getFechaFin());
+
+        assertEquals(repeticiones - 1, esperadas.size());
+
+        assertEquals(esperadas, insertar(serieInsercion, tareaValidada, fechaInicio));
+        assertEquals(esperadas, insertar(jpaInsercion, tareaValidada, fechaInicio));
+    }
+
+    @Test
+    void testOmiteExcepcionesYFechasPersistidas() {
+        LocalDate fechaInicio = LocalDate.of(2025, 3, 1);
+        TareaValida tareaValidada = new TareaValida("Serie", puesto.getId(), turno.getId(), TipoRecurrencia.DIARIA,
+                null, null, null, 10, null);
+        TareaSerieEntity serie = crearSerie(tareaValidada, fechaInicio);
+        serie.getExcepciones().add(fechaInicio.plusDays(2));
+        tareaRepository.save(recurrenciaGenerator.componerOcurrencia(serie, fechaInicio.plusDays(5)));
+
+        int insertadas = serieInsercion.insertarOcurrencias(serie, fechaInicio, serie.getFechaFin());
+
+        assertEquals(8, insertadas);
+        assertEquals(9, fechas(serie).size());
+        assertFalse(fechas(serie).contains(fechaInicio.plusDays(2)));
+    }
+
+    @Test
+    void testIdsNoColisionanConLosDeHibernate() {
+        LocalDate fechaInicio = LocalDate.of(2025, 1, 1);
+        TareaValida tareaValidada = new TareaValida("Serie", puesto.getId(), turno.getId(), TipoRecurrencia.DIARIA,
+                null, null, null, 120, null);
+        TareaSerieEntity serie = crearSerie(tareaValidada, fechaInicio);
+        Long idHibernateAntes = tareaRepository.save(recurrenciaGenerator.componerOcurrencia(serie, fechaInicio)).getId();
+
+        serieInsercion.insertarOcurrencias(serie, fechaInicio.plusDays(1), serie.getFechaFin());
+        Long idHibernateDespues = tareaRepository.saveAndFlush(
+                recurrenciaGenerator.componerOcurrencia(serie, serie.getFechaFin().plusDays(1))).getId();
+
+        Set<Long> ids = new HashSet<>();
+        tareaRepository.findAll().forEach(tarea -> assertTrue(ids.add(tarea.getId()), "Id repetido " + tarea.getId()));
+        assertTrue(ids.contains(idHibernateAntes));
+        assertTrue(ids.contains(idHibernateDespues));
+        assertEquals(121, ids.size());
+    }
+
+    private List<LocalDate> insertar(TareaSerieInsercion insercion, TareaValida tareaValidada, LocalDate fechaInicio) {
+        TareaSerieEntity serie = crearSerie(tareaValidada, fechaInicio);
+        insercion.insertarOcurrencias(serie, fechaInicio.plusDays(1), serie.getFechaFin());
+        tareaRepository.flush();
+        return fechas(serie);
+    }
+
+    private TareaSerieEntity crearSerie(TareaValida tareaValidada, LocalDate fechaInicio) {
+        return serieRepository.save(recurrenciaGenerator.componerSerie(tareaValidada, puesto, turno, fechaInicio));
+    }
+
+    private List<LocalDate> fechas(TareaSerieEntity serie) {
+        return tareaRepository.findFechasPersistidas(List.of(serie.getId()), serie.getFechaInicio(), serie.getFechaFin().plusYears(1)).stream()
+                .map(TareaSerieFecha::fecha)
+                .sorted()
+                .toList();
+    }
+}
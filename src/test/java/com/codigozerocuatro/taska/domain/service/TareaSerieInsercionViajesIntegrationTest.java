@@ -0,0 +1,73 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Viajes a la base de datos al crear una serie de 365 ocurrencias.
+ * "Sin lotes" fuerza un INSERT por fila, como ocurría con ids IDENTITY.
+ * La latencia de ambos casos se mide en {@code TareaSerieInsercionBenchmark} (perfil benchmark).
+ */
+public class TareaSerieInsercionViajesIntegrationTest extends TareaIntegrationTest {
+
+    private static final int OCURRENCIAS = 365;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private CrearTareaRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = new CrearTareaRequest("Serie de un año", puesto.getId(), turno.getId(),
+                TipoRecurrencia.DIARIA.name(), null, null, null, OCURRENCIAS, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCrearSerieDe365Ocurrencias_AgrupaLosInsertEnLotes() {
+        long sinLotes = viajes(1);
+        long conLotes = viajes(null);
+
+        assertTrue(sinLotes >= OCURRENCIAS);
+        assertTrue(conLotes < OCURRENCIAS / 10,
+                "Con lotes se esperaban menos de " + OCURRENCIAS / 10 + " viajes y hubo " + conLotes);
+    }
+
+    private long viajes(Integer tamanoLote) {
+        JdbcRoundTripCounter.reset();
+        crearSerie(tamanoLote);
+        long viajes = JdbcRoundTripCounter.roundTrips();
+        limpiar();
+        return viajes;
+    }
+
+    private void crearSerie(Integer tamanoLote) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(tamanoLote);
+            tareaService.crear(request);
+            entityManager.flush();
+        });
+    }
+
+    private void limpiar() {
+        assertEquals(OCURRENCIAS, tareaRepository.count());
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAllInBatch();
+    }
+}
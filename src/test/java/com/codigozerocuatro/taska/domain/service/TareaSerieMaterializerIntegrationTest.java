@@ -0,0 +1,78 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.series.mode=VENTANA", "app.series.ventana=2w", "app.series.lote=2"})
+@Transactional
+public class TareaSerieMaterializerIntegrationTest extends TareaIntegrationTest {
+
+    @Autowired
+    private TareaSerieMaterializer serieMaterializer;
+
+    private TareaEntity crearSerieDiaria(String descripcion, int repeticiones) {
+        return tareaService.crear(new CrearTareaRequest(descripcion, puesto.getId(), turno.getId(),
+                TipoRecurrencia.DIARIA.name(), null, null, null, repeticiones, null));
+    }
+
+    @Test
+    void testCrear_SoloPersisteLaVentana() {
+        TareaEntity tareaPadre = crearSerieDiaria("Serie diaria", 60);
+
+        // Hoy más dos semanas: 15 ocurrencias persistidas
+        assertEquals(15, tareaRepository.count());
+        TareaSerieEntity serie = serieRepository.findById(tareaPadre.getSerieId()).orElseThrow();
+        assertEquals(serieMaterializer.horizonte(), serie.getMaterializadaHasta());
+
+        // El resto de la serie se sigue viendo como ocurrencias virtuales
+        assertEquals(60, tareaService.obtenerSerieRecurrente(tareaPadre.getId()).size());
+    }
+
+    @Test
+    void testMaterializarHasta_AmpliaTodasLasSeriesPorLotes() {
+        List<TareaEntity> tareasPadre = List.of(
+                crearSerieDiaria("Serie 1", 60),
+                crearSerieDiaria("Serie 2", 60),
+                crearSerieDiaria("Serie 3", 20)
+        );
+        LocalDate horizonte = serieMaterializer.horizonte().plusDays(10);
+
+        int creadas = serieMaterializer.materializarHasta(horizonte);
+
+        // Series 1 y 2 avanzan 10 días; la serie 3 solo hasta su última ocurrencia
+        assertEquals(10 + 10 + 5, creadas);
+        assertEquals(25 + 25 + 20, tareaRepository.count());
+        assertEquals(horizonte, serieRepository.findById(tareasPadre.get(0).getSerieId()).orElseThrow().getMaterializadaHasta());
+        assertEquals(LocalDate.now().plusDays(19),
+                serieRepository.findById(tareasPadre.get(2).getSerieId()).orElseThrow().getMaterializadaHasta());
+
+        // Las ocurrencias creadas pertenecen a la serie de su tarea padre
+        assertEquals(25, tareaRepository.findSerieRecurrente(tareasPadre.get(0).getId()).size());
+    }
+
+    @Test
+    void testMaterializarHasta_EsReanudableYNoDuplica() {
+        TareaEntity tareaPadre = crearSerieDiaria("Serie diaria", 60);
+        LocalDate fechaCompletada = serieMaterializer.horizonte().plusDays(3);
+        tareaService.completarOcurrencia(tareaPadre.getSerieId(), fechaCompletada);
+
+        LocalDate horizonte = serieMaterializer.horizonte().plusDays(5);
+        assertEquals(4, serieMaterializer.materializarHasta(horizonte));
+        assertEquals(0, serieMaterializer.materializarHasta(horizonte));
+
+        assertEquals(20, tareaRepository.count());
+        assertEquals(60, tareaService.obtenerSerieRecurrente(tareaPadre.getId()).size());
+    }
+}
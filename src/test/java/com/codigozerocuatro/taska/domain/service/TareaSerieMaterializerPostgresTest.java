@@ -0,0 +1,122 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.PostgresIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dos ejecuciones simultáneas del materializador, como las de dos instancias a las 03:00, se
+ * reparten las series sin duplicar ocurrencias. No es transaccional: cada ejecución confirma sus
+ * lotes. Elimina sus series al terminar.
+ */
+@SpringBootTest(properties = {"app.series.mode=VENTANA", "app.series.ventana=2w", "app.series.lote=2"})
+@ActiveProfiles("test")
+public class TareaSerieMaterializerPostgresTest extends PostgresIntegrationTest {
+
+    private static final int SERIES = 10;
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaSerieMaterializer serieMaterializer;
+
+    @Autowired
+    private TareaSerieJpaRepository serieRepository;
+
+    @Autowired
+    private PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    private TurnoJpaRepository turnoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private final List<Long> series = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(Usuarios.admin());
+
+        Long puesto = puestoRepository.findByPuesto(PuestoEnum.COCINERO).orElseThrow().getId();
+        Long turno = turnoRepository.findAll().getFirst().getId();
+        for (int i = 0; i < SERIES; i++) {
+            series.add(tareaService.crear(new CrearTareaRequest("Serie " + i, puesto, turno,
+                    TipoRecurrencia.DIARIA.name(), null, null, null, 60, null)).getSerieId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long serie : series) {
+            jdbcTemplate.update("DELETE FROM tarea WHERE serie_id = ?", serie);
+            serieRepository.deleteById(serie);
+        }
+        series.clear();
+    }
+
+    @Test
+    void testMaterializarHasta_EjecucionesSimultaneasNoDuplican() {
+        LocalDate horizonte = serieMaterializer.horizonte().plusDays(20);
+        CountDownLatch salida = new CountDownLatch(1);
+
+        List<CompletableFuture<Integer>> ejecuciones = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ejecuciones.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return serieMaterializer.materializarHasta(horizonte);
+            }));
+        }
+        salida.countDown();
+        int creadas = ejecuciones.stream().mapToInt(CompletableFuture::join).sum();
+
+        assertEquals(SERIES * 20, creadas);
+        assertEquals(SERIES * 35, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tarea WHERE serie_id = ANY(?)", Integer.class, (Object) series.toArray(Long[]::new)));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM tarea WHERE serie_id IS NOT NULL GROUP BY serie_id, fecha HAVING COUNT(*) > 1) d",
+                Integer.class));
+    }
+
+    @Test
+    void testOcurrenciaRepetida_LaRechazaLaBaseDeDatos() {
+        Long serie = series.getFirst();
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("""
+                INSERT INTO tarea (id, completada, fecha, puesto_id, turno_id, serie_id)
+                SELECT nextval('tarea_seq'), false, fecha, puesto_id, turno_id, serie_id
+                FROM tarea WHERE serie_id = ? ORDER BY fecha LIMIT 1
+                """, serie));
+    }
+}
@@ -0,0 +1,190 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.exception.AppEntityNotFoundException;
+import com.codigozerocuatro.taska.domain.model.Pagina;
+import com.codigozerocuatro.taska.domain.model.TareaCursor;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.series.mode=VIRTUAL")
+@Transactional
+public class TareaSerieVirtualIntegrationTest extends TareaIntegrationTest {
+
+    @Autowired
+    private TareaSerieExpander serieExpander;
+
+    private TareaEntity tareaPadre;
+
+    @BeforeEach
+    void setUp() {
+        // Serie diaria de 10 repeticiones: solo se persiste la primera
+        tareaPadre = tareaService.crear(new CrearTareaRequest("Limpiar cámara", puesto.getId(), turno.getId(),
+                TipoRecurrencia.DIARIA.name(), null, null, null, 10, null));
+    }
+
+    @Test
+    void testCrear_SoloPersisteLaTareaPadreYLaSerie() {
+        assertEquals(1, tareaRepository.count());
+        assertEquals(1, serieRepository.count());
+        assertNotNull(tareaPadre.getSerieId());
+    }
+
+    @Test
+    void testBuscar_ExpandeOcurrenciasVirtualesDelRango() {
+        LocalDate inicio = tareaPadre.getFecha();
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, null, inicio, inicio.plusDays(4));
+
+        List<TareaEntity> tareas = tareaService.buscar(filtro);
+
+        assertEquals(5, tareas.size());
+        assertEquals(tareaPadre.getId(), tareas.getFirst().getId());
+        for (int i = 1; i < tareas.size(); i++) {
+            assertNull(tareas.get(i).getId(), "Las ocurrencias virtuales no tienen id");
+            assertEquals(tareaPadre.getSerieId(), tareas.get(i).getSerieId());
+            assertEquals(inicio.plusDays(i), tareas.get(i).getFecha());
+        }
+    }
+
+    @Test
+    void testBuscar_CompletadasNoIncluyeVirtuales() {
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, true, null, null, null);
+
+        assertTrue(tareaService.buscar(filtro).isEmpty());
+    }
+
+    @Test
+    void testObtenerSerieRecurrente_IncluyeOcurrenciasVirtuales() {
+        List<TareaEntity> serie = tareaService.obtenerSerieRecurrente(tareaPadre.getId());
+
+        assertEquals(10, serie.size());
+        assertEquals(tareaPadre.getFecha().plusDays(9), serie.getLast().getFecha());
+    }
+
+    @Test
+    void testCompletarOcurrencia_PersisteSoloLaOcurrencia() {
+        LocalDate fecha = tareaPadre.getFecha().plusDays(3);
+
+        TareaEntity completada = tareaService.completarOcurrencia(tareaPadre.getSerieId(), fecha);
+
+        assertNotNull(completada.getId());
+        assertTrue(completada.isCompletada());
+        assertEquals(tareaPadre.getSerieId(), completada.getSerieId());
+        assertEquals(2, tareaRepository.count());
+
+        // La ocurrencia persistida sustituye a la virtual
+        List<TareaEntity> serie = tareaService.obtenerSerieRecurrente(tareaPadre.getId());
+        assertEquals(10, serie.size());
+        assertEquals(1, serie.stream().filter(tarea -> fecha.equals(tarea.getFecha())).count());
+    }
+
+    @Test
+    void testMaterializarOcurrencia_FechaFueraDeLaSerie() {
+        Long serieId = tareaPadre.getSerieId();
+        LocalDate fecha = tareaPadre.getFecha().plusDays(10);
+
+        assertThrows(AppEntityNotFoundException.class, () -> tareaService.materializarOcurrencia(serieId, fecha));
+    }
+
+    @Test
+    void testEliminarSoloTarea_ExcluyeLaOcurrenciaVirtual() {
+        LocalDate fecha = tareaPadre.getFecha().plusDays(2);
+        TareaEntity ocurrencia = tareaService.materializarOcurrencia(tareaPadre.getSerieId(), fecha);
+
+        tareaService.eliminarSoloTarea(ocurrencia.getId());
+
+        List<TareaEntity> serie = tareaService.obtenerSerieRecurrente(tareaPadre.getId());
+        assertEquals(9, serie.size());
+        assertTrue(serie.stream().noneMatch(tarea -> fecha.equals(tarea.getFecha())));
+    }
+
+    @Test
+    void testEliminarTareaYPosteriores_RecortaLaSerie() {
+        LocalDate fecha = tareaPadre.getFecha().plusDays(5);
+        TareaEntity ocurrencia = tareaService.materializarOcurrencia(tareaPadre.getSerieId(), fecha);
+
+        tareaService.eliminarTareaYPosteriores(ocurrencia.getId());
+
+        List<TareaEntity> serie = tareaService.obtenerSerieRecurrente(tareaPadre.getId());
+        assertEquals(5, serie.size());
+        assertEquals(fecha.minusDays(1), serie.getLast().getFecha());
+    }
+
+    @Test
+    void testObtenerTareasPorSemana_IncluyeOcurrenciasVirtuales() {
+        LocalDate fecha = tareaPadre.getFecha().plusDays(7);
+
+        List<TareaEntity> tareas = tareaService.obtenerTareasPorSemana(fecha);
+
+        assertFalse(tareas.isEmpty());
+        assertTrue(tareas.stream().anyMatch(tarea -> fecha.equals(tarea.getFecha())));
+        for (int i = 1; i < tareas.size(); i++) {
+            assertFalse(tareas.get(i).getFecha().isBefore(tareas.get(i - 1).getFecha()));
+        }
+    }
+
+    @Test
+    void testBuscar_PaginaMezclandoTareasPersistidasYVirtuales() {
+        LocalDate inicio = tareaPadre.getFecha();
+        tareaService.completarOcurrencia(tareaPadre.getSerieId(), inicio.plusDays(4));
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, null, inicio, inicio.plusDays(9));
+
+        List<LocalDate> fechas = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<TareaEntity> pagina = tareaService.buscar(filtro, cursor, 3);
+            pagina.contenido().forEach(tarea -> fechas.add(tarea.getFecha()));
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+
+        assertEquals(inicio.datesUntil(inicio.plusDays(10)).toList(), fechas);
+    }
+
+    @Test
+    void testOcurrenciasVirtuales_SeAcotanPorSerieTrasElCursor() {
+        LocalDate inicio = tareaPadre.getFecha();
+        TareaCursor cursor = new TareaCursor(inicio.plusDays(2), null, tareaPadre.getSerieId());
+
+        List<TareaEntity> ocurrencias = serieExpander.ocurrenciasVirtuales(null, inicio, null, cursor, 3);
+
+        assertEquals(List.of(inicio.plusDays(3), inicio.plusDays(4), inicio.plusDays(5)),
+                ocurrencias.stream().map(TareaEntity::getFecha).toList());
+    }
+
+    @Test
+    void testBuscar_SinFechasRecorreVariasSeriesPorPaginas() {
+        TareaEntity otraPadre = tareaService.crear(new CrearTareaRequest("Revisar cámara",
+                tareaPadre.getPuesto().getId(), tareaPadre.getTurno().getId(),
+                TipoRecurrencia.DIARIA.name(), null, null, null, 5, null));
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, null, null, null);
+
+        List<TareaEntity> tareas = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<TareaEntity> pagina = tareaService.buscar(filtro, cursor, 2);
+            assertTrue(pagina.contenido().size() <= 2);
+            tareas.addAll(pagina.contenido());
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+
+        assertEquals(15, tareas.size());
+        assertEquals(10, tareas.stream().filter(tarea -> tareaPadre.getSerieId().equals(tarea.getSerieId())).count());
+        assertEquals(5, tareas.stream().filter(tarea -> otraPadre.getSerieId().equals(tarea.getSerieId())).count());
+        for (int i = 1; i < tareas.size(); i++) {
+            assertTrue(TareaCursor.ORDEN.compare(tareas.get(i - 1), tareas.get(i)) < 0);
+        }
+    }
+}
@@ -1,84 +1,47 @@
 package com.codigozerocuatro.taska.domain.service;
 
+import com.codigozerocuatro.taska.domain.exception.AppEntityNotFoundException;
 import com.codigozerocuatro.taska.domain.exception.AppValidationException;
+import com.codigozerocuatro.taska.domain.model.Pagina;
 import com.codigozerocuatro.taska.domain.model.PuestoEnum;
-import com.codigozerocuatro.taska.domain.model.RolEnum;
 import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
 import com.codigozerocuatro.taska.domain.model.TurnoEnum;
 import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
 import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
-import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
-import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
-import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
-import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
 import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
-import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
 
-@SpringBootTest
-@ActiveProfiles("test")
 @Transactional
-public class TareaServiceIntegrationTest {
+public class TareaServiceIntegrationTest extends TareaIntegrationTest {
 
-    @Autowired
-    private TareaService tareaService;
+    private static final int SERIES = 4;
+    private static final int OCURRENCIAS = 300;
+    private static final int OCURRENCIAS_ANUALES = 365;
+    private static final int COLA = 300;
 
-    @Autowired
-    private TareaJpaRepository tareaRepository;
-
-    @Autowired
-    private PuestoJpaRepository puestoRepository;
-
-    @Autowired
-    private TurnoJpaRepository turnoRepository;
-
-    @MockitoBean
-    private SecurityUtils securityUtils;
-
-    private PuestoEntity puesto;
-    private TurnoEntity turno;
     private LocalDate fechaBaseSemana; // Semana donde están las 5 tareas principales
 
     @BeforeEach
     void setUp() {
-        // Limpiar datos previos
-        tareaRepository.deleteAll();
-        puestoRepository.deleteAll();
-        turnoRepository.deleteAll();
-
-        // Crear datos base necesarios
-        puesto = new PuestoEntity(PuestoEnum.COCINERO);
-        puesto = puestoRepository.save(puesto);
-
-        turno = new TurnoEntity(TurnoEnum.MANANA);
-        turno = turnoRepository.save(turno);
-
         // Configurar fecha base para la semana objetivo
         fechaBaseSemana = LocalDate.now().plusDays(30).with(java.time.DayOfWeek.MONDAY);
 
-        // Crear usuario admin para los tests de búsqueda
-        UserEntity adminUser = new UserEntity();
-        adminUser.setUsername("admin");
-        adminUser.setRol(RolEnum.ADMIN);
-        adminUser.setPuesto(PuestoEnum.ENCARGADO);
-
-        // Configurar mock de SecurityUtils para devolver el usuario admin
-        when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(adminUser);
-
         // Crear 10 tareas usando el servicio
         crearTareasIniciales();
     }
@@ -404,9 +367,9 @@ public class TareaServiceIntegrationTest {
         assertTrue(tareaRepository.existsById(tareasRestantes.get(1).getId()), "La tercera tarea debe seguir existiendo");
         assertTrue(tareaRepository.existsById(tareasRestantes.get(2).getId()), "La cuarta tarea debe seguir existiendo");
 
-        // Verificar que la tarea padre sigue siendo padre (sin idTareaPadre)
+        // Verificar que la tarea padre sigue en la misma serie
         TareaEntity tareaPadreActual = tareaRepository.findById(tareaPadre.getId()).orElseThrow();
-        assertNull(tareaPadreActual.getIdTareaPadre(), "La tarea padre debe seguir siendo padre");
+        assertEquals(tareaPadre.getSerieId(), tareaPadreActual.getSerieId(), "La tarea padre debe seguir en la serie");
     }
 
     @Test
@@ -441,7 +404,8 @@ public class TareaServiceIntegrationTest {
         
         // when - Eliminar la segunda tarea y todas las posteriores
         Long idSegundaTarea = serieCompleta.get(1).getId();
-        tareaService.eliminarTareaYPosteriores(idSegundaTarea);
+        int eliminadas = tareaService.eliminarTareaYPosteriores(idSegundaTarea);
+        assertEquals(3, eliminadas);
 
         // then - Verificar que se eliminaron la segunda, tercera y cuarta tarea
         List<TareaEntity> tareasRestantes = tareaRepository.findAll();
@@ -459,11 +423,11 @@ public class TareaServiceIntegrationTest {
         TareaEntity tareaRestante = tareasRestantes.getFirst();
         assertEquals("Tarea Quincenal Recurrente", tareaRestante.getDescripcion());
         assertEquals(TipoRecurrencia.QUINCENAL, tareaRestante.getTipoRecurrencia());
-        assertNull(tareaRestante.getIdTareaPadre(), "La tarea restante debe ser padre");
+        assertEquals(tareaPadre.getSerieId(), tareaRestante.getSerieId(), "La tarea restante debe seguir en la serie");
     }
 
     @Test
-    void testEliminarSoloTarea_EliminaTareaPadreYReorganizaHijas() {
+    void testEliminarSoloTarea_EliminaTareaPadreSinModificarLaSerie() {
         // given - Limpiar las tareas existentes y crear una serie recurrente MENSUAL con 4 tareas
         tareaRepository.deleteAll();
         
@@ -492,15 +456,12 @@ public class TareaServiceIntegrationTest {
         serieCompleta.sort(Comparator.comparing(TareaEntity::getFecha));
         assertEquals(4, serieCompleta.size(), "La serie debe tener 4 tareas");
         
-        // Verificar que la primera tarea es la padre (sin idTareaPadre)
+        // Verificar que la primera tarea es la padre y que todas comparten serie
         TareaEntity tareaPadreOriginal = serieCompleta.getFirst();
-        assertNull(tareaPadreOriginal.getIdTareaPadre(), "La primera tarea debe ser la tarea padre original");
         assertEquals(tareaPadre.getId(), tareaPadreOriginal.getId(), "Debe ser la misma tarea padre creada");
-        
-        // Verificar que las demás son hijas
-        for (int i = 1; i < serieCompleta.size(); i++) {
-            assertEquals(tareaPadre.getId(), serieCompleta.get(i).getIdTareaPadre(), 
-                "Las tareas hijas deben apuntar a la tarea padre");
+        assertNotNull(tareaPadre.getSerieId());
+        for (TareaEntity tarea : serieCompleta) {
+            assertEquals(tareaPadre.getSerieId(), tarea.getSerieId(), "Todas las tareas deben pertenecer a la serie");
         }
 
         // when - Eliminar la tarea padre (primera tarea)
@@ -518,19 +479,19 @@ public class TareaServiceIntegrationTest {
         assertTrue(tareaRepository.existsById(serieCompleta.get(2).getId()), "La tercera tarea debe seguir existiendo");
         assertTrue(tareaRepository.existsById(serieCompleta.get(3).getId()), "La cuarta tarea debe seguir existiendo");
         
-        // Verificar que se reorganizó la estructura padre-hijo
-        // La segunda tarea (por fecha) debe convertirse en la nueva tarea padre
+        // La serie no cambia: las tareas restantes conservan su serieId
         TareaEntity nuevaTareaPadre = tareaRepository.findById(serieCompleta.get(1).getId()).orElseThrow();
-        assertNull(nuevaTareaPadre.getIdTareaPadre(), "La segunda tarea debe convertirse en la nueva tarea padre");
-        
-        // Las tareas restantes deben apuntar a la nueva tarea padre
         TareaEntity terceraTarea = tareaRepository.findById(serieCompleta.get(2).getId()).orElseThrow();
         TareaEntity cuartaTarea = tareaRepository.findById(serieCompleta.get(3).getId()).orElseThrow();
-        
-        assertEquals(nuevaTareaPadre.getId(), terceraTarea.getIdTareaPadre(), 
-            "La tercera tarea debe apuntar a la nueva tarea padre");
-        assertEquals(nuevaTareaPadre.getId(), cuartaTarea.getIdTareaPadre(), 
-            "La cuarta tarea debe apuntar a la nueva tarea padre");
+
+        assertEquals(tareaPadre.getSerieId(), nuevaTareaPadre.getSerieId());
+        assertEquals(tareaPadre.getSerieId(), terceraTarea.getSerieId());
+        assertEquals(tareaPadre.getSerieId(), cuartaTarea.getSerieId());
+
+        // La primera tarea restante por fecha pasa a encabezar la serie
+        List<TareaEntity> serieRestante = tareaService.obtenerSerieRecurrente(cuartaTarea.getId());
+        assertEquals(3, serieRestante.size());
+        assertEquals(nuevaTareaPadre.getId(), serieRestante.getFirst().getId());
         
         // Verificar que todas las tareas mantienen sus propiedades originales
         assertEquals("Tarea Mensual Recurrente", nuevaTareaPadre.getDescripcion());
@@ -568,18 +529,15 @@ public class TareaServiceIntegrationTest {
         serieCompleta.sort(Comparator.comparing(TareaEntity::getFecha));
         assertEquals(4, serieCompleta.size(), "La serie debe tener 4 tareas");
         
-        // Verificar estructura inicial: padre + 3 hijas
-        TareaEntity tareaPadreOriginal = serieCompleta.getFirst();
-        assertNull(tareaPadreOriginal.getIdTareaPadre(), "La primera tarea debe ser la tarea padre");
-        
-        for (int i = 1; i < serieCompleta.size(); i++) {
-            assertEquals(tareaPadre.getId(), serieCompleta.get(i).getIdTareaPadre(), 
-                "Las tareas hijas deben apuntar a la tarea padre");
+        // Verificar estructura inicial: padre + 3 hijas de la misma serie
+        assertEquals(tareaPadre.getId(), serieCompleta.getFirst().getId(), "La primera tarea debe ser la tarea padre");
+        for (TareaEntity tarea : serieCompleta) {
+            assertEquals(tareaPadre.getSerieId(), tarea.getSerieId(), "Todas las tareas deben pertenecer a la serie");
         }
 
         // when - Eliminar la tarea padre y todas las posteriores (toda la serie)
         // Este era el caso problemático: integridad referencial padre->hijas
-        tareaService.eliminarTareaYPosteriores(tareaPadre.getId());
+        assertEquals(4, tareaService.eliminarTareaYPosteriores(tareaPadre.getId()));
 
         // then - Verificar que se eliminaron todas las tareas
         List<TareaEntity> tareasRestantes = tareaRepository.findAll();
@@ -591,4 +549,222 @@ public class TareaServiceIntegrationTest {
         assertFalse(tareaRepository.existsById(serieCompleta.get(2).getId()), "La tercera tarea debe haber sido eliminada");
         assertFalse(tareaRepository.existsById(serieCompleta.get(3).getId()), "La cuarta tarea debe haber sido eliminada");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEliminarSoloTarea_TareaDeUnaVezEliminaSuSerie() {
+        TareaEntity tarea = tareaService.crear(new CrearTareaRequest("Tarea suelta", puesto.getId(), turno.getId(),
+            TipoRecurrencia.UNA_VEZ.name(), null, null, fechaBaseSemana, 1, null));
+        assertTrue(serieRepository.existsById(tarea.getSerieId()));
+
+        tareaService.eliminarSoloTarea(tarea.getId());
+        entityManager.flush();
+
+        assertFalse(tareaRepository.existsById(tarea.getId()));
+        assertFalse(serieRepository.existsById(tarea.getSerieId()));
+    }
+
+    @Test
+    void testBuscar_TareasDeUnaSerieCompartenLaSerie() {
+        // given - Una serie semanal de 4 tareas además de las tareas de una vez
+        TareaEntity tareaPadre = tareaService.crear(new CrearTareaRequest("Tarea Semanal Recurrente", puesto.getId(),
+            turno.getId(), TipoRecurrencia.SEMANAL.name(), "LUNES", null, null, 4, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, TipoRecurrencia.SEMANAL.name(), null, null,
+            null, tareaPadre.getFecha(), tareaPadre.getFecha().plusWeeks(3));
+        List<TareaEntity> tareas = tareaService.buscar(filtro);
+
+        // then - La descripción se guarda una vez en la serie y todas las tareas la comparten
+        assertEquals(4, tareas.size());
+        for (TareaEntity tarea : tareas) {
+            assertSame(tareas.getFirst().getSerie(), tarea.getSerie());
+            assertEquals("Tarea Semanal Recurrente", tarea.getDescripcion());
+        }
+
+        // Las series de las tareas de una vez no se listan como series recurrentes
+        assertEquals(List.of(tareaPadre.getSerieId()),
+            tareaService.obtenerSeries().stream().map(TareaSerieEntity::getId).toList());
+    }
+
+    @Test
+    void testBuscar_RecorrePorPaginasSinRepetirNiSaltarTareas() {
+        crearTareasDelLunes();
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, null,
+            fechaBaseSemana, fechaBaseSemana.plusDays(6));
+
+        List<TareaEntity> leidas = leerTodas((cursor, limite) -> tareaService.buscar(filtro, cursor, limite), 2);
+
+        assertEquals(7, leidas.size());
+        assertEquals(tareaService.buscar(filtro).stream().map(TareaEntity::getId).toList(),
+            leidas.stream().map(TareaEntity::getId).toList());
+        assertEquals(leidas.stream().sorted(Comparator.comparing(TareaEntity::getFecha)
+            .thenComparing(TareaEntity::getId)).toList(), leidas);
+    }
+
+    @Test
+    void testTodas_RecorrePorPaginasEnOrdenFechaId() {
+        crearTareasDelLunes();
+
+        List<TareaEntity> leidas = leerTodas(tareaService::todas, 5);
+
+        assertEquals(12, leidas.size());
+        assertEquals(12, leidas.stream().map(TareaEntity::getId).distinct().count());
+        assertEquals(leidas.stream().sorted(Comparator.comparing(TareaEntity::getFecha)
+            .thenComparing(TareaEntity::getId)).toList(), leidas);
+    }
+
+    @Test
+    void testBuscar_UltimaPaginaSinCursor() {
+        crearTareasDelLunes();
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, fechaBaseSemana, null, null);
+
+        Pagina<TareaEntity> pagina = tareaService.buscar(filtro, null, 3);
+
+        assertEquals(3, pagina.contenido().size());
+        assertNull(pagina.siguiente());
+    }
+
+    @Test
+    void testBuscar_CursorInvalido() {
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, null, null, null);
+
+        assertThrows(AppValidationException.class, () -> tareaService.buscar(filtro, "no-es-un-cursor", null));
+    }
+
+    @Test
+    void testBuscar_LimiteFueraDeRango() {
+        FiltroTareaRequest filtro = new FiltroTareaRequest(null, null, null, null, null, null, null, null);
+
+        assertThrows(AppValidationException.class, () -> tareaService.buscar(filtro, null, 0));
+        assertThrows(AppValidationException.class, () -> tareaService.buscar(filtro, null, 501));
+    }
+
+    @Test
+    void testExportar_TodasLasTareasEnOrden() {
+        crearSeriesDiarias();
+        List<LocalDate> fechas = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+
+        long total = tareaService.exportar(tarea -> {
+            assertNotNull(tarea.getDescripcion());
+            assertEquals(PuestoEnum.COCINERO, tarea.getPuesto().getPuesto());
+            assertEquals(TurnoEnum.MANANA, tarea.getTurno().getTurno());
+            fechas.add(tarea.getFecha());
+            ids.add(tarea.getId());
+        });
+
+        assertEquals(10 + SERIES * OCURRENCIAS, total);
+        assertEquals(total, fechas.size());
+        for (int i = 1; i < fechas.size(); i++) {
+            int comparacion = fechas.get(i).compareTo(fechas.get(i - 1));
+            assertTrue(comparacion > 0 || (comparacion == 0 && ids.get(i) > ids.get(i - 1)),
+                "Orden (fecha, id) incorrecto en la posición " + i);
+        }
+    }
+
+    @Test
+    void testExportar_ElContextoDePersistenciaNoCreceConLaTabla() {
+        crearSeriesDiarias();
+        Session session = entityManager.unwrap(Session.class);
+        AtomicLong maximo = new AtomicLong();
+
+        tareaService.exportar(tarea -> maximo.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max));
+
+        // Un lote de tareas más puesto, turno y series
+        assertTrue(maximo.get() <= TareaJpaRepository.LOTE_EXPORTACION + serieRepository.count() + 2,
+            "Entidades en el contexto: " + maximo.get());
+    }
+
+    @Test
+    void testEliminarTareaYPosteriores_UnaSentenciaParaTodaLaCola() {
+        TareaEntity tareaPadre = crearSerieDeUnAno();
+        TareaEntity primeraDeLaCola = tareaRepository.findFirstBySerieIdAndFecha(tareaPadre.getSerieId(),
+            tareaPadre.getFecha().plusDays(OCURRENCIAS_ANUALES - COLA)).orElseThrow();
+        entityManager.clear();
+
+        JdbcRoundTripCounter.reset();
+        int eliminadas = tareaService.eliminarTareaYPosteriores(primeraDeLaCola.getId());
+        entityManager.flush();
+        long viajes = JdbcRoundTripCounter.roundTrips();
+
+        assertEquals(COLA, eliminadas);
+        // Lectura de la tarea, DELETE de la cola, lectura y UPDATE de la serie
+        assertTrue(viajes <= 6, "Se esperaban como mucho 6 viajes y hubo " + viajes);
+        // Las tareas eliminadas no pasan por el contexto de persistencia
+        assertTrue(entityManager.unwrap(Session.class).getStatistics().getEntityCount() < 10);
+
+        List<TareaEntity> serie = tareaService.obtenerSerieRecurrente(tareaPadre.getId());
+        assertEquals(OCURRENCIAS_ANUALES - COLA, serie.size());
+        assertEquals(primeraDeLaCola.getFecha().minusDays(1), serie.getLast().getFecha());
+    }
+
+    @Test
+    void testEliminarSerie_EliminaTodasLasOcurrenciasYLaRegla() {
+        Long serieId = crearSerieDeUnAno().getSerieId();
+
+        JdbcRoundTripCounter.reset();
+        int eliminadas = tareaService.eliminarSerie(serieId);
+        entityManager.flush();
+        long viajes = JdbcRoundTripCounter.roundTrips();
+
+        assertEquals(OCURRENCIAS_ANUALES, eliminadas);
+        assertTrue(viajes <= 6, "Se esperaban como mucho 6 viajes y hubo " + viajes);
+        assertEquals(10, tareaRepository.count());
+        assertFalse(serieRepository.existsById(serieId));
+    }
+
+    @Test
+    void testEliminarSerie_SerieInexistente() {
+        Long serieId = crearSerieDeUnAno().getSerieId() + 1000;
+
+        assertThrows(AppEntityNotFoundException.class, () -> tareaService.eliminarSerie(serieId));
+    }
+
+    /**
+     * Dos tareas más el lunes de la semana objetivo: varias tareas comparten fecha y el orden
+     * depende también del id
+     */
+    private void crearTareasDelLunes() {
+        for (int i = 0; i < 2; i++) {
+            tareaService.crear(new CrearTareaRequest("Tarea Lunes " + i, puesto.getId(), turno.getId(),
+                TipoRecurrencia.UNA_VEZ.name(), null, null, fechaBaseSemana, 1, null));
+        }
+    }
+
+    /**
+     * Series diarias que comparten fechas: el orden depende también del id
+     */
+    private void crearSeriesDiarias() {
+        for (int i = 0; i < SERIES; i++) {
+            tareaService.crear(new CrearTareaRequest("Serie " + i, puesto.getId(), turno.getId(),
+                TipoRecurrencia.DIARIA.name(), null, null, null, OCURRENCIAS, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Serie diaria de un año. Sus inserciones no cuentan en las mediciones de viajes
+     */
+    private TareaEntity crearSerieDeUnAno() {
+        TareaEntity tareaPadre = tareaService.crear(new CrearTareaRequest("Serie de un año", puesto.getId(),
+            turno.getId(), TipoRecurrencia.DIARIA.name(), null, null, null, OCURRENCIAS_ANUALES, null));
+        entityManager.flush();
+        entityManager.clear();
+        return tareaPadre;
+    }
+
+    private List<TareaEntity> leerTodas(BiFunction<String, Integer, Pagina<TareaEntity>> consulta, int limite) {
+        List<TareaEntity> leidas = new ArrayList<>();
+        String cursor = null;
+        do {
+            Pagina<TareaEntity> pagina = consulta.apply(cursor, limite);
+            assertTrue(pagina.contenido().size() <= limite);
+            leidas.addAll(pagina.contenido());
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+        return leidas;
+    }
+}
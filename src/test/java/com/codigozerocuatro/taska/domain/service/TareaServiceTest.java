@@ -1,26 +1,38 @@
 package com.codigozerocuatro.taska.domain.service;
 
+import com.codigozerocuatro.taska.domain.exception.AppEntityNotFoundException;
 import com.codigozerocuatro.taska.domain.model.DiaSemana;
+import com.codigozerocuatro.taska.domain.model.EstrategiaInsercion;
+import com.codigozerocuatro.taska.domain.model.ModoSerie;
 import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
 import com.codigozerocuatro.taska.domain.model.TareaValida;
 import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
 import com.codigozerocuatro.taska.domain.service.impl.TareaServiceImpl;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
 import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
 import com.codigozerocuatro.taska.infra.dto.FiltroTareaRequest;
 import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaSerieEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
 import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaEliminadaJpaRepository;
 import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
 import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.List;
 import java.util.Optional;
 
@@ -48,6 +60,33 @@ public class TareaServiceTest {
     @Mock
     private TareaRecurrenciaGenerator recurrenciaGenerator;
 
+    @Mock
+    private TareaSerieJpaRepository serieRepository;
+
+    @Mock
+    private TareaSerieExpander serieExpander;
+
+    @Mock
+    private TareaSerieMaterializer serieMaterializer;
+
+    @Mock
+    private TareaSerieInsercion serieInsercion;
+
+    @Mock
+    private TareaCambios cambios;
+
+    @Mock
+    private TareaVersiones versiones;
+
+    @Mock
+    private TareaSuscripciones suscripciones;
+
+    @Mock
+    private TareaEliminadaJpaRepository eliminadaRepository;
+
+    @Spy
+    private AppProperties appProperties = new AppProperties(null, null, null, new AppProperties.Series(ModoSerie.MATERIALIZADA, Period.ofWeeks(4), 100, EstrategiaInsercion.JPA), new AppProperties.Paginacion(100, 500), new AppProperties.Replica(null, null, null, Duration.ofSeconds(2)), null, null);
+
     @InjectMocks
     private TareaServiceImpl tareaService;
 
@@ -80,26 +119,31 @@ public class TareaServiceTest {
         PuestoEntity puesto = mock(PuestoEntity.class);
         TurnoEntity turno = mock(TurnoEntity.class);
         
+        TareaSerieEntity serie = serie("descripcion", LocalDate.now().plusWeeks(50));
+        serie.setId(1L);
+        serie.setTipoRecurrencia(TipoRecurrencia.QUINCENAL);
+        serie.setDiaSemana(DiaSemana.MIERCOLES);
+
         TareaEntity tareaPadre = new TareaEntity();
-        tareaPadre.setDescripcion("descripcion");
-        tareaPadre.setTipoRecurrencia(TipoRecurrencia.QUINCENAL);
-        tareaPadre.setDiaSemana(DiaSemana.MIERCOLES);
+        tareaPadre.setSerie(serie);
         
         TareaEntity tareaPadreGuardada = new TareaEntity();
         tareaPadreGuardada.setId(1L);
-        tareaPadreGuardada.setDescripcion("descripcion");
-        tareaPadreGuardada.setTipoRecurrencia(TipoRecurrencia.QUINCENAL);
-        tareaPadreGuardada.setDiaSemana(DiaSemana.MIERCOLES);
+        tareaPadreGuardada.setSerie(serie);
 
         when(validator.validarTareaRequest(request)).thenReturn(tareaValidada);
         when(puestoService.obtenerPuestoPorId(anyLong())).thenReturn(puesto);
         when(turnoRepository.findById(anyLong())).thenReturn(Optional.of(turno));
         when(recurrenciaGenerator.componerTareaPadre(tareaValidada, puesto, turno)).thenReturn(tareaPadre);
+        when(serieRepository.save(serie)).thenReturn(serie);
         when(tareaRepository.save(tareaPadre)).thenReturn(tareaPadreGuardada);
-        when(recurrenciaGenerator.generarTareasHijas(tareaPadreGuardada, tareaValidada)).thenReturn(List.of());
+        when(serieInsercion.insertarOcurrencias(serie, serie.getFechaInicio().plusDays(1), serie.getFechaFin()))
+                .thenReturn(25);
 
         TareaEntity tarea = tareaService.crear(request);
 
+        assertEquals(1L, tareaPadre.getSerieId());
+
         assertNotNull(tarea);
         assertEquals("descripcion", tarea.getDescripcion());
         assertEquals(TipoRecurrencia.QUINCENAL, tarea.getTipoRecurrencia());
@@ -117,7 +161,7 @@ public class TareaServiceTest {
         when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(user);
 
         TareaEntity tareaMock = new TareaEntity();
-        tareaMock.setDescripcion("Tarea de prueba");
+        tareaMock.setSerie(serie("Tarea de prueba", null));
 
         when(tareaRepository.findAll(any(Specification.class))).thenReturn(List.of(tareaMock));
 
@@ -136,10 +180,11 @@ public class TareaServiceTest {
         Long id = 1L;
         TareaEntity tarea = new TareaEntity();
         tarea.setId(id);
-        tarea.setCompletada(false);
+        tarea.setCompletada(true);
+        tarea.setFechaCompletada(Instant.now());
+        tarea.setFecha(LocalDate.now());
 
-        when(tareaRepository.findById(id)).thenReturn(Optional.of(tarea));
-        when(tareaRepository.save(any(TareaEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tareaRepository.alternarCompletada(eq(id), any(Instant.class))).thenReturn(Optional.of(tarea));
 
         // when
         TareaEntity completadaTarea = tareaService.completar(id);
@@ -148,6 +193,17 @@ public class TareaServiceTest {
         assertNotNull(completadaTarea);
         assertTrue(completadaTarea.isCompletada());
         assertNotNull(completadaTarea.getFechaCompletada());
+        verify(tareaRepository, never()).save(any(TareaEntity.class));
+        verify(cambios).registrar(new TareaCambio(TareaCambio.Tipo.COMPLETADA, id, null,
+                tarea.getFecha(), tarea.getFecha(), true));
+    }
+
+    @Test
+    void testCompletarTarea_NoExiste() {
+        when(tareaRepository.alternarCompletada(eq(99L), any(Instant.class))).thenReturn(Optional.empty());
+
+        assertThrows(AppEntityNotFoundException.class, () -> tareaService.completar(99L));
+        verifyNoInteractions(cambios);
     }
 
     @Test
@@ -157,11 +213,11 @@ public class TareaServiceTest {
 
         TareaEntity tarea1 = new TareaEntity();
         tarea1.setId(1L);
-        tarea1.setDescripcion("tarea1");
+        tarea1.setSerie(serie("tarea1", null));
         
         TareaEntity tarea2 = new TareaEntity();
         tarea2.setId(2L);
-        tarea2.setDescripcion("tarea2");
+        tarea2.setSerie(serie("tarea2", LocalDate.now().plusMonths(11)));
 
         TareaValida tareaValidada1 = new TareaValida("tarea1", 1L, 1L, TipoRecurrencia.UNA_VEZ, null, null, LocalDate.now().plusDays(1), 1, null);
         TareaValida tareaValidada2 = new TareaValida("tarea2", 1L, 1L, TipoRecurrencia.MENSUAL, null, 5, null, 12, null);
@@ -174,8 +230,8 @@ public class TareaServiceTest {
         // Mock genérico para el generador
         when(recurrenciaGenerator.componerTareaPadre(any(TareaValida.class), any(), any()))
                 .thenReturn(tarea1, tarea2);
-        when(recurrenciaGenerator.generarTareasHijas(any(TareaEntity.class), any(TareaValida.class)))
-                .thenReturn(List.of());
+        when(serieRepository.save(any(TareaSerieEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
         
         when(tareaRepository.save(any(TareaEntity.class)))
                 .thenReturn(tarea1, tarea2);
@@ -196,17 +252,17 @@ public class TareaServiceTest {
 
         TareaEntity tarea1 = new TareaEntity();
         tarea1.setId(1L);
-        tarea1.setDescripcion("Tarea Lunes");
+        tarea1.setSerie(serie("Tarea Lunes", null));
         tarea1.setFecha(lunes);
 
         TareaEntity tarea2 = new TareaEntity();
         tarea2.setId(2L);
-        tarea2.setDescripcion("Tarea Miércoles");
+        tarea2.setSerie(serie("Tarea Miércoles", null));
         tarea2.setFecha(fechaEnLaSemana);
 
         TareaEntity tarea3 = new TareaEntity();
         tarea3.setId(3L);
-        tarea3.setDescripcion("Tarea Domingo");
+        tarea3.setSerie(serie("Tarea Domingo", null));
         tarea3.setFecha(domingo);
 
         List<TareaEntity> tareasEsperadas = List.of(tarea1, tarea2, tarea3);
@@ -240,12 +296,12 @@ public class TareaServiceTest {
         // Tareas dentro de la semana
         TareaEntity tareaViernes = new TareaEntity();
         tareaViernes.setId(1L);
-        tareaViernes.setDescripcion("Tarea Viernes");
+        tareaViernes.setSerie(serie("Tarea Viernes", null));
         tareaViernes.setFecha(fechaEnLaSemana);
 
         TareaEntity tareaSabado = new TareaEntity();
         tareaSabado.setId(2L);
-        tareaSabado.setDescripcion("Tarea Sábado");
+        tareaSabado.setSerie(serie("Tarea Sábado", null));
         tareaSabado.setFecha(LocalDate.of(2025, 9, 20));
 
         // Solo las tareas de la semana son devueltas por el repositorio
@@ -270,4 +326,12 @@ public class TareaServiceTest {
         assertTrue(tareas.get(0).getFecha().isBefore(tareas.get(1).getFecha()) ||
                    tareas.get(0).getFecha().isEqual(tareas.get(1).getFecha()));
     }
+
+    private static TareaSerieEntity serie(String descripcion, LocalDate fechaFin) {
+        TareaSerieEntity serie = new TareaSerieEntity();
+        serie.setDescripcion(descripcion);
+        serie.setFechaInicio(LocalDate.now());
+        serie.setFechaFin(fechaFin != null ? fechaFin : LocalDate.now());
+        return serie;
+    }
 }
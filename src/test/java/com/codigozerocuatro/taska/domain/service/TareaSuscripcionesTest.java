@@ -0,0 +1,170 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TareaSuscripcionesTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 10, 19);
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    private final TareaSuscripciones suscripciones = new TareaSuscripciones(new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        suscripciones.cerrar();
+    }
+
+    @Test
+    void testPublicar_SoloLasSuscripcionesQueCoinciden() throws InterruptedException {
+        Registro puestoYFecha = suscribir(1L, HOY);
+        Registro puesto = suscribir(1L, null);
+        Registro otroPuesto = suscribir(2L, HOY);
+        Registro otraFecha = suscribir(1L, HOY.plusDays(10));
+        Registro todos = suscribir(null, null);
+
+        suscripciones.publicar(cambio(1L, HOY.minusDays(1), HOY.plusDays(1)));
+
+        await().atMost(ESPERA).until(() -> puestoYFecha.cambios.size() == 1
+                && puesto.cambios.size() == 1 && todos.cambios.size() == 1);
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(otroPuesto.cambios.isEmpty());
+        assertTrue(otraFecha.cambios.isEmpty());
+        assertEquals(1, puestoYFecha.cambios.size());
+    }
+
+    @Test
+    void testPublicar_SinPuestoOSinFinLlegaATodosLosAfectados() {
+        Registro cocinero = suscribir(1L, HOY.plusYears(1));
+        Registro camarero = suscribir(2L, HOY);
+        Registro anterior = suscribir(2L, HOY.minusDays(1));
+
+        suscripciones.publicar(cambio(null, HOY, null));
+
+        await().atMost(ESPERA).until(() -> cocinero.cambios.size() == 1 && camarero.cambios.size() == 1);
+        assertTrue(anterior.cambios.isEmpty());
+    }
+
+    @Test
+    void testPublicar_EnOrdenDentroDeCadaSuscripcion() {
+        Registro registro = suscribir(1L, HOY);
+        List<TareaCambio> publicados = IntStream.range(0, 200)
+                .mapToObj(i -> new TareaCambio(TareaCambio.Tipo.COMPLETADA, (long) i, 1L, HOY, HOY, i % 2 == 0))
+                .toList();
+
+        publicados.forEach(suscripciones::publicar);
+
+        await().atMost(ESPERA).until(() -> registro.cambios.size() == publicados.size());
+        assertEquals(publicados, registro.cambios);
+    }
+
+    @Test
+    void testCancelar_DejaDeRecibir() throws InterruptedException {
+        Registro registro = suscribir(1L, HOY);
+        suscripciones.cancelar(registro.suscripcion);
+        // Cancelar dos veces no falla
+        suscripciones.cancelar(registro.suscripcion);
+
+        suscripciones.publicar(cambio(1L, HOY, HOY));
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(registro.cambios.isEmpty());
+        assertEquals(0, suscripciones.activas());
+    }
+
+    @Test
+    void testErrorDeEnvio_DescartaLaSuscripcion() {
+        Registro registro = suscribir(1L, HOY);
+        registro.fallar.set(true);
+
+        suscripciones.publicar(cambio(1L, HOY, HOY));
+
+        await().atMost(ESPERA).until(() -> registro.cerrada.getCount() == 0);
+        assertEquals(0, suscripciones.activas());
+    }
+
+    @Test
+    void testClienteLento_SeDescartaAlAcumularEventos() throws InterruptedException {
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        Registro registro = suscribir(1L, HOY);
+        registro.bloqueo = bloqueo;
+
+        for (int i = 0; i <= TareaSuscripciones.MAX_PENDIENTES + 1; i++) {
+            suscripciones.publicar(cambio(1L, HOY, HOY));
+        }
+
+        assertTrue(registro.cerrada.await(5, TimeUnit.SECONDS));
+        assertEquals(0, suscripciones.activas());
+        bloqueo.countDown();
+    }
+
+    @Test
+    void testLatir_LlegaATodasLasSuscripciones() {
+        Registro uno = suscribir(1L, HOY);
+        Registro otro = suscribir(null, null);
+
+        suscripciones.latir();
+
+        await().atMost(ESPERA).until(() -> uno.latidos.getCount() == 0 && otro.latidos.getCount() == 0);
+    }
+
+    private Registro suscribir(Long puestoId, LocalDate fecha) {
+        Registro registro = new Registro();
+        registro.suscripcion = suscripciones.suscribir(puestoId, fecha, registro);
+        return registro;
+    }
+
+    private static TareaCambio cambio(Long puestoId, LocalDate desde, LocalDate hasta) {
+        return TareaCambio.de(TareaCambio.Tipo.CREADA, puestoId, desde, hasta);
+    }
+
+    private static class Registro implements TareaSuscripciones.Receptor {
+
+        private final List<TareaCambio> cambios = new CopyOnWriteArrayList<>();
+        private final CountDownLatch latidos = new CountDownLatch(1);
+        private final CountDownLatch cerrada = new CountDownLatch(1);
+        private final AtomicBoolean fallar = new AtomicBoolean();
+        private volatile CountDownLatch bloqueo;
+        private TareaSuscripciones.Suscripcion suscripcion;
+
+        @Override
+        public void recibir(TareaCambio cambio) throws IOException {
+            if (fallar.get()) {
+                throw new IOException("Conexión cerrada");
+            }
+            if (bloqueo != null) {
+                try {
+                    bloqueo.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            cambios.add(cambio);
+        }
+
+        @Override
+        public void latido() {
+            latidos.countDown();
+        }
+
+        @Override
+        public void cerrar() {
+            cerrada.countDown();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.codigozerocuatro.taska.domain.service;
+
+import com.codigozerocuatro.taska.domain.model.CacheKey;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.infra.dto.CrearUserRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cada cambio en un usuario invalida solo sus entradas de la caché USER, con todas sus claves.
+ * No es transaccional: la invalidación se hace al confirmar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class UsuarioCacheIntegrationTest {
+
+    // La tabla de versiones de seguridad recuerda los usernames: uno distinto en cada test
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    @Qualifier("cacheManagerUser")
+    private CacheManager cacheManagerUser;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache cache;
+    private String cocinero;
+    private String camarero;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        cache = cacheManagerUser.getCache(CacheKey.USER);
+        cocinero = usuario("cocinero", PuestoEnum.COCINERO);
+        camarero = usuario("camarero", PuestoEnum.CAMARERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        puestoRepository.deleteAll();
+    }
+
+    @Test
+    void testCambioDePassword_SoloInvalidaAlUsuario() {
+        cargar(cocinero);
+        cargar(camarero);
+
+        userService.adminChangePassword(cocinero, "otro-secreto");
+
+        for (String clave : UsuarioCache.claves(cocinero)) {
+            assertNull(cache.get(clave), clave);
+        }
+        assertNotNull(cache.get(camarero));
+        assertNotNull(cache.get(camarero + "_true"));
+    }
+
+    @Test
+    void testDesactivar_LasDosConsultasVenElCambio() {
+        cargar(cocinero);
+
+        userService.desactivarUsuario(cocinero);
+
+        assertFalse(userService.obtenerUsuarioPorUsername(cocinero).getActivo());
+        assertTrue(userRepository.findByUsernameAndActivo(cocinero, true).isEmpty());
+        assertTrue(userRepository.findByUsernameAndActivo(cocinero, false).isPresent());
+
+        userService.activarUsuario(cocinero);
+
+        assertTrue(userService.obtenerUsuarioPorUsername(cocinero).getActivo());
+        assertTrue(userRepository.findByUsernameAndActivo(cocinero, true).isPresent());
+        assertTrue(userRepository.findByUsernameAndActivo(cocinero, false).isEmpty());
+    }
+
+    @Test
+    void testCrear_NoSeQuedaCacheadoQueNoExistia() {
+        PuestoEntity puesto = puestoRepository.save(new PuestoEntity(PuestoEnum.PINCHE));
+        String nuevo = "nuevo" + SECUENCIA.incrementAndGet();
+
+        userService.crearUsuario(new CrearUserRequest(nuevo, "Secreto123", "Nuevo", puesto.getId()));
+
+        assertEquals(nuevo, userService.obtenerUsuarioPorUsername(nuevo).getUsername());
+    }
+
+    @Test
+    void testEstadisticas_SeExportanAciertosYFallos() {
+        double aciertos = gets(CacheKey.USER, "hit");
+        double fallos = gets(CacheKey.USER, "miss");
+
+        userRepository.findByUsername(camarero);
+        userRepository.findByUsername(camarero);
+
+        assertEquals(fallos + 1, gets(CacheKey.USER, "miss"));
+        assertEquals(aciertos + 1, gets(CacheKey.USER, "hit"));
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CacheKey.USER).functionCounter());
+        // También las cachés del gestor principal
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheKey.PUESTOS).tag("result", "hit").functionCounter());
+    }
+
+    private void cargar(String username) {
+        userRepository.findByUsername(username);
+        userRepository.findByUsernameAndActivo(username, true);
+        assertNotNull(cache.get(username));
+        assertNotNull(cache.get(username + "_true"));
+    }
+
+    private double gets(String nombre, String resultado) {
+        return meterRegistry.get("cache.gets").tag("cache", nombre).tag("result", resultado).functionCounter().count();
+    }
+
+    private String usuario(String prefijo, PuestoEnum puesto) {
+        UserEntity user = new UserEntity(prefijo + SECUENCIA.incrementAndGet(), "{noop}secreto", prefijo);
+        user.setRol(RolEnum.USER);
+        user.setPuesto(puesto);
+        return userRepository.save(user).getUsername();
+    }
+}
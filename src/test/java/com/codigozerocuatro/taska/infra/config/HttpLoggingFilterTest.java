@@ -0,0 +1,47 @@
+package com.codigozerocuatro.taska.infra.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpLoggingFilterTest {
+
+    private final HttpLoggingFilter filter = new HttpLoggingFilter();
+
+    @Test
+    void testRespuestaNormal_SeCopiaAlTerminar() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tareas");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+            // El cuerpo se acumula para logarlo y todavía no ha llegado a la respuesta
+            assertEquals("", response.getContentAsString());
+        });
+
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void testRespuestaStreaming_SeEscribeSinAcumular() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tareas/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            HttpLoggingFilter.disableContentCaching(req);
+            res.setContentType("application/x-ndjson");
+            res.getOutputStream().write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+            // Cada línea llega a la respuesta en cuanto se escribe
+            assertEquals("{\"id\":1}\n", response.getContentAsString());
+            res.getOutputStream().write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", response.getContentAsString());
+    }
+}
@@ -0,0 +1,172 @@
+package com.codigozerocuatro.taska.infra.config;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.domain.service.SecurityUtils;
+import com.codigozerocuatro.taska.domain.service.TareaService;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import com.codigozerocuatro.taska.support.Usuarios;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dos bases de datos H2: la primaria de los tests y una réplica con el mismo esquema que nunca
+ * recibe datos. Una lectura que no encuentra lo que se acaba de escribir se ha hecho en la réplica.
+ * No es transaccional: el retraso de la réplica cuenta desde la confirmación.
+ */
+@SpringBootTest(properties = {
+        "app.replica.url=" + ReplicaDataSourceIntegrationTest.REPLICA_URL,
+        "app.replica.username=sa",
+        "app.replica.max-lag=500ms"
+})
+@ActiveProfiles("test")
+public class ReplicaDataSourceIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private static final Duration MAX_LAG = Duration.ofMillis(500);
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaJpaRepository tareaRepository;
+
+    @Autowired
+    private TareaSerieJpaRepository serieRepository;
+
+    @Autowired
+    private PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    private TurnoJpaRepository turnoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private SecurityUtils securityUtils;
+
+    private final LocalDate fecha = LocalDate.now().plusWeeks(8);
+
+    private TareaEntity tarea;
+
+    @BeforeAll
+    static void crearEsquemaReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        Long puesto = puestoRepository.save(new PuestoEntity(PuestoEnum.COCINERO)).getId();
+        Long turno = turnoRepository.save(new TurnoEntity(TurnoEnum.MANANA)).getId();
+
+        when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(Usuarios.admin());
+
+        autenticar("admin");
+        tarea = tareaService.crear(new CrearTareaRequest("Cocina", puesto, turno,
+                TipoRecurrencia.UNA_VEZ.name(), null, null, fecha, 1, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        tareaRepository.deleteAll();
+        serieRepository.deleteAll();
+        puestoRepository.deleteAll();
+        turnoRepository.deleteAll();
+    }
+
+    @Test
+    void testLectura_OtroUsuarioLeeDeLaReplica() {
+        double antes = decisiones("replica", "read-only");
+
+        autenticar("otro");
+        assertTrue(tareaService.obtenerSerieRecurrente(tarea.getId()).isEmpty());
+
+        assertTrue(decisiones("replica", "read-only") > antes);
+    }
+
+    @Test
+    void testLectura_QuienEscribeLeeDeLaPrimariaDuranteElRetraso() {
+        double antes = decisiones("primaria", "own-write");
+
+        assertEquals(List.of(tarea.getId()), ids(tareaService.obtenerSerieRecurrente(tarea.getId())));
+        assertTrue(decisiones("primaria", "own-write") > antes);
+
+        // Pasado el retraso máximo, también sus lecturas van a la réplica
+        await().pollDelay(MAX_LAG).atMost(Duration.ofSeconds(5))
+                .until(() -> tareaService.obtenerSerieRecurrente(tarea.getId()).isEmpty());
+    }
+
+    @Test
+    void testSemana_TrasUnCambioSeLeeDeLaPrimaria() {
+        double antes = decisiones("primaria", "requested");
+
+        // La versión de la semana ya incluye el cambio: otro usuario también debe verlo
+        autenticar("otro");
+        assertEquals(List.of(tarea.getId()), ids(tareaService.obtenerTareasPorSemana(fecha)));
+        assertTrue(decisiones("primaria", "requested") > antes);
+
+        await().pollDelay(MAX_LAG).atMost(Duration.ofSeconds(5))
+                .until(() -> tareaService.obtenerTareasPorSemana(fecha).isEmpty());
+    }
+
+    @Test
+    void testEscritura_SiempreEnLaPrimaria() {
+        double antes = decisiones("primaria", "read-write");
+
+        autenticar("otro");
+        assertTrue(tareaService.completar(tarea.getId()).isCompletada());
+
+        assertTrue(tareaRepository.findById(tarea.getId()).orElseThrow().isCompletada());
+        assertTrue(decisiones("primaria", "read-write") > antes);
+    }
+
+    private double decisiones(String destino, String motivo) {
+        return meterRegistry.get("datasource.routing")
+                .tag("target", destino)
+                .tag("reason", motivo)
+                .counter()
+                .count();
+    }
+
+    private static void autenticar(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+    }
+
+    private static List<Long> ids(List<TareaEntity> tareas) {
+        return tareas.stream().map(TareaEntity::getId).toList();
+    }
+}
@@ -0,0 +1,204 @@
+package com.codigozerocuatro.taska.infra.config.cache;
+
+import com.codigozerocuatro.taska.domain.model.CacheKey;
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.TareaCambio;
+import com.codigozerocuatro.taska.domain.service.TareaCambios;
+import com.codigozerocuatro.taska.domain.service.TareaVersiones;
+import com.codigozerocuatro.taska.domain.service.UserService;
+import com.codigozerocuatro.taska.domain.service.VersionesSeguridad;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import com.codigozerocuatro.taska.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La aplicación y una segunda instancia del bus, creada en el test, se avisan por LISTEN/NOTIFY
+ * sobre el mismo PostgreSQL. No es transaccional: los avisos salen al confirmar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class BusInvalidacionesPostgresTest extends PostgresIntegrationTest {
+
+    // La tabla de versiones de seguridad recuerda los usernames: uno distinto en cada test
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+    private static final Duration ESPERA = Duration.ofSeconds(10);
+
+    @Autowired
+    private BusInvalidaciones bus;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private TareaVersiones versiones;
+
+    @Autowired
+    @Qualifier("cacheManagerUser")
+    private CacheManager cacheManagerUser;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry metricasOtra = new SimpleMeterRegistry();
+    private final ConcurrentLinkedQueue<String> usuariosRecibidos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger invalidacionesTotales = new AtomicInteger();
+
+    private BusInvalidaciones otra;
+    private String username;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        tearDown();
+        UserEntity user = new UserEntity("cocinero" + SECUENCIA.incrementAndGet(), "{noop}secreto", "Cocinero");
+        user.setRol(RolEnum.USER);
+        user.setPuesto(PuestoEnum.COCINERO);
+        username = userRepository.save(user).getUsername();
+
+        await().atMost(ESPERA).until(bus::conectado);
+        otra = otraInstancia();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (otra != null) {
+            otra.detener();
+        }
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testCambioDePassword_LlegaALaOtraInstancia() {
+        userService.adminChangePassword(username, "otro-secreto");
+
+        await().atMost(ESPERA).until(() -> usuariosRecibidos.contains(username));
+    }
+
+    @Test
+    void testRevocacion_LaOtraInstanciaRecargaLaVersion() {
+        // Sin caducidad efectiva: solo el aviso hace que la otra instancia vuelva a leer la versión
+        VersionesSeguridad versionesOtra = new VersionesSeguridad(userRepository, otra, new AppProperties(
+                new AppProperties.Jwt("secreto", 3_600_000, 604_800_000, 0, Duration.ofHours(1)),
+                null, null, null, null, null, null, null));
+        assertTrue(versionesOtra.vigente(username, 0));
+
+        userService.desactivarUsuario(username);
+
+        await().atMost(ESPERA).until(() -> !versionesOtra.vigente(username, 0));
+        assertTrue(versionesOtra.vigente(username, 1));
+    }
+
+    @Test
+    void testUsuarioDeOtraInstancia_SeEliminaDeLaCache() {
+        Cache cache = cacheManagerUser.getCache(CacheKey.USER);
+        userRepository.findByUsername(username);
+        assertNotNull(cache.get(username));
+
+        otra.publicar(CacheKey.USER, username);
+
+        await().atMost(ESPERA).until(() -> cache.get(username) == null);
+    }
+
+    @Test
+    void testCambioDeTareasDeOtraInstancia_AvanzaLaVersion() {
+        LocalDate fecha = LocalDate.now().plusDays(3);
+        String antes = versiones.version(1L, fecha, fecha);
+
+        otra.publicar(TareaCambios.TEMA, TareaCambio.de(TareaCambio.Tipo.CREADA, 1L, fecha, fecha));
+
+        await().atMost(ESPERA).until(() -> !versiones.version(1L, fecha, fecha).equals(antes));
+    }
+
+    @Test
+    void testLote_VariosMensajesPorNotificacion() {
+        double enviadasAntes = metricasOtra.get("cache.bus.sent").counter().count();
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            usernames.add("usuario-" + i);
+        }
+        ConcurrentLinkedQueue<String> recibidos = new ConcurrentLinkedQueue<>();
+        bus.suscribir("PRUEBA", String.class, recibidos::add, () -> { });
+
+        usernames.forEach(nombre -> otra.publicar("PRUEBA", nombre));
+
+        await().atMost(ESPERA).until(() -> recibidos.size() == usernames.size());
+        assertEquals(usernames, new ArrayList<>(recibidos));
+        // Más de una notificación: 300 mensajes no caben en los 8000 bytes de NOTIFY
+        double enviadas = metricasOtra.get("cache.bus.sent").counter().count() - enviadasAntes;
+        assertTrue(enviadas > 1 && enviadas < 20, "Notificaciones: " + enviadas);
+    }
+
+    @Test
+    void testReconexion_InvalidaTodoYSigueRecibiendo() throws InterruptedException {
+        Set<Integer> conexiones = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT pid FROM pg_stat_activity WHERE application_name = 'taska-invalidaciones'", Integer.class));
+        assertEquals(2, conexiones.size());
+        otra.detener();
+        Set<Integer> deLaAplicacion = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT pid FROM pg_stat_activity WHERE application_name = 'taska-invalidaciones'", Integer.class));
+        conexiones.removeAll(deLaAplicacion);
+        assertEquals(1, conexiones.size());
+
+        // Una instancia nueva, con una conexión que se corta
+        otra = otraInstancia();
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                + "WHERE application_name = 'taska-invalidaciones' AND pid <> ALL (?)", Boolean.class,
+                (Object) deLaAplicacion.toArray(Integer[]::new));
+
+        await().atMost(ESPERA).until(() -> invalidacionesTotales.get() == 1);
+        assertEquals(1, metricasOtra.get("cache.bus.reconnections").counter().count());
+        await().atMost(ESPERA).until(otra::conectado);
+
+        userService.adminChangePassword(username, "otro-secreto");
+        await().atMost(ESPERA).until(() -> usuariosRecibidos.contains(username));
+    }
+
+    /**
+     * Segunda instancia del bus, con reintentos cortos
+     */
+    private BusInvalidaciones otraInstancia() {
+        BusInvalidaciones instancia = new BusInvalidaciones(new AppProperties(null, null, null, null, null, null, null,
+                new AppProperties.Invalidaciones(true, "taska_cache", Duration.ofMillis(100), Duration.ofMillis(200))),
+                dataSourceProperties, objectMapper, metricasOtra);
+        instancia.suscribir(CacheKey.USER, String.class, usuariosRecibidos::add, invalidacionesTotales::incrementAndGet);
+        instancia.iniciar();
+        await().atMost(ESPERA).until(instancia::conectado);
+        return instancia;
+    }
+}
@@ -0,0 +1,147 @@
+package com.codigozerocuatro.taska.infra.config.security;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.User;
+import com.codigozerocuatro.taska.domain.service.UserService;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import com.codigozerocuatro.taska.infra.security.JwtService;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * El usuario autenticado se construye con los claims del token; la base de datos solo se consulta
+ * la primera vez para conocer su versión de seguridad. No es transaccional: la tabla de versiones
+ * se actualiza al confirmar.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Import(JdbcRoundTripCounter.class)
+public class JwtAuthenticationFilterIntegrationTest {
+
+    // La tabla de versiones y la caché de usuarios los recuerdan por username: uno distinto en cada test
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    private UserEntity cocinero;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        UserEntity user = new UserEntity("cocinero" + SECUENCIA.incrementAndGet(), "{noop}secreto", "Cocinero");
+        user.setRol(RolEnum.USER);
+        user.setPuesto(PuestoEnum.COCINERO);
+        cocinero = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testPeticion_SinConsultarElUsuario() throws Exception {
+        String token = jwtService.generateToken(autenticacion(cocinero));
+        // La primera petición carga la versión de seguridad; /api/turnos responde desde su caché
+        mockMvc.perform(get("/api/turnos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        JdbcRoundTripCounter.reset();
+        mockMvc.perform(get("/api/turnos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertEquals(0, JdbcRoundTripCounter.roundTrips());
+    }
+
+    @Test
+    void testPeticion_ElPrincipalLlevaRolYPuesto() throws Exception {
+        String token = jwtService.generateToken(autenticacion(cocinero));
+
+        // Solo los administradores gestionan usuarios
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/profile/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Cocinero"))
+                .andExpect(jsonPath("$.puesto").value("COCINERO"));
+    }
+
+    @Test
+    void testDesactivar_RevocaLosTokensEmitidos() throws Exception {
+        String token = jwtService.generateToken(autenticacion(cocinero));
+        mockMvc.perform(get("/api/turnos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        userService.desactivarUsuario(cocinero.getUsername());
+
+        mockMvc.perform(get("/api/turnos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testCambioDePassword_RevocaAccesoYRefresh() throws Exception {
+        String token = jwtService.generateToken(autenticacion(cocinero));
+        String refresh = jwtService.generateRefreshToken(autenticacion(cocinero));
+
+        userService.adminChangePassword(cocinero.getUsername(), "otro-secreto");
+
+        mockMvc.perform(get("/api/turnos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/refresh").cookie(new Cookie("refresh_token", refresh)))
+                .andExpect(status().isUnauthorized());
+
+        // Los tokens emitidos con la versión nueva sí valen
+        UserEntity actualizado = userRepository.findById(cocinero.getId()).orElseThrow();
+        assertEquals(cocinero.getVersionSeguridad() + 1, actualizado.getVersionSeguridad());
+        mockMvc.perform(get("/api/turnos")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.generateToken(autenticacion(actualizado))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testRefresh_ConVersionVigente() throws Exception {
+        String refresh = jwtService.generateRefreshToken(autenticacion(cocinero));
+
+        mockMvc.perform(post("/api/auth/refresh").cookie(new Cookie("refresh_token", refresh)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    private static Authentication autenticacion(UserEntity user) {
+        User principal = new User(user);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,95 @@
+package com.codigozerocuatro.taska.infra.config.security;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.User;
+import com.codigozerocuatro.taska.domain.service.VersionesSeguridad;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.config.cache.BusInvalidaciones;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import com.codigozerocuatro.taska.infra.security.JwtService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dos instancias de la aplicación sobre la misma tabla de usuarios y sin avisos entre ellas, como
+ * si se perdiera el de la revocación: la otra la ve, como tarde, cuando caduca la versión que había
+ * cargado. El aviso por el bus se prueba en BusInvalidacionesPostgresTest.
+ */
+public class JwtAuthenticationFilterVariasInstanciasTest {
+
+    private static final String SECRET = "test-secret-for-jwt-in-tests-this-should-be-at-least-32-characters-long";
+    private static final FilterChain FIN = (request, response) -> { };
+
+    private final AtomicLong versionEnTabla = new AtomicLong();
+    private final UserJpaRepository userRepository = mock(UserJpaRepository.class);
+    private final AppProperties appProperties = new AppProperties(new AppProperties.Jwt(SECRET, 3_600_000,
+            604_800_000, 100, Duration.ofMillis(300)), null, null, null, null, null, null, null);
+    private final JwtService jwtService = new JwtService(appProperties);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRevocarEnUnaInstancia_LaOtraRechazaElToken() throws Exception {
+        when(userRepository.findVersionSeguridadByUsername("cocinero"))
+                .thenAnswer(invocation -> Optional.of(versionEnTabla.get()));
+        VersionesSeguridad versionesA = new VersionesSeguridad(userRepository, mock(BusInvalidaciones.class), appProperties);
+        JwtAuthenticationFilter instanciaA = new JwtAuthenticationFilter(jwtService, versionesA);
+        JwtAuthenticationFilter instanciaB = new JwtAuthenticationFilter(jwtService,
+                new VersionesSeguridad(userRepository, mock(BusInvalidaciones.class), appProperties));
+        UserEntity user = cocinero();
+        String token = token(user);
+        assertTrue(autentica(instanciaA, token));
+        assertTrue(autentica(instanciaB, token));
+
+        versionesA.revocar(user);
+        versionEnTabla.set(user.getVersionSeguridad());
+
+        assertFalse(autentica(instanciaA, token));
+        await().atMost(Duration.ofSeconds(5)).until(() -> !autentica(instanciaB, token));
+        // Los tokens emitidos con la versión nueva valen en las dos
+        String nuevo = token(user);
+        assertTrue(autentica(instanciaA, nuevo));
+        assertTrue(autentica(instanciaB, nuevo));
+    }
+
+    private boolean autentica(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/turnos");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), FIN);
+        boolean autenticado = SecurityContextHolder.getContext().getAuthentication() != null;
+        SecurityContextHolder.clearContext();
+        return autenticado;
+    }
+
+    private String token(UserEntity user) {
+        User principal = new User(user);
+        return jwtService.generateToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static UserEntity cocinero() {
+        UserEntity user = new UserEntity();
+        user.setUsername("cocinero");
+        user.setRol(RolEnum.USER);
+        user.setPuesto(PuestoEnum.COCINERO);
+        return user;
+    }
+}
@@ -0,0 +1,124 @@
+package com.codigozerocuatro.taska.infra.config.security;
+
+import com.codigozerocuatro.taska.domain.exception.AppServiceUnavailableException;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncoderAcotadoTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final PasswordEncoderAcotado encoder = new PasswordEncoderAcotado(new Bloqueante(liberar), 1, 1, meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void testMatches_DelegaYMideElHash() {
+        liberar.countDown();
+
+        assertTrue(encoder.matches("secreto", "hash:secreto"));
+        assertFalse(encoder.matches("otro", "hash:secreto"));
+        assertEquals("hash:secreto", encoder.encode("secreto"));
+
+        assertEquals(2, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void testColaLlena_RechazaAlMomento() throws Exception {
+        CompletableFuture<Boolean> enCurso = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash:a"));
+        await().atMost(ESPERA).until(() -> meterRegistry.get("password.hash.active").gauge().value() == 1);
+        CompletableFuture<Boolean> enCola = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash:b"));
+        await().atMost(ESPERA).until(() -> meterRegistry.get("password.hash.queue").gauge().value() == 1);
+
+        long inicio = System.nanoTime();
+        assertThrows(AppServiceUnavailableException.class, () -> encoder.matches("c", "hash:c"));
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, meterRegistry.get("password.hash.rejected").counter().count());
+
+        // Al liberar el hilo se completan los que ya estaban admitidos
+        liberar.countDown();
+        assertTrue(enCurso.get(5, TimeUnit.SECONDS));
+        assertTrue(enCola.get(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("password.hash.queue").gauge().value());
+    }
+
+    @Test
+    void testSinCola_SoloAdmiteLosHilos() {
+        try (PasswordEncoderAcotado sinCola = new PasswordEncoderAcotado(new Bloqueante(liberar), 1, 0, new SimpleMeterRegistry())) {
+            CompletableFuture.supplyAsync(() -> sinCola.matches("a", "hash:a"));
+            await().atMost(ESPERA).untilAsserted(() ->
+                    assertThrows(AppServiceUnavailableException.class, () -> sinCola.matches("b", "hash:b")));
+        }
+    }
+
+    @Test
+    void testErrorDelDelegado_SePropaga() {
+        liberar.countDown();
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.matches("a", null));
+    }
+
+    @Test
+    void testPasswordEncoder_HasheaConElCosteConfigurado() {
+        AppProperties appProperties = new AppProperties(null, null, null, null, null, null,
+                new AppProperties.Password(5, 1, 1), null);
+
+        try (PasswordEncoderAcotado configurado = (PasswordEncoderAcotado) new AuthConfig().passwordEncoder(appProperties, meterRegistry)) {
+            String hash = configurado.encode("secreto");
+
+            // El coste viaja en el hash: BCrypt hace 2^coste rondas
+            assertTrue(hash.startsWith("$2a$05$"), hash);
+            assertTrue(configurado.matches("secreto", hash));
+            // Cambiar el coste no invalida los hashes guardados con el anterior
+            assertTrue(configurado.matches("secreto", new BCryptPasswordEncoder(4).encode("secreto")));
+        }
+    }
+
+    /**
+     * Codifica como "hash:" + contraseña y espera a que el test lo libere
+     */
+    private record Bloqueante(CountDownLatch liberar) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            esperar();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            esperar();
+            if (encodedPassword == null) {
+                throw new IllegalArgumentException("Sin hash");
+            }
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+
+        private void esperar() {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.codigozerocuatro.taska.infra.controller;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Con un solo hilo de hash y sin cola, los logins simultáneos que no caben se rechazan al momento
+ * con 503 y Retry-After en lugar de esperar su turno.
+ */
+@SpringBootTest(properties = {"app.password.hilos=1", "app.password.cola=0"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public class AuthControllerLoginSaturadoIntegrationTest {
+
+    private static final int LOGINS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        tearDown();
+        UserEntity user = new UserEntity("camarero", passwordEncoder.encode("secreto"), "Camarero");
+        user.setRol(RolEnum.USER);
+        user.setPuesto(PuestoEnum.CAMARERO);
+        userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testLogin_PoolSaturadoResponde503() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(LOGINS);
+        List<MockHttpServletResponse> respuestas = new ArrayList<>();
+        try {
+            List<Callable<MockHttpServletResponse>> logins = new ArrayList<>();
+            for (int i = 0; i < LOGINS; i++) {
+                logins.add(() -> {
+                    salida.await();
+                    return mockMvc.perform(post("/api/auth/login")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"username\":\"camarero\",\"password\":\"secreto\"}"))
+                            .andReturn()
+                            .getResponse();
+                });
+            }
+            List<Future<MockHttpServletResponse>> futuros = logins.stream().map(executor::submit).toList();
+            salida.countDown();
+            for (Future<MockHttpServletResponse> futuro : futuros) {
+                respuestas.add(futuro.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Integer> estados = respuestas.stream().map(MockHttpServletResponse::getStatus).toList();
+        assertTrue(estados.contains(200), estados.toString());
+        assertTrue(estados.contains(503), estados.toString());
+        assertTrue(estados.stream().allMatch(estado -> estado == 200 || estado == 503), estados.toString());
+        for (MockHttpServletResponse respuesta : respuestas) {
+            if (respuesta.getStatus() == 503) {
+                assertEquals("1", respuesta.getHeader(HttpHeaders.RETRY_AFTER));
+                assertTrue(respuesta.getContentAsString().contains("error.service.unavailable"));
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.codigozerocuatro.taska.infra.controller;
+
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conexiones fuera del pool justo antes de serializar la respuesta de /api/tareas/week. Sin
+ * open-in-view la conexión vuelve al pool al terminar la transacción de solo lectura; con
+ * open-in-view no vuelve hasta terminar la petición, serialización incluida. Las dos peticiones
+ * usan el mismo contexto: la de open-in-view añade su filtro a un MockMvc propio.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+@Import(OpenInViewConexionesIntegrationTest.ConexionesAlSerializar.class)
+public class OpenInViewConexionesIntegrationTest extends TareaIntegrationTest {
+
+    private final LocalDate lunes = LocalDate.now().plusWeeks(10).with(DayOfWeek.MONDAY);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ConexionesAlSerializar conexiones;
+
+    @BeforeEach
+    void setUp() {
+        tareaService.crear(new CrearTareaRequest("Limpiar cámara", puesto.getId(), turno.getId(),
+                TipoRecurrencia.UNA_VEZ.name(), null, null, lunes, null, null));
+    }
+
+    @Test
+    void testSemana_DevuelveLaConexionAntesDeSerializar() throws Exception {
+        assertEquals(0, conexionesAlSerializarSemana(mockMvc));
+    }
+
+    @Test
+    void testSemana_ConOpenInViewRetieneLaConexionAlSerializar() throws Exception {
+        OpenEntityManagerInViewFilter openInView = new OpenEntityManagerInViewFilter() {
+            @Override
+            protected EntityManagerFactory lookupEntityManagerFactory() {
+                return entityManagerFactory;
+            }
+        };
+        MockMvc conOpenInView = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(openInView)
+                .apply(springSecurity())
+                .build();
+
+        assertEquals(1, conexionesAlSerializarSemana(conOpenInView));
+    }
+
+    /**
+     * Conexiones activas del pool cuando la respuesta de la semana empieza a serializarse
+     */
+    private int conexionesAlSerializarSemana(MockMvc mockMvc) throws Exception {
+        conexiones.reiniciar();
+        mockMvc.perform(get("/api/tareas/week").param("fecha", lunes.toString()))
+                .andExpect(status().isOk());
+        return conexiones.activas();
+    }
+
+    /**
+     * Anota las conexiones activas del pool antes de escribir cada cuerpo de respuesta
+     */
+    @TestConfiguration
+    @ControllerAdvice
+    static class ConexionesAlSerializar implements ResponseBodyAdvice<Object> {
+
+        private final HikariDataSource pool;
+        private volatile int activas = -1;
+
+        ConexionesAlSerializar(DataSource dataSource) throws SQLException {
+            this.pool = dataSource.unwrap(HikariDataSource.class);
+        }
+
+        void reiniciar() {
+            activas = -1;
+        }
+
+        int activas() {
+            return activas;
+        }
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            activas = pool.getHikariPoolMXBean().getActiveConnections();
+            return body;
+        }
+    }
+}
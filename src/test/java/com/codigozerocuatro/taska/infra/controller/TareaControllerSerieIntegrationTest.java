@@ -0,0 +1,63 @@
+package com.codigozerocuatro.taska.infra.controller;
+
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las ocurrencias de una serie se agrupan en la API por serieId, que sustituye a idTareaPadre
+ */
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+@Transactional
+public class TareaControllerSerieIntegrationTest extends TareaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCrearYBuscar_LasOcurrenciasCompartenSerieId() throws Exception {
+        CrearTareaRequest request = new CrearTareaRequest("Limpiar cámara", puesto.getId(), turno.getId(),
+                TipoRecurrencia.DIARIA.name(), null, null, null, 3, null);
+
+        String creada = mockMvc.perform(post("/api/tareas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serieId").isNumber())
+                .andExpect(jsonPath("$.idTareaPadre").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode tarea = objectMapper.readTree(creada);
+        LocalDate fecha = LocalDate.parse(tarea.get("fecha").asText());
+
+        String encontradas = mockMvc.perform(get("/api/tareas")
+                        .param("fechaInicio", fecha.toString())
+                        .param("fechaFin", fecha.plusDays(2).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode contenido = objectMapper.readTree(encontradas).get("contenido");
+        assertEquals(3, contenido.size());
+        contenido.forEach(ocurrencia -> assertEquals(tarea.get("serieId"), ocurrencia.get("serieId")));
+    }
+}
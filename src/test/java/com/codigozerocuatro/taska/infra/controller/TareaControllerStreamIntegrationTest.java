@@ -0,0 +1,120 @@
+package com.codigozerocuatro.taska.infra.controller;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.domain.service.TareaSuscripciones;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Los eventos se publican al confirmar las escrituras, así que este test no es transaccional:
+ * confirma sus datos y los elimina al terminar.
+ */
+@AutoConfigureMockMvc
+@WithMockUser
+public class TareaControllerStreamIntegrationTest extends TareaIntegrationTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TareaSuscripciones suscripciones;
+
+    private final LocalDate fecha = LocalDate.now().plusWeeks(6);
+
+    private PuestoEntity cocinero;
+    private PuestoEntity camarero;
+    private TareaEntity tareaCocinero;
+    private TareaEntity tareaCamarero;
+
+    @BeforeEach
+    void setUp() {
+        cocinero = puesto;
+        camarero = puesto(PuestoEnum.CAMARERO);
+        tareaCocinero = tareaService.crear(new CrearTareaRequest("Cocina", cocinero.getId(), turno.getId(),
+                TipoRecurrencia.UNA_VEZ.name(), null, null, fecha, 1, null));
+        tareaCamarero = tareaService.crear(new CrearTareaRequest("Sala", camarero.getId(), turno.getId(),
+                TipoRecurrencia.UNA_VEZ.name(), null, null, fecha, 1, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAll();
+    }
+
+    @Test
+    void testStream_RecibeLosCambiosDeSuSuscripcion() throws Exception {
+        MockHttpServletResponse response = suscribir("/api/tareas/stream?puestoId=" + cocinero.getId() + "&fecha=" + fecha);
+
+        tareaService.completar(tareaCamarero.getId());
+        tareaService.completar(tareaCocinero.getId());
+
+        await().atMost(ESPERA).until(() -> response.getContentAsString().contains("event:COMPLETADA"));
+        assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, response.getContentType());
+        String eventos = response.getContentAsString();
+        assertTrue(eventos.contains("\"tareaId\":" + tareaCocinero.getId()), eventos);
+        assertTrue(eventos.contains("\"completada\":true"), eventos);
+        assertFalse(eventos.contains("\"tareaId\":" + tareaCamarero.getId()), eventos);
+    }
+
+    @Test
+    void testStream_UsuarioDeUnPuestoSoloRecibeLosDeSuPuesto() throws Exception {
+        autenticar(Usuarios.usuario("usuario", RolEnum.USER, PuestoEnum.CAMARERO));
+        // Aunque pida los cambios de otro puesto
+        MockHttpServletResponse response = suscribir("/api/tareas/stream?puestoId=" + cocinero.getId());
+
+        autenticar(Usuarios.admin());
+        tareaService.eliminarSoloTarea(tareaCocinero.getId());
+        tareaService.eliminarSoloTarea(tareaCamarero.getId());
+
+        await().atMost(ESPERA).until(() -> response.getContentAsString().contains("event:ELIMINADA"));
+        String eventos = response.getContentAsString();
+        assertTrue(eventos.contains("\"tareaId\":" + tareaCamarero.getId()), eventos);
+        assertFalse(eventos.contains("\"tareaId\":" + tareaCocinero.getId()), eventos);
+    }
+
+    @Test
+    void testStream_AlCerrarSeCancelaLaSuscripcion() throws Exception {
+        int antes = suscripciones.activas();
+        MvcResult result = mockMvc.perform(get("/api/tareas/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(antes + 1, suscripciones.activas());
+
+        result.getRequest().getAsyncContext().complete();
+
+        await().atMost(ESPERA).until(() -> suscripciones.activas() == antes);
+    }
+
+    private MockHttpServletResponse suscribir(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+}
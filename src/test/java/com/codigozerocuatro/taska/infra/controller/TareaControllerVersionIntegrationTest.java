@@ -0,0 +1,185 @@
+package com.codigozerocuatro.taska.infra.controller;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.TipoRecurrencia;
+import com.codigozerocuatro.taska.infra.dto.CrearTareaRequest;
+import com.codigozerocuatro.taska.infra.persistence.model.TareaEntity;
+import com.codigozerocuatro.taska.support.JdbcRoundTripCounter;
+import com.codigozerocuatro.taska.support.TareaIntegrationTest;
+import com.codigozerocuatro.taska.support.Usuarios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las versiones avanzan al confirmar las escrituras, así que este test no es transaccional:
+ * confirma sus datos y los elimina al terminar.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+public class TareaControllerVersionIntegrationTest extends TareaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final LocalDate lunes = LocalDate.now().plusWeeks(8).with(DayOfWeek.MONDAY);
+
+    private Long cocinero;
+    private Long camarero;
+    private TareaEntity tareaCocinero;
+    private TareaEntity tareaCamarero;
+    private TareaEntity tareaOtraSemana;
+
+    @BeforeEach
+    void setUp() {
+        cocinero = puesto.getId();
+        camarero = puesto(PuestoEnum.CAMARERO).getId();
+
+        tareaCocinero = crear(cocinero, lunes);
+        tareaCamarero = crear(camarero, lunes.plusDays(2));
+        tareaOtraSemana = crear(cocinero, lunes.plusWeeks(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAll();
+    }
+
+    @Test
+    void testSemana_MismaVersionResponde304SinConsultas() throws Exception {
+        MvcResult primera = mockMvc.perform(semana())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn();
+        String etag = primera.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        JdbcRoundTripCounter.reset();
+        MvcResult segunda = mockMvc.perform(semana().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+
+        assertEquals(0, JdbcRoundTripCounter.roundTrips());
+        assertEquals(0, segunda.getResponse().getContentLength());
+    }
+
+    @Test
+    void testSemana_EtagDebilDeRespuestaComprimida() throws Exception {
+        String etag = mockMvc.perform(semana()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(semana().header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testSemana_EscrituraEnLaSemanaCambiaLaVersion() throws Exception {
+        String etag = mockMvc.perform(semana()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Otra semana: la versión se mantiene
+        tareaService.completar(tareaOtraSemana.getId());
+        mockMvc.perform(semana().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        tareaService.completar(tareaCamarero.getId());
+        String nuevo = mockMvc.perform(semana().header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nuevo);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testBuscar_UsuarioDeUnPuestoResponde304SinConsultas() throws Exception {
+        autenticar(Usuarios.usuario("cocinero", RolEnum.USER, PuestoEnum.COCINERO));
+        // Aunque pida otro puesto, solo ve el suyo
+        String etag = mockMvc.perform(buscar(camarero))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(1))
+                .andExpect(jsonPath("$.contenido[0].id").value(tareaCocinero.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        JdbcRoundTripCounter.reset();
+        mockMvc.perform(buscar(camarero).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, JdbcRoundTripCounter.roundTrips());
+    }
+
+    @Test
+    void testBuscar_SoloCambiaConEscriturasDelPuestoYRango() throws Exception {
+        String etag = mockMvc.perform(buscar(cocinero)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Otro puesto en la misma semana y el mismo puesto fuera del rango
+        tareaService.completar(tareaCamarero.getId());
+        tareaService.completar(tareaOtraSemana.getId());
+        mockMvc.perform(buscar(cocinero).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        tareaService.completar(tareaCocinero.getId());
+        mockMvc.perform(buscar(cocinero).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testBuscar_FiltrosDistintosVersionesDistintas() throws Exception {
+        String cocineroEtag = mockMvc.perform(buscar(cocinero)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(buscar(camarero).header(HttpHeaders.IF_NONE_MATCH, cocineroEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testResumen_DevuelveLosConteosConVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/tareas/resumen")
+                        .param("puestoId", cocinero.toString())
+                        .param("fechaInicio", lunes.toString())
+                        .param("fechaFin", lunes.plusDays(6).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].fecha").value(lunes.toString()))
+                .andExpect(jsonPath("$[0].puestoId").value(cocinero))
+                .andExpect(jsonPath("$[0].turnoId").value(turno.getId()))
+                .andExpect(jsonPath("$[0].completada").value(false))
+                .andExpect(jsonPath("$[0].total").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(etag, mockMvc.perform(buscar(cocinero)).andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletRequestBuilder semana() {
+        return get("/api/tareas/week").param("fecha", lunes.plusDays(3).toString());
+    }
+
+    private MockHttpServletRequestBuilder buscar(Long puestoId) {
+        return get("/api/tareas")
+                .param("puestoId", puestoId.toString())
+                .param("fechaInicio", lunes.toString())
+                .param("fechaFin", lunes.plusDays(6).toString());
+    }
+
+    private TareaEntity crear(Long puestoId, LocalDate fecha) {
+        return tareaService.crear(new CrearTareaRequest("Tarea " + puestoId + " " + fecha, puestoId, turno.getId(),
+                TipoRecurrencia.UNA_VEZ.name(), null, null, fecha, 1, null));
+    }
+}
@@ -0,0 +1,197 @@
+package com.codigozerocuatro.taska.infra.security;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.domain.model.User;
+import com.codigozerocuatro.taska.domain.service.VersionesSeguridad;
+import com.codigozerocuatro.taska.infra.config.AppProperties;
+import com.codigozerocuatro.taska.infra.config.cache.BusInvalidaciones;
+import com.codigozerocuatro.taska.infra.config.security.JwtAuthenticationFilter;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.UserJpaRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-for-jwt-in-tests-this-should-be-at-least-32-characters-long";
+
+    private final JwtService jwtService = jwtService(3_600_000, 100);
+
+    @Test
+    void testVerifyAccessToken_DevuelveLosClaims() {
+        String token = jwtService.generateToken(autenticacion("cocinero"));
+
+        Optional<Claims> claims = jwtService.verifyAccessToken(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("cocinero", claims.get().getSubject());
+        // Desde la caché el resultado es el mismo
+        assertEquals(claims, jwtService.verifyAccessToken(token));
+    }
+
+    @Test
+    void testGetPrincipal_DesdeLosClaims() {
+        Claims claims = jwtService.verifyAccessToken(jwtService.generateToken(autenticacion("cocinero"))).orElseThrow();
+
+        User principal = JwtService.getPrincipal(claims);
+
+        assertEquals("cocinero", principal.getUsername());
+        assertEquals(RolEnum.USER, principal.getUser().getRol());
+        assertEquals(PuestoEnum.COCINERO, principal.getUser().getPuesto());
+        assertEquals(3, principal.getUser().getVersionSeguridad());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void testGetVersionSeguridad_TambienEnElRefreshToken() {
+        Claims claims = jwtService.verify(jwtService.generateRefreshToken(autenticacion("cocinero"))).orElseThrow();
+
+        assertEquals(Optional.of(3L), JwtService.getVersionSeguridad(claims));
+    }
+
+    @Test
+    void testVerifyAccessToken_RechazaElRefreshToken() {
+        String refresh = jwtService.generateRefreshToken(autenticacion("cocinero"));
+
+        assertTrue(jwtService.verify(refresh).isPresent());
+        assertTrue(jwtService.verifyAccessToken(refresh).isEmpty());
+        assertFalse(jwtService.isNotRefreshToken(refresh));
+        assertEquals("cocinero", jwtService.getUsernameFromToken(refresh));
+    }
+
+    @Test
+    void testVerify_TokenAlteradoTrasCachearElOriginal() {
+        String token = jwtService.generateToken(autenticacion("cocinero"));
+        assertTrue(jwtService.validateToken(token));
+
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(jwtService.validateToken(alterado));
+        assertNull(jwtService.getUsernameFromToken(alterado));
+    }
+
+    @Test
+    void testVerify_FirmadoConOtraClave() {
+        String ajeno = Jwts.builder()
+                .subject("admin")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor((SECRET + "-otra").getBytes()))
+                .compact();
+
+        assertTrue(jwtService.verify(ajeno).isEmpty());
+    }
+
+    @Test
+    void testVerify_TokenVacio() {
+        assertTrue(jwtService.verify("").isEmpty());
+        assertTrue(jwtService.verify(null).isEmpty());
+    }
+
+    @Test
+    void testVerify_LaCacheCaducaConElToken() {
+        JwtService caducidadCorta = jwtService(1_000, 100);
+        String token = caducidadCorta.generateToken(autenticacion("cocinero"));
+        assertTrue(caducidadCorta.validateToken(token));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !caducidadCorta.validateToken(token));
+    }
+
+    @Test
+    void testVerify_SinCache() {
+        JwtService sinCache = jwtService(3_600_000, 0);
+        String token = sinCache.generateToken(autenticacion("cocinero"));
+
+        assertEquals("cocinero", sinCache.getUsernameFromToken(token));
+        assertTrue(sinCache.verifyAccessToken(token).isPresent());
+    }
+
+    @Test
+    void testVerify_ConCacheVerificaLaFirmaUnaVezPorToken() {
+        List<JwtParser> parsers = new ArrayList<>();
+        JwtService conCache = jwtServiceContando(100, parsers);
+        String token = conCache.generateToken(autenticacion("cocinero"));
+        String otro = conCache.generateToken(autenticacion("camarero"));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(conCache.verifyAccessToken(token).isPresent());
+            assertTrue(conCache.validateToken(otro));
+        }
+
+        verify(parsers.getFirst(), times(1)).parseSignedClaims(token);
+        verify(parsers.getFirst(), times(1)).parseSignedClaims(otro);
+    }
+
+    @Test
+    void testFiltro_SinCacheVerificaLaFirmaUnaVezPorPeticion() throws Exception {
+        List<JwtParser> parsers = new ArrayList<>();
+        JwtService sinCache = jwtServiceContando(0, parsers);
+        UserJpaRepository userRepository = mock(UserJpaRepository.class);
+        when(userRepository.findVersionSeguridadByUsername("cocinero")).thenReturn(Optional.of(3L));
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(sinCache,
+                new VersionesSeguridad(userRepository, mock(BusInvalidaciones.class), propiedades(3_600_000, 0)));
+        String token = sinCache.generateToken(autenticacion("cocinero"));
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tareas/week");
+            request.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(request, new MockHttpServletResponse(), (peticion, respuesta) ->
+                    assertNotNull(SecurityContextHolder.getContext().getAuthentication()));
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(parsers.getFirst(), times(3)).parseSignedClaims(token);
+    }
+
+    static JwtService jwtService(long expiration, int cacheSize) {
+        return new JwtService(propiedades(expiration, cacheSize));
+    }
+
+    /**
+     * Servicio cuyo parser es un espía, para contar las verificaciones de firma
+     */
+    private static JwtService jwtServiceContando(int cacheSize, List<JwtParser> parsers) {
+        return new JwtService(propiedades(3_600_000, cacheSize), parser -> {
+            JwtParser espia = spy(parser);
+            parsers.add(espia);
+            return espia;
+        });
+    }
+
+    private static AppProperties propiedades(long expiration, int cacheSize) {
+        return new AppProperties(new AppProperties.Jwt(SECRET, expiration, 604_800_000, cacheSize, Duration.ofMinutes(1)),
+                null, null, null, null, null, null, null);
+    }
+
+    static Authentication autenticacion(String username) {
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        user.setRol(RolEnum.USER);
+        user.setPuesto(PuestoEnum.COCINERO);
+        user.setVersionSeguridad(3);
+        User principal = new User(user);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
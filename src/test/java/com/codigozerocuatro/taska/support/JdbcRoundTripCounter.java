@@ -0,0 +1,63 @@
+package com.codigozerocuatro.taska.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuenta las llamadas execute* que llegan al driver JDBC, es decir, los viajes a la base de datos.
+ * Un executeBatch cuenta como un único viaje. Se registra en un test con {@code @Import(JdbcRoundTripCounter.class)}.
+ */
+@TestConfiguration
+public class JdbcRoundTripCounter {
+
+    private static final AtomicLong ROUND_TRIPS = new AtomicLong();
+
+    public static void reset() {
+        ROUND_TRIPS.set(0);
+    }
+
+    public static long roundTrips() {
+        return ROUND_TRIPS.get();
+    }
+
+    @Bean
+    static BeanPostProcessor jdbcRoundTripCounterPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                ROUND_TRIPS.incrementAndGet();
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                    return proxy((Class<Statement>) method.getReturnType(), statement);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(JdbcRoundTripCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
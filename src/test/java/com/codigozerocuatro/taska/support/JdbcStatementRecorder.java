@@ -0,0 +1,97 @@
+package com.codigozerocuatro.taska.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registra las sentencias preparadas que se ejecutan junto con sus parámetros, para poder
+ * repetirlas después (por ejemplo con EXPLAIN). Se registra en un test con
+ * {@code @Import(JdbcStatementRecorder.class)}.
+ */
+@TestConfiguration
+public class JdbcStatementRecorder {
+
+    private static final List<Sentencia> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+    public static void reset() {
+        SENTENCIAS.clear();
+    }
+
+    public static List<Sentencia> sentencias() {
+        return List.copyOf(SENTENCIAS);
+    }
+
+    /**
+     * Sentencia ejecutada y las llamadas set* con las que se asignaron sus parámetros
+     */
+    public record Sentencia(String sql, List<Parametro> parametros) {
+
+        /**
+         * Prepara la sentencia en la conexión con el prefijo indicado y le asigna los mismos parámetros
+         */
+        public PreparedStatement preparar(Connection connection, String prefijo) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(prefijo + sql);
+            for (Parametro parametro : parametros) {
+                try {
+                    parametro.metodo().invoke(statement, parametro.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("No se pudo asignar el parámetro con " + parametro.metodo().getName(), e);
+                }
+            }
+            return statement;
+        }
+    }
+
+    public record Parametro(Method metodo, Object[] args) {
+    }
+
+    @Bean
+    static BeanPostProcessor jdbcStatementRecorderPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource, null) : bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, String sql) {
+        List<Parametro> parametros = new ArrayList<>();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (sql != null && method.getName().startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                parametros.add(new Parametro(method, args));
+            }
+            if (sql != null && method.getName().startsWith("execute")) {
+                SENTENCIAS.add(new Sentencia(sql, List.copyOf(parametros)));
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection, null);
+                }
+                if (result instanceof PreparedStatement statement && "prepareStatement".equals(method.getName())) {
+                    return proxy(PreparedStatement.class, statement, (String) args[0]);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(JdbcStatementRecorder.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,85 @@
+package com.codigozerocuatro.taska.support;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.TurnoEnum;
+import com.codigozerocuatro.taska.domain.service.SecurityUtils;
+import com.codigozerocuatro.taska.domain.service.TareaService;
+import com.codigozerocuatro.taska.infra.persistence.model.PuestoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.TurnoEntity;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+import com.codigozerocuatro.taska.infra.persistence.repository.PuestoJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TareaSerieJpaRepository;
+import com.codigozerocuatro.taska.infra.persistence.repository.TurnoJpaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Base para los tests de integración de tareas sobre H2. Antes de cada test vacía tareas y series,
+ * asegura el puesto COCINERO y el turno MANANA y autentica como administrador.
+ * Puestos y turnos son datos de referencia: se crean la primera vez que se piden y no se borran,
+ * así que sus ids no cambian dentro del mismo contexto. Las subclases sin configuración propia
+ * comparten un único contexto de Spring.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(JdbcRoundTripCounter.class)
+public abstract class TareaIntegrationTest {
+
+    @Autowired
+    protected TareaService tareaService;
+
+    @Autowired
+    protected TareaJpaRepository tareaRepository;
+
+    @Autowired
+    protected TareaSerieJpaRepository serieRepository;
+
+    @Autowired
+    protected PuestoJpaRepository puestoRepository;
+
+    @Autowired
+    protected TurnoJpaRepository turnoRepository;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    @MockitoBean
+    protected SecurityUtils securityUtils;
+
+    protected PuestoEntity puesto;
+    protected TurnoEntity turno;
+
+    @BeforeEach
+    void prepararDatosBase() {
+        tareaRepository.deleteAllInBatch();
+        serieRepository.deleteAll();
+
+        puesto = puesto(PuestoEnum.COCINERO);
+        turno = turno(TurnoEnum.MANANA);
+        autenticar(Usuarios.admin());
+    }
+
+    protected PuestoEntity puesto(PuestoEnum puesto) {
+        return puestoRepository.findByPuesto(puesto)
+                .orElseGet(() -> puestoRepository.save(new PuestoEntity(puesto)));
+    }
+
+    protected TurnoEntity turno(TurnoEnum turno) {
+        return turnoRepository.findAll().stream()
+                .filter(existente -> existente.getTurno() == turno)
+                .findFirst()
+                .orElseGet(() -> turnoRepository.save(new TurnoEntity(turno)));
+    }
+
+    protected void autenticar(UserEntity usuario) {
+        when(securityUtils.getCurrentAuthenticatedUser()).thenReturn(usuario);
+    }
+}
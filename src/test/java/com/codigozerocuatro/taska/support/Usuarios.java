@@ -0,0 +1,29 @@
+package com.codigozerocuatro.taska.support;
+
+import com.codigozerocuatro.taska.domain.model.PuestoEnum;
+import com.codigozerocuatro.taska.domain.model.RolEnum;
+import com.codigozerocuatro.taska.infra.persistence.model.UserEntity;
+
+/**
+ * Usuarios autenticados de prueba, para devolverlos desde un {@code SecurityUtils} simulado.
+ */
+public final class Usuarios {
+
+    private Usuarios() {
+    }
+
+    /**
+     * Administrador: ve las tareas de todos los puestos
+     */
+    public static UserEntity admin() {
+        return usuario("admin", RolEnum.ADMIN, PuestoEnum.ENCARGADO);
+    }
+
+    public static UserEntity usuario(String username, RolEnum rol, PuestoEnum puesto) {
+        UserEntity usuario = new UserEntity();
+        usuario.setUsername(username);
+        usuario.setRol(rol);
+        usuario.setPuesto(puesto);
+        return usuario;
+    }
+}